@@ -30,6 +30,8 @@ public class Published extends AbstractEvent {
     
     private String category;
 
+    private Long fingerprint;
+
     public Published(Publishing aggregate) {
         super(aggregate);
     }
@@ -16,6 +16,7 @@ import ktlibrary.AiApplication;
 import ktlibrary.domain.Published;
 import ktlibrary.service.AIService;
 import ktlibrary.service.PDFService;
+import ktlibrary.service.SimHash;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
@@ -52,6 +53,9 @@ public class Publishing {
 
     private String category;
 
+    // 본문/요약의 SimHash 내용 지문. 플랫폼의 비슷한 책 색인에 쓰인다
+    private Long fingerprint;
+
     public static PublishingRepository repository() {
         PublishingRepository publishingRepository = AiApplication.applicationContext.getBean(
             PublishingRepository.class
@@ -115,6 +119,10 @@ public class Publishing {
             String summary = aiService.summarizeContent(content);
             publishing.setSummaryContent(summary);
             logger.info("4단계 완료: 요약 완료 ({}자)", summary.length());
+
+            // 원문은 출판 시점에만 있으므로 이때 내용 지문을 계산해 둔다
+            publishing.setFingerprint(SimHash.fingerprint(content, summary));
+            logger.info("내용 지문 계산 완료: {}", Long.toHexString(publishing.getFingerprint()));
             
             // 5. 저자 정보 처리
             logger.info("5단계: 저자 정보 처리 시작");
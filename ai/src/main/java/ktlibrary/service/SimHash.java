@@ -0,0 +1,68 @@
+package ktlibrary.service;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 본문/요약의 음절 3-gram(shingle) 으로 계산하는 64비트 SimHash 내용 지문.
+ * 내용이 비슷한 책일수록 지문의 해밍 거리가 작으므로, 플랫폼은 지문을 나눈 구간(band)으로
+ * 비슷한 책 후보만 찾아 거리를 비교한다.
+ */
+public final class SimHash {
+
+    private static final int SHINGLE = 3;
+
+    // 요약은 짧지만 책 전체를 대표하므로 본문 shingle 보다 가중치를 더 준다
+    private static final int SUMMARY_WEIGHT = 4;
+
+    private SimHash() {}
+
+    public static long fingerprint(String content, String summary) {
+        Map<Long, Integer> weights = new HashMap<>();
+        addShingles(weights, content, 1);
+        addShingles(weights, summary, SUMMARY_WEIGHT);
+
+        long[] bits = new long[64];
+        weights.forEach((hash, weight) -> {
+            for (int bit = 0; bit < 64; bit++) {
+                bits[bit] += ((hash >>> bit) & 1L) == 1L ? weight : -weight;
+            }
+        });
+
+        long fingerprint = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (bits[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    private static void addShingles(Map<Long, Integer> weights, String text, int weight) {
+        if (text == null) {
+            return;
+        }
+        // 공백/문장부호 차이는 지문에 영향을 주지 않도록 글자와 숫자만 남긴다
+        String normalized = Normalizer
+            .normalize(text, Normalizer.Form.NFKC)
+            .toLowerCase()
+            .replaceAll("[^\\p{L}\\p{N}]+", "");
+        for (int i = 0; i + SHINGLE <= normalized.length(); i++) {
+            weights.merge(hash(normalized, i, i + SHINGLE), weight, Integer::sum);
+        }
+    }
+
+    // 64비트 FNV-1a 후 비트 확산
+    private static long hash(String text, int from, int to) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
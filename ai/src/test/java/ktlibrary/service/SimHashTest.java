@@ -0,0 +1,53 @@
+package ktlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SimHashTest {
+
+    private static final String CONTENT =
+        "옛날 어느 마을에 마음씨 착한 나무꾼이 살았습니다. 나무꾼은 매일 산에 올라 나무를 하고, " +
+        "장에 내다 팔아 늙은 어머니를 모셨습니다. 어느 날 사슴 한 마리가 사냥꾼에게 쫓겨 달려왔고, " +
+        "나무꾼은 사슴을 나뭇더미 뒤에 숨겨 주었습니다. 사슴은 은혜를 갚겠다며 선녀들이 목욕하는 연못을 알려 주었습니다.";
+
+    private static final String OTHER =
+        "The quick brown fox jumps over the lazy dog while the farmer counts sheep in the valley " +
+        "and the river carries autumn leaves down toward the distant sea beyond the hills.";
+
+    @Test
+    void sameTextGivesSameFingerprint() {
+        assertThat(SimHash.fingerprint(CONTENT, "나무꾼과 선녀"))
+            .isEqualTo(SimHash.fingerprint(CONTENT, "나무꾼과 선녀"));
+    }
+
+    // 공백, 문장부호, 대소문자 차이는 지문을 바꾸지 않는다
+    @Test
+    void ignoresWhitespacePunctuationAndCase() {
+        String reformatted = CONTENT.replace(". ", "!\n\n").replace(", ", " ,  ");
+
+        assertThat(SimHash.fingerprint(reformatted, null))
+            .isEqualTo(SimHash.fingerprint(CONTENT, null));
+        assertThat(SimHash.fingerprint(OTHER.toUpperCase(), null))
+            .isEqualTo(SimHash.fingerprint(OTHER, null));
+    }
+
+    @Test
+    void smallEditStaysCloserThanUnrelatedText() {
+        long original = SimHash.fingerprint(CONTENT, null);
+        long edited = SimHash.fingerprint(CONTENT.replace("늙은 어머니", "홀어머니"), null);
+        long unrelated = SimHash.fingerprint(OTHER, null);
+
+        int editedDistance = Long.bitCount(original ^ edited);
+        int unrelatedDistance = Long.bitCount(original ^ unrelated);
+
+        assertThat(editedDistance).isLessThanOrEqualTo(16);
+        assertThat(unrelatedDistance).isGreaterThan(editedDistance);
+    }
+
+    @Test
+    void emptyInputGivesZero() {
+        assertThat(SimHash.fingerprint(null, null)).isZero();
+        assertThat(SimHash.fingerprint("", "  .. ")).isZero();
+    }
+}
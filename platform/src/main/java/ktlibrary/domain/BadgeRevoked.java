@@ -0,0 +1,27 @@
+package ktlibrary.domain;
+
+import java.time.LocalDate;
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+//<<< DDD / Domain Event
+@Data
+@ToString
+public class BadgeRevoked extends AbstractEvent {
+
+    private Long id;
+    private String bookName;
+    private Integer subscriptionCount;
+    private Boolean isBestSeller;
+
+    public BadgeRevoked(Book aggregate) {
+        super(aggregate);
+    }
+
+    public BadgeRevoked() {
+        super();
+    }
+}
+//>>> DDD / Domain Event
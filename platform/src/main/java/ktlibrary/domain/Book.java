@@ -6,15 +6,36 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import ktlibrary.PlatformApplication;
+import ktlibrary.service.BookCardCache;
+import ktlibrary.service.CatalogChangeFeed;
+import ktlibrary.service.CatalogIndexer;
+import ktlibrary.service.RelatedBooks;
+import ktlibrary.service.SubscriptionCounter;
+import ktlibrary.service.TrendingRanking;
+import ktlibrary.service.UniqueReaders;
 import lombok.Data;
 
 @Entity
-@Table(name = "Book_table")
+@Table(
+    name = "Book_table",
+    indexes = {
+        @Index(
+            name = "idx_book_subscription_count",
+            columnList = "subscriptionCount, id"
+        ),
+        @Index(name = "idx_book_change_seq", columnList = "changeSeq"),
+    }
+)
 @Data
 //<<< DDD / Aggregate Root
 public class Book {
@@ -37,6 +58,34 @@ public class Book {
 
     private String webUrl;
 
+    // 표지 이미지 URL
+    private String image;
+
+    // 마지막으로 등록/변경된 순번. 변경 피드(/books/changes)의 커서로 쓰인다
+    private Long changeSeq;
+
+    // ai 서비스가 출판 시 계산한 내용 지문(SimHash)
+    private Long fingerprint;
+
+    @PrePersist
+    @PreUpdate
+    public void onPreChange() {
+        this.changeSeq = changes().next();
+    }
+
+    // 저장소 API 로 수정/삭제된 도서는 미리 만든 카드를 버린다
+    @PostUpdate
+    @PostRemove
+    public void onPostChange() {
+        cards().evict(this.id);
+    }
+
+    // 삭제된 도서는 검색/조건별 목록/비슷한 책 색인에서도 뺀다 (커밋된 뒤에 반영)
+    @PostRemove
+    public void onPostRemove() {
+        indexer().remove(this.id);
+    }
+
     public static BookRepository repository() {
         BookRepository bookRepository = PlatformApplication.applicationContext.getBean(
             BookRepository.class
@@ -44,6 +93,55 @@ public class Book {
         return bookRepository;
     }
 
+    public static SubscriptionCounter counter() {
+        SubscriptionCounter subscriptionCounter = PlatformApplication.applicationContext.getBean(
+            SubscriptionCounter.class
+        );
+        return subscriptionCounter;
+    }
+
+    public static TrendingRanking ranking() {
+        TrendingRanking trendingRanking = PlatformApplication.applicationContext.getBean(
+            TrendingRanking.class
+        );
+        return trendingRanking;
+    }
+
+    public static CatalogIndexer indexer() {
+        CatalogIndexer catalogIndexer = PlatformApplication.applicationContext.getBean(
+            CatalogIndexer.class
+        );
+        return catalogIndexer;
+    }
+
+    public static RelatedBooks related() {
+        RelatedBooks relatedBooks = PlatformApplication.applicationContext.getBean(
+            RelatedBooks.class
+        );
+        return relatedBooks;
+    }
+
+    public static UniqueReaders readers() {
+        UniqueReaders uniqueReaders = PlatformApplication.applicationContext.getBean(
+            UniqueReaders.class
+        );
+        return uniqueReaders;
+    }
+
+    public static CatalogChangeFeed changes() {
+        CatalogChangeFeed catalogChangeFeed = PlatformApplication.applicationContext.getBean(
+            CatalogChangeFeed.class
+        );
+        return catalogChangeFeed;
+    }
+
+    public static BookCardCache cards() {
+        BookCardCache bookCardCache = PlatformApplication.applicationContext.getBean(
+            BookCardCache.class
+        );
+        return bookCardCache;
+    }
+
     //<<< Clean Arch / Port Method
     public static void registerBook(Published published) {
 
@@ -54,11 +152,14 @@ public class Book {
         book.setAuthorName(published.getAuthorId());
         book.setPdfPath(published.getPdfPath());
         book.setWebUrl(published.getWebUrl());
+        book.setImage(published.getImage());
         book.setCategory(published.getCategory());
+        book.setFingerprint(published.getFingerprint());
         book.setIsBestSeller(false);
         book.setSubscriptionCount(0);
         
         repository().save(book);
+        indexer().index(book);
 
         BookRegistered bookRegistered = new BookRegistered(book);
         bookRegistered.publishAfterCommit();
@@ -73,27 +174,41 @@ public class Book {
         ObjectMapper mapper = new ObjectMapper();
         Map<Long, Object> bookMap = mapper.convertValue(subscriptionApplied.getBookId(), Map.class);
 
-        // 구독시 선택한 도서ID와 일치하는 도서정보를 조회
-        repository().findById(Long.valueOf(bookMap.get("id").toString())).ifPresent(book->{
-            
-            // 특정 도서의 구독 신청이 진행될 때마다 구독숫자가 증가
-            if(book.getSubscriptionCount() == null){
-                book.setSubscriptionCount(1);
-                repository().save(book);
-            }else{
-                book.setSubscriptionCount(book.getSubscriptionCount() + 1);
-                repository().save(book);
-            }
+        Long bookId = Long.valueOf(bookMap.get("id").toString());
+
+        // 구독 숫자는 메모리 카운터에 누적 후 주기적으로 일괄 반영
+        counter().increment(bookId);
 
+        // 구간별 인기 순위에 반영. 베스트셀러 여부는 이 순위로 결정된다
+        ranking().record(bookId);
 
-            // 구독 숫자가 일정 횟수에 도달하면 베스트셀러처리
-            if(book.getSubscriptionCount() == 3){
-                book.setIsBestSeller(true);
+        // 함께 구독한 도서 모델과 일별 고유 독자 수에 반영
+        Map<Long, Object> userMap = mapper.convertValue(subscriptionApplied.getUserId(), Map.class);
+        if (userMap != null && userMap.get("id") != null) {
+            Long userId = Long.valueOf(userMap.get("id").toString());
+            related().record(userId, bookId);
+            readers().record(userId, bookId, subscriptionApplied.getTimestamp());
+        }
 
-                BadgeGranted badgeGranted = new BadgeGranted(book);
-                badgeGranted.publishAfterCommit();
+    }
+    //>>> Clean Arch / Port Method
+    //<<< Clean Arch / Port Method
+    public static void grantBadge(SubscriptionBundleApplied subscriptionBundleApplied) {
+
+        // 묶음 구독은 이벤트 한 건으로 도서마다 같은 집계를 반영
+        Long userId = subscriptionBundleApplied.getUserId();
+        for (SubscriptionBundleApplied.Item item : subscriptionBundleApplied.getSubscriptions()) {
+            Long bookId = item.getBookId();
+            if (bookId == null) {
+                continue;
+            }
+            counter().increment(bookId);
+            ranking().record(bookId);
+            if (userId != null) {
+                related().record(userId, bookId);
+                readers().record(userId, bookId, subscriptionBundleApplied.getTimestamp());
             }
-         });
+        }
 
     }
     //>>> Clean Arch / Port Method
@@ -0,0 +1,34 @@
+package ktlibrary.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 검색 색인에 보관되는 도서 요약 정보
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookDocument {
+
+    private Long id;
+    private String bookName;
+    private String authorName;
+    private String category;
+    private Boolean isBestSeller;
+
+    // 비슷한 책 색인에만 쓰이므로 응답에는 내보내지 않는다
+    @JsonIgnore
+    private Long fingerprint;
+
+    public static BookDocument of(Book book) {
+        return new BookDocument(
+            book.getId(),
+            book.getBookName(),
+            book.getAuthorName(),
+            book.getCategory(),
+            book.getIsBestSeller(),
+            book.getFingerprint()
+        );
+    }
+}
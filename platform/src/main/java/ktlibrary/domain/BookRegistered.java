@@ -19,6 +19,8 @@ public class BookRegistered extends AbstractEvent {
     private String summaryContent;
     private String bookContent;
     private String authorName;
+    private String webUrl;
+    private String pdfPath;
 
     public BookRegistered(Book aggregate) {
         super(aggregate);
@@ -1,10 +1,54 @@
 package ktlibrary.domain;
 
+import java.util.List;
 import ktlibrary.domain.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 
 //<<< PoEAA / Repository
 @RepositoryRestResource(collectionResourceRel = "books", path = "books")
 public interface BookRepository
-    extends PagingAndSortingRepository<Book, Long> {}
+    extends PagingAndSortingRepository<Book, Long> {
+    @RestResource(exported = false)
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // 기동 시 색인 파일에 남은 삭제된 도서를 걸러내기 위한 ID 목록 (id 순서)
+    @RestResource(exported = false)
+    @Query("select b.id from Book b where b.id > :afterId order by b.id asc")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 커서 목록 조회. 건수(count) 조회 없이 마지막 행의 키 다음부터 읽는다
+    @RestResource(exported = false)
+    @Query("select b from Book b where b.id < :beforeId order by b.id desc")
+    List<Book> findLatest(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query(
+        "select b from Book b " +
+        "where b.subscriptionCount < :count " +
+        "or (b.subscriptionCount = :count and b.id < :beforeId) " +
+        "order by b.subscriptionCount desc, b.id desc"
+    )
+    List<Book> findMostSubscribed(
+        @Param("count") Integer count,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+
+    // 변경 피드. upTo 이하 순번은 모두 커밋된 것만 넘겨받는다
+    @RestResource(exported = false)
+    @Query(
+        "select b from Book b " +
+        "where b.changeSeq > :since and b.changeSeq <= :upTo " +
+        "order by b.changeSeq asc"
+    )
+    List<Book> findChanges(
+        @Param("since") Long since,
+        @Param("upTo") Long upTo,
+        Pageable pageable
+    );
+}
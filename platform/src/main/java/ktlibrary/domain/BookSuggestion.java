@@ -0,0 +1,16 @@
+package ktlibrary.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 자동완성 후보 (field: bookName 또는 authorName)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookSuggestion {
+
+    private String text;
+    private String field;
+    private Long bookId;
+}
@@ -16,4 +16,5 @@ public class Published extends AbstractEvent {
     private String webUrl;
     private String authorId;
     private String category;
+    private Long fingerprint;
 }
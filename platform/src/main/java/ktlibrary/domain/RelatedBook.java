@@ -0,0 +1,18 @@
+package ktlibrary.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 함께 구독한 도서 조회 결과 (score 는 두 도서를 모두 구독한 구독자 수)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RelatedBook {
+
+    private Long bookId;
+    private String bookName;
+    private String authorName;
+    private String category;
+    private Integer score;
+}
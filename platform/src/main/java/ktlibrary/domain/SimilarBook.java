@@ -0,0 +1,18 @@
+package ktlibrary.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 비슷한 책 조회 결과 (similarity 는 1 - 내용 지문 해밍 거리 / 64)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SimilarBook {
+
+    private Long bookId;
+    private String bookName;
+    private String authorName;
+    private String category;
+    private Double similarity;
+}
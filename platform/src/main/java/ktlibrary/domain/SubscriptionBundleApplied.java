@@ -0,0 +1,25 @@
+package ktlibrary.domain;
+
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+@Data
+@ToString
+public class SubscriptionBundleApplied extends AbstractEvent {
+
+    private Long userId;
+    private List<Item> subscriptions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private Long id;
+        private Long bookId;
+        private Date startSubscription;
+        private Date endSubscription;
+    }
+}
@@ -0,0 +1,16 @@
+package ktlibrary.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 인기 순위 조회 결과 (score 는 구간 내 구독 수 추정치)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrendingBook {
+
+    private Long bookId;
+    private String category;
+    private Long score;
+}
@@ -0,0 +1,116 @@
+package ktlibrary.infra;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import ktlibrary.service.BookCardCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+//<<< Clean Arch / Inbound Adaptor
+
+// 도서 단건/일괄 조회를 미리 직렬화한 카드로 응답한다. /books/{id} 의 수정/삭제 등 다른 메서드는 기존 저장소 API 가 처리한다
+@RepositoryRestController
+public class BookCardController {
+
+    private static final byte[] COMMA = { ',' };
+
+    @Value("${platform.book-card.batch-limit:500}")
+    private int batchLimit;
+
+    @Autowired
+    BookCardCache bookCardCache;
+
+    @RequestMapping(value = "/books/{id}", method = RequestMethod.GET)
+    public void getBook(
+        @PathVariable(value = "id") Long id,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws Exception {
+        BookCardCache.Card card = bookCardCache.get(id);
+        if (card == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader("ETag", card.getEtag());
+        if (card.getEtag().equals(request.getHeader("If-None-Match"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType("application/hal+json;charset=UTF-8");
+        response.setContentLength(card.getBody().length);
+        response.getOutputStream().write(card.getBody());
+    }
+
+    // 여러 도서를 한 번에 조회. 요청 순서를 유지하고 없는 ID 는 missing 으로 알려준다
+    @RequestMapping(value = "/books/batch", method = RequestMethod.GET)
+    public void getBooks(
+        @RequestParam(value = "ids") List<Long> ids,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws Exception {
+        writeBatch(ids, response);
+    }
+
+    @RequestMapping(value = "/books/batch", method = RequestMethod.POST)
+    public void postBooks(
+        @RequestBody List<Long> ids,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws Exception {
+        writeBatch(ids, response);
+    }
+
+    // 캐시된 카드 바이트를 그대로 이어 붙여 {"content":[{"id":..,"book":카드}],"missing":[..]} 로 응답
+    private void writeBatch(List<Long> ids, HttpServletResponse response)
+        throws Exception {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > batchLimit) {
+            throw new BadRequestException(
+                "한 번에 조회할 수 있는 도서는 " + batchLimit + "권입니다."
+            );
+        }
+        Map<Long, BookCardCache.Card> cards = bookCardCache.getAll(requested);
+
+        response.setContentType("application/json;charset=UTF-8");
+        OutputStream out = response.getOutputStream();
+        out.write(ascii("{\"content\":["));
+        boolean first = true;
+        for (Map.Entry<Long, BookCardCache.Card> entry : cards.entrySet()) {
+            if (!first) {
+                out.write(COMMA);
+            }
+            out.write(ascii("{\"id\":" + entry.getKey() + ",\"book\":"));
+            out.write(entry.getValue().getBody());
+            out.write('}');
+            first = false;
+        }
+        out.write(ascii("],\"missing\":["));
+        first = true;
+        for (Long id : requested) {
+            if (!cards.containsKey(id)) {
+                if (!first) {
+                    out.write(COMMA);
+                }
+                out.write(ascii(id.toString()));
+                first = false;
+            }
+        }
+        out.write(ascii("]}"));
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
@@ -1,11 +1,23 @@
 package ktlibrary.infra;
 
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.transaction.Transactional;
 import ktlibrary.domain.*;
+import ktlibrary.service.BookFacets;
+import ktlibrary.service.BookSearchIndex;
+import ktlibrary.service.RelatedBooks;
+import ktlibrary.service.SimilarBooks;
+import ktlibrary.service.TrendingRanking;
+import ktlibrary.service.UniqueReaders;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -19,5 +31,245 @@ public class BookController {
 
     @Autowired
     BookRepository bookRepository;
+
+    @Autowired
+    TrendingRanking trendingRanking;
+
+    @Autowired
+    BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    BookFacets bookFacets;
+
+    @Autowired
+    RelatedBooks relatedBooks;
+
+    @Autowired
+    SimilarBooks similarBooks;
+
+    @Autowired
+    UniqueReaders uniqueReaders;
+
+    // 구간(24h, 7d, 30d)별 인기 도서. 메모리의 순위에서 바로 응답한다
+    @RequestMapping(
+        value = "/books/trending",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public List<TrendingBook> trending(
+        @RequestParam(value = "window", defaultValue = "7d") String window,
+        @RequestParam(value = "category", required = false) String category,
+        @RequestParam(value = "size", defaultValue = "10") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        return trendingRanking.top(window, category, Math.max(1, Math.min(size, 100)));
+    }
+
+    // 도서명/저자명/카테고리 검색. 메모리 역색인에서 바로 응답한다
+    @RequestMapping(
+        value = "/books/search",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public List<BookDocument> search(
+        @RequestParam(value = "q") String q,
+        @RequestParam(value = "category", required = false) String category,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        return bookSearchIndex.search(q, category, Math.max(1, Math.min(size, 100)));
+    }
+
+    @RequestMapping(
+        value = "/books/autocomplete",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public List<BookSuggestion> autocomplete(
+        @RequestParam(value = "q") String q,
+        @RequestParam(value = "size", defaultValue = "10") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        return bookSearchIndex.autocomplete(q, Math.max(1, Math.min(size, 50)));
+    }
+
+    // 카테고리/저자/베스트셀러 조건별 도서 목록과 조건별 건수. before 에 이전 응답의 nextCursor 를 넘긴다
+    @RequestMapping(
+        value = "/books/browse",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> browse(
+        @RequestParam(value = "category", required = false) String category,
+        @RequestParam(value = "author", required = false) String author,
+        @RequestParam(value = "bestSeller", required = false) Boolean bestSeller,
+        @RequestParam(value = "before", required = false) Long before,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        return bookFacets.browse(
+            category,
+            author,
+            bestSeller,
+            before,
+            Math.max(1, Math.min(size, 100))
+        );
+    }
+
+    // 이 도서를 구독한 독자가 함께 구독한 도서. 메모리 모델의 상위 이웃을 그대로 반환한다
+    @RequestMapping(
+        value = "/books/{id}/related",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public List<RelatedBook> related(
+        @PathVariable(value = "id") Long id,
+        @RequestParam(value = "size", defaultValue = "10") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        return relatedBooks.related(id, Math.max(1, Math.min(size, 50)));
+    }
+
+    // 내용이 비슷한 도서. 출판 시 계산한 내용 지문(SimHash)의 해밍 거리가 가까운 순
+    @RequestMapping(
+        value = "/books/{id}/similar",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public List<SimilarBook> similar(
+        @PathVariable(value = "id") Long id,
+        @RequestParam(value = "size", defaultValue = "10") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        return similarBooks.similar(id, Math.max(1, Math.min(size, 50)));
+    }
+
+    // 기간(from~to, 기본은 오늘까지 days 일) 동안 이 도서를 구독한 고유 독자 수의 추정치와 일별 추정치
+    @RequestMapping(
+        value = "/books/{id}/readers",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> bookReaders(
+        @PathVariable(value = "id") Long id,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(
+            iso = DateTimeFormat.ISO.DATE
+        ) LocalDate from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(
+            iso = DateTimeFormat.ISO.DATE
+        ) LocalDate to,
+        @RequestParam(value = "days", defaultValue = "7") int days,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        LocalDate end = to != null ? to : uniqueReaders.localToday();
+        return uniqueReaders.bookReaders(id, start(from, end, days), end);
+    }
+
+    // 카테고리(없으면 전체)의 고유 독자 수 추정치
+    @RequestMapping(
+        value = "/books/readers",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> categoryReaders(
+        @RequestParam(value = "category", required = false) String category,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(
+            iso = DateTimeFormat.ISO.DATE
+        ) LocalDate from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(
+            iso = DateTimeFormat.ISO.DATE
+        ) LocalDate to,
+        @RequestParam(value = "days", defaultValue = "7") int days,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        LocalDate end = to != null ? to : uniqueReaders.localToday();
+        return uniqueReaders.categoryReaders(category, start(from, end, days), end);
+    }
+
+    // 날짜마다 스케치를 합치므로 조회 기간은 최대 1년으로 제한
+    private static LocalDate start(LocalDate from, LocalDate end, int days) {
+        LocalDate earliest = end.minusDays(365);
+        LocalDate start = from != null ? from : end.minusDays(Math.max(1, days) - 1);
+        return start.isBefore(earliest) ? earliest : start;
+    }
+
+    // 구독 서비스의 구독 이력 전체로 함께 구독한 도서 모델을 다시 만든다 (비동기)
+    @RequestMapping(
+        value = "/books/related/rebuild",
+        method = RequestMethod.PUT,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> rebuildRelated(
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("started", relatedBooks.startRebuild());
+        return result;
+    }
+
+    // 무한 스크롤용 커서 목록. 정렬은 id(최신순) 또는 subscriptionCount(구독 많은 순)
+    @RequestMapping(
+        value = "/books/scroll",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> scroll(
+        @RequestParam(value = "sort", defaultValue = "id") String sort,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        PageRequest page = PageRequest.of(0, pageSize);
+        List<Book> books;
+        if ("subscriptionCount".equals(sort)) {
+            long[] keys = cursor != null
+                ? CursorToken.decodeLongs(cursor, sort, 2)
+                : null;
+            books =
+                bookRepository.findMostSubscribed(
+                    keys != null
+                        ? (int) Math.min(keys[0], Integer.MAX_VALUE)
+                        : Integer.MAX_VALUE,
+                    keys != null ? keys[1] : Long.MAX_VALUE,
+                    page
+                );
+        } else if ("id".equals(sort)) {
+            long[] keys = cursor != null
+                ? CursorToken.decodeLongs(cursor, sort, 1)
+                : null;
+            books =
+                bookRepository.findLatest(
+                    keys != null ? keys[0] : Long.MAX_VALUE,
+                    page
+                );
+        } else {
+            throw new BadRequestException("지원하지 않는 정렬입니다: " + sort);
+        }
+
+        String nextCursor = null;
+        if (books.size() == pageSize) {
+            Book last = books.get(books.size() - 1);
+            nextCursor =
+                "subscriptionCount".equals(sort)
+                    ? CursorToken.encode(sort, last.getSubscriptionCount(), last.getId())
+                    : CursorToken.encode(sort, last.getId());
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("content", books);
+        result.put("nextCursor", nextCursor);
+        return result;
+    }
 }
 //>>> Clean Arch / Inbound Adaptor
@@ -0,0 +1,79 @@
+package ktlibrary.infra;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import ktlibrary.service.CatalogChangeFeed;
+import ktlibrary.service.CatalogSnapshotExporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+//<<< Clean Arch / Inbound Adaptor
+
+// 도서 목록 복제용 API. 스냅샷으로 적재한 뒤 응답 헤더의 커서부터 변경 피드를 읽는다
+@RestController
+public class CatalogController {
+
+    private static final long MAX_WAIT_SECONDS = 60;
+
+    @Autowired
+    CatalogChangeFeed catalogChangeFeed;
+
+    @Autowired
+    CatalogSnapshotExporter catalogSnapshotExporter;
+
+    @RequestMapping(value = "/books/snapshot", method = RequestMethod.GET)
+    public void snapshot(
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws Exception {
+        Path snapshot = catalogSnapshotExporter.latest();
+        if (snapshot == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType("application/gzip");
+        response.setHeader(
+            "Content-Disposition",
+            "attachment; filename=\"" + snapshot.getFileName() + "\""
+        );
+        response.setHeader(
+            "Catalog-Cursor",
+            CursorToken.encode(
+                CatalogChangeFeed.CURSOR_SORT,
+                CatalogSnapshotExporter.seqOf(snapshot)
+            )
+        );
+        response.setContentLengthLong(Files.size(snapshot));
+        Files.copy(snapshot, response.getOutputStream());
+    }
+
+    // since 이후 등록/변경된 도서. 변경이 없으면 wait 초 동안 기다렸다가 응답한다
+    @RequestMapping(
+        value = "/books/changes",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public DeferredResult<Map<String, Object>> changes(
+        @RequestParam(value = "since", required = false) String since,
+        @RequestParam(value = "size", defaultValue = "100") int size,
+        @RequestParam(value = "wait", defaultValue = "0") long wait,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        long seq = since != null
+            ? CursorToken.decodeLongs(since, CatalogChangeFeed.CURSOR_SORT, 1)[0]
+            : 0L;
+        return catalogChangeFeed.poll(
+            seq,
+            Math.max(1, Math.min(size, 1000)),
+            Math.max(0, Math.min(wait, MAX_WAIT_SECONDS)) * 1000
+        );
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
@@ -52,5 +52,20 @@ public class PolicyHandler {
         // Sample Logic //
         Book.grantBadge(event);
     }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='SubscriptionBundleApplied'"
+    )
+    public void wheneverSubscriptionBundleApplied_GrantBadge(
+        @Payload SubscriptionBundleApplied subscriptionBundleApplied
+    ) {
+        SubscriptionBundleApplied event = subscriptionBundleApplied;
+        System.out.println(
+            "\n\n##### listener GrantBadge : " + subscriptionBundleApplied + "\n\n"
+        );
+
+        Book.grantBadge(event);
+    }
 }
 //>>> Clean Arch / Inbound Adaptor
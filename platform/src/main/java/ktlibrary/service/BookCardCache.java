@@ -0,0 +1,176 @@
+package ktlibrary.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import ktlibrary.domain.Book;
+import ktlibrary.domain.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * /books/{id} 응답 본문을 미리 직렬화해 둔 도서 카드 캐시.
+ * 카드는 UTF-8 바이트와 ETag 로 보관되고, 도서가 바뀐 경우(구독 수 반영, 베스트셀러 변경, 수정)에만
+ * 제거되어 다음 조회에서 다시 만들어진다.
+ */
+@Service
+public class BookCardCache {
+
+    @Value("${platform.book-card.capacity:10000}")
+    private int capacity;
+
+    // 비어 있으면 링크를 상대 경로(/books/{id})로 만든다
+    @Value("${platform.book-card.base-url:}")
+    private String baseUrl;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Long, Card> cards = new ConcurrentHashMap<>();
+
+    // 카드를 만드는 동안 제거 요청이 있었으면 낡은 카드를 넣지 않기 위한 세대 번호
+    private final AtomicLong generation = new AtomicLong();
+
+    public Card get(Long bookId) {
+        Card card = cards.get(bookId);
+        if (card != null) {
+            return card;
+        }
+
+        long started = generation.get();
+        Book book = bookRepository.findById(bookId).orElse(null);
+        if (book == null) {
+            return null;
+        }
+        card = build(book);
+        if (generation.get() == started) {
+            cards.put(bookId, card);
+            trim();
+        }
+        return card;
+    }
+
+    // 요청 순서대로 카드를 반환. 캐시에 없는 도서는 IN 조회 한 번으로 읽고, 없는 도서는 결과에서 빠진다
+    public Map<Long, Card> getAll(Collection<Long> bookIds) {
+        Map<Long, Card> result = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long bookId : bookIds) {
+            Card card = cards.get(bookId);
+            if (card == null) {
+                misses.add(bookId);
+            }
+            result.put(bookId, card);
+        }
+
+        if (!misses.isEmpty()) {
+            long started = generation.get();
+            for (Book book : bookRepository.findAllById(misses)) {
+                Card card = build(book);
+                result.put(book.getId(), card);
+                if (generation.get() == started) {
+                    cards.put(book.getId(), card);
+                }
+            }
+            trim();
+        }
+        result.values().removeIf(Objects::isNull);
+        return result;
+    }
+
+    public void evict(Long bookId) {
+        evictAll(Collections.singletonList(bookId));
+    }
+
+    // 트랜잭션 안에서 호출되면 커밋 전에 다시 만들어진 카드도 버리도록 완료 시점에 한 번 더 제거한다
+    public void evictAll(Collection<Long> bookIds) {
+        generation.incrementAndGet();
+        bookIds.forEach(cards::remove);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        generation.incrementAndGet();
+                        bookIds.forEach(cards::remove);
+                    }
+                }
+            );
+        }
+    }
+
+    // 용량을 넘으면 임의의 카드부터 제거. 조회 경로에 잠금이나 순서 갱신을 두지 않기 위해 LRU 를 쓰지 않는다
+    private void trim() {
+        Iterator<Long> iterator = cards.keySet().iterator();
+        while (cards.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    // Spring Data REST 의 도서 응답과 같은 필드와 링크를 갖는 본문
+    private Card build(Book book) {
+        String href = baseUrl + "/books/" + book.getId();
+        Map<String, Object> self = new LinkedHashMap<>();
+        self.put("href", href);
+        Map<String, Object> links = new LinkedHashMap<>();
+        links.put("self", self);
+        links.put("book", self);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("bookName", book.getBookName());
+        body.put("category", book.getCategory());
+        body.put("isBestSeller", book.getIsBestSeller());
+        body.put("pdfPath", book.getPdfPath());
+        body.put("subscriptionCount", book.getSubscriptionCount());
+        body.put("authorName", book.getAuthorName());
+        body.put("webUrl", book.getWebUrl());
+        body.put("image", book.getImage());
+        body.put("_links", links);
+
+        try {
+            byte[] bytes = objectMapper
+                .writeValueAsString(body)
+                .getBytes(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            return new Card(bytes, "\"" + Long.toHexString(crc.getValue()) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("도서 카드 직렬화 실패: " + book.getId(), e);
+        }
+    }
+
+    public static class Card {
+
+        private final byte[] body;
+        private final String etag;
+
+        Card(byte[] body, String etag) {
+            this.body = body;
+            this.etag = etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
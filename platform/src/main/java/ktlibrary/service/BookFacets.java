@@ -0,0 +1,275 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import ktlibrary.domain.BookDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 카테고리/저자/베스트셀러 조건별 도서 목록과 건수.
+ * 도서마다 (카테고리, 저자, 베스트셀러) 의 모든 부분 조합 키에 건수를 더해 두므로
+ * 조회 시에는 GROUP BY 없이 키 조회만으로 건수를 얻는다.
+ */
+@Service
+public class BookFacets {
+
+    private static final String ANY = "*";
+    private static final char SEPARATOR = '\u0000';
+
+    @Value("${platform.browse.author-facet-size:20}")
+    private int authorFacetSize;
+
+    // 키: 카테고리 + 구분자 + 저자 + 구분자 + 베스트셀러 여부 (조건이 없는 자리는 ANY)
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    private final Map<Long, BookDocument> documents = new ConcurrentHashMap<>();
+
+    private final Set<String> categories = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Set<String>> authorsByCategory = new ConcurrentHashMap<>();
+
+    private final SortedIdSet all = new SortedIdSet();
+
+    private final SortedIdSet bestSellers = new SortedIdSet();
+
+    private final Map<String, SortedIdSet> byCategory = new ConcurrentHashMap<>();
+
+    private final Map<String, SortedIdSet> byAuthor = new ConcurrentHashMap<>();
+
+    public synchronized void index(BookDocument document) {
+        if (document == null || document.getId() == null) {
+            return;
+        }
+        BookDocument previous = documents.put(document.getId(), document);
+        if (previous != null) {
+            remove(previous, Boolean.TRUE.equals(previous.getIsBestSeller()));
+        }
+        add(document, Boolean.TRUE.equals(document.getIsBestSeller()));
+    }
+
+    public synchronized void remove(Long bookId) {
+        BookDocument previous = documents.remove(bookId);
+        if (previous != null) {
+            remove(previous, Boolean.TRUE.equals(previous.getIsBestSeller()));
+            all.remove(bookId);
+        }
+    }
+
+    // 색인에 들어 있는 문서는 이미 새 값으로 바뀌었을 수 있으므로 이전 값을 따로 받는다
+    public synchronized void updateBestSeller(
+        BookDocument document,
+        boolean previous,
+        boolean current
+    ) {
+        if (document == null || previous == current) {
+            return;
+        }
+        count(document, previous, -1);
+        count(document, current, 1);
+        if (current) {
+            bestSellers.add(document.getId());
+        } else {
+            bestSellers.remove(document.getId());
+        }
+    }
+
+    public long count(String category, String author, Boolean bestSeller) {
+        LongAdder adder = counts.get(key(category, author, bestSeller));
+        return adder == null ? 0L : adder.sum();
+    }
+
+    // before 보다 작은 ID 중 최신 도서부터 조건에 맞는 도서를 size 권까지 반환
+    public Map<String, Object> browse(
+        String category,
+        String author,
+        Boolean bestSeller,
+        Long before,
+        int size
+    ) {
+        // 후보가 가장 적은 목록을 기준으로 훑고, 나머지 조건은 문서 값으로 확인
+        SortedIdSet base = all;
+        if (category != null) {
+            base = smaller(base, byCategory.get(category));
+        }
+        if (author != null) {
+            base = smaller(base, byAuthor.get(author));
+        }
+        if (Boolean.TRUE.equals(bestSeller)) {
+            base = smaller(base, bestSellers);
+        }
+
+        List<BookDocument> content = new ArrayList<>(size);
+        Long nextCursor = null;
+        if (base != null) {
+            SortedIdSet.Snapshot snapshot = base.snapshot();
+            int from = before == null
+                ? snapshot.size() - 1
+                : snapshot.lastIndexBefore(before);
+            for (int i = from; i >= 0; i--) {
+                BookDocument document = documents.get(snapshot.get(i));
+                if (document == null || !matches(document, category, author, bestSeller)) {
+                    continue;
+                }
+                if (content.size() == size) {
+                    nextCursor = content.get(size - 1).getId();
+                    break;
+                }
+                content.add(document);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("content", content);
+        result.put("nextCursor", nextCursor);
+        result.put("total", count(category, author, bestSeller));
+        result.put("facets", facets(category, author, bestSeller));
+        return result;
+    }
+
+    private Map<String, Object> facets(
+        String category,
+        String author,
+        Boolean bestSeller
+    ) {
+        Map<String, Object> facets = new LinkedHashMap<>();
+
+        // 선택한 카테고리 외의 조건을 유지한 채 카테고리별 건수
+        Map<String, Long> categoryCounts = new LinkedHashMap<>();
+        categories
+            .stream()
+            .sorted()
+            .forEach(value -> {
+                long count = count(value, author, bestSeller);
+                if (count > 0) {
+                    categoryCounts.put(value, count);
+                }
+            });
+        facets.put("category", categoryCounts);
+
+        Map<String, Long> bestSellerCounts = new LinkedHashMap<>();
+        bestSellerCounts.put("true", count(category, author, true));
+        bestSellerCounts.put("false", count(category, author, false));
+        facets.put("bestSeller", bestSellerCounts);
+
+        // 저자는 수가 많으므로 카테고리를 고른 경우에만 상위 저자를 반환
+        if (category != null) {
+            Map<String, Long> authorCounts = new LinkedHashMap<>();
+            authorsByCategory
+                .getOrDefault(category, Set.of())
+                .stream()
+                .map(value -> Map.entry(value, count(category, value, bestSeller)))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(
+                    Map.Entry
+                        .<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey())
+                )
+                .limit(authorFacetSize)
+                .forEach(entry -> authorCounts.put(entry.getKey(), entry.getValue()));
+            facets.put("author", authorCounts);
+        }
+        return facets;
+    }
+
+    private void add(BookDocument document, boolean bestSeller) {
+        Long id = document.getId();
+        count(document, bestSeller, 1);
+        all.add(id);
+        if (bestSeller) {
+            bestSellers.add(id);
+        }
+        if (document.getCategory() != null) {
+            categories.add(document.getCategory());
+            byCategory
+                .computeIfAbsent(document.getCategory(), key -> new SortedIdSet())
+                .add(id);
+            if (document.getAuthorName() != null) {
+                authorsByCategory
+                    .computeIfAbsent(
+                        document.getCategory(),
+                        key -> ConcurrentHashMap.newKeySet()
+                    )
+                    .add(document.getAuthorName());
+            }
+        }
+        if (document.getAuthorName() != null) {
+            byAuthor
+                .computeIfAbsent(document.getAuthorName(), key -> new SortedIdSet())
+                .add(id);
+        }
+    }
+
+    private void remove(BookDocument document, boolean bestSeller) {
+        Long id = document.getId();
+        count(document, bestSeller, -1);
+        bestSellers.remove(id);
+        if (document.getCategory() != null) {
+            SortedIdSet ids = byCategory.get(document.getCategory());
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+        if (document.getAuthorName() != null) {
+            SortedIdSet ids = byAuthor.get(document.getAuthorName());
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+
+    // 세 조건의 모든 부분 조합(8개 키)에 건수를 반영. 값이 없는 필드는 ANY 와 겹치지 않도록 빈 문자열로 센다
+    private void count(BookDocument document, boolean bestSeller, long delta) {
+        String category = Objects.toString(document.getCategory(), "");
+        String author = Objects.toString(document.getAuthorName(), "");
+        for (int mask = 0; mask < 8; mask++) {
+            String key = key(
+                (mask & 1) != 0 ? category : null,
+                (mask & 2) != 0 ? author : null,
+                (mask & 4) != 0 ? bestSeller : null
+            );
+            counts.computeIfAbsent(key, value -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static String key(String category, String author, Boolean bestSeller) {
+        return (
+            (category == null ? ANY : category) +
+            SEPARATOR +
+            (author == null ? ANY : author) +
+            SEPARATOR +
+            (bestSeller == null ? ANY : bestSeller.toString())
+        );
+    }
+
+    private static boolean matches(
+        BookDocument document,
+        String category,
+        String author,
+        Boolean bestSeller
+    ) {
+        return (
+            (category == null || category.equals(document.getCategory())) &&
+            (author == null || author.equals(document.getAuthorName())) &&
+            (
+                bestSeller == null ||
+                bestSeller.equals(Boolean.TRUE.equals(document.getIsBestSeller()))
+            )
+        );
+    }
+
+    // 조건에 해당하는 목록이 없으면 결과도 없으므로 null 을 유지한다
+    private static SortedIdSet smaller(SortedIdSet current, SortedIdSet candidate) {
+        if (current == null || candidate == null) {
+            return null;
+        }
+        return candidate.size() < current.size() ? candidate : current;
+    }
+}
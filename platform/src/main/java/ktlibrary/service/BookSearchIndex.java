@@ -0,0 +1,253 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import ktlibrary.domain.Book;
+import ktlibrary.domain.BookDocument;
+import ktlibrary.domain.BookSuggestion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 도서명/저자명/카테고리에 대한 메모리 역색인과 자동완성 색인.
+ * 색인어는 KoreanBigramTokenizer 의 2-gram 이며, 포스팅은 정렬된 도서 ID 집합(SortedIdSet)으로 보관한다.
+ * 자동완성은 자모 단위 키의 정렬 맵에서 접두어 구간만 읽는다.
+ */
+@Service
+public class BookSearchIndex {
+
+    private static final char SEPARATOR = '\u0000';
+
+    @Value("${platform.search.candidate-limit:1000}")
+    private int candidateLimit;
+
+    private final Map<String, SortedIdSet> postings = new ConcurrentHashMap<>();
+
+    private final Map<Long, Entry> documents = new ConcurrentHashMap<>();
+
+    // 키: 자모 분해한 단어열 + 구분자 + 필드 + 구분자 + 도서 ID
+    private final ConcurrentSkipListMap<String, BookSuggestion> suggestions = new ConcurrentSkipListMap<>();
+
+    public void index(Book book) {
+        index(BookDocument.of(book));
+    }
+
+    // 색인 변경은 도서 하나의 이전 색인어를 지우고 새 색인어를 넣는 동안 섞이지 않도록 직렬화한다. 조회는 잠그지 않는다
+    public synchronized void index(BookDocument document) {
+        Long id = document.getId();
+        if (id == null) {
+            return;
+        }
+        String text = searchText(document);
+        Entry previous = documents.put(id, new Entry(document, text));
+        if (previous != null && previous.text.equals(text)) {
+            return;
+        }
+        // 글이 바뀐 도서는 이전 색인어와 자동완성 키를 먼저 지운다
+        if (previous != null) {
+            unindex(id, previous);
+        }
+
+        for (String term : KoreanBigramTokenizer.terms(text)) {
+            postings.computeIfAbsent(term, key -> new SortedIdSet()).add(id);
+        }
+        suggest(document.getBookName(), "bookName", id);
+        suggest(document.getAuthorName(), "authorName", id);
+    }
+
+    public synchronized void remove(Long bookId) {
+        Entry previous = documents.remove(bookId);
+        if (previous != null) {
+            unindex(bookId, previous);
+        }
+    }
+
+    public BookDocument document(Long bookId) {
+        Entry entry = documents.get(bookId);
+        return entry == null ? null : entry.document;
+    }
+
+    public List<BookDocument> documents() {
+        List<BookDocument> result = new ArrayList<>(documents.size());
+        documents.values().forEach(entry -> result.add(entry.document));
+        return result;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public void updateBestSeller(Long bookId, Boolean isBestSeller) {
+        Entry entry = documents.get(bookId);
+        if (entry != null) {
+            entry.document.setIsBestSeller(isBestSeller);
+        }
+    }
+
+    public List<BookDocument> search(String query, String category, int size) {
+        List<String> words = KoreanBigramTokenizer.words(query);
+        List<SortedIdSet.Snapshot> lists = new ArrayList<>();
+        for (String term : KoreanBigramTokenizer.terms(words)) {
+            SortedIdSet termPostings = postings.get(term);
+            if (termPostings == null) {
+                return new ArrayList<>();
+            }
+            lists.add(termPostings.snapshot());
+        }
+        if (lists.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lists.sort(Comparator.comparingInt(SortedIdSet.Snapshot::size));
+
+        // 가장 짧은 포스팅을 최신 도서부터 훑으며 나머지 포스팅은 이진 탐색으로 교집합을 구한다
+        SortedIdSet.Snapshot base = lists.get(0);
+        List<BookDocument> matches = new ArrayList<>();
+        for (int i = base.size() - 1; i >= 0 && matches.size() < candidateLimit; i--) {
+            long bookId = base.get(i);
+            if (!containedInAll(lists, bookId)) {
+                continue;
+            }
+            Entry entry = documents.get(bookId);
+            if (entry == null) {
+                continue;
+            }
+            if (category != null && !category.equals(entry.document.getCategory())) {
+                continue;
+            }
+            // 2-gram 교집합은 떨어진 위치의 음절도 맞추므로 원문에 단어가 실제로 있는지 확인
+            if (!containsAll(entry.text, words)) {
+                continue;
+            }
+            matches.add(entry.document);
+        }
+
+        String phrase = String.join(" ", words);
+        matches.sort(
+            Comparator
+                .comparing((BookDocument document) ->
+                    !titleContains(document, phrase)
+                )
+                .thenComparing(document ->
+                    !Boolean.TRUE.equals(document.getIsBestSeller())
+                )
+                .thenComparing(BookDocument::getId, Comparator.reverseOrder())
+        );
+        return matches.size() > size ? matches.subList(0, size) : matches;
+    }
+
+    public List<BookSuggestion> autocomplete(String prefix, int size) {
+        String key = KoreanBigramTokenizer.jamo(
+            String.join(" ", KoreanBigramTokenizer.words(prefix))
+        );
+        if (key.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, BookSuggestion> unique = new LinkedHashMap<>();
+        for (BookSuggestion suggestion : suggestions
+            .subMap(key, true, key + Character.MAX_VALUE, true)
+            .values()) {
+            unique.putIfAbsent(
+                suggestion.getField() + SEPARATOR + suggestion.getText(),
+                suggestion
+            );
+            if (unique.size() >= size) {
+                break;
+            }
+        }
+        return new ArrayList<>(unique.values());
+    }
+
+    private void unindex(Long id, Entry entry) {
+        for (String term : KoreanBigramTokenizer.terms(entry.text)) {
+            SortedIdSet termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(id);
+            }
+        }
+        suggestionKeys(entry.document.getBookName(), "bookName", id).forEach(suggestions::remove);
+        suggestionKeys(entry.document.getAuthorName(), "authorName", id).forEach(suggestions::remove);
+    }
+
+    private void suggest(String text, String field, Long bookId) {
+        for (String key : suggestionKeys(text, field, bookId)) {
+            suggestions.put(key, new BookSuggestion(text, field, bookId));
+        }
+    }
+
+    // 중간 단어부터 입력해도 찾을 수 있도록 각 단어 위치를 시작점으로 등록
+    private static List<String> suggestionKeys(String text, String field, Long bookId) {
+        List<String> words = KoreanBigramTokenizer.words(text);
+        List<String> keys = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            keys.add(
+                KoreanBigramTokenizer.jamo(
+                    String.join(" ", words.subList(i, words.size()))
+                ) +
+                SEPARATOR +
+                field +
+                SEPARATOR +
+                bookId
+            );
+        }
+        return keys;
+    }
+
+    private static String searchText(BookDocument document) {
+        return String.join(
+            " ",
+            KoreanBigramTokenizer.words(
+                Objects.toString(document.getBookName(), "") +
+                " " +
+                Objects.toString(document.getAuthorName(), "") +
+                " " +
+                Objects.toString(document.getCategory(), "")
+            )
+        );
+    }
+
+    private static boolean containedInAll(
+        List<SortedIdSet.Snapshot> lists,
+        long bookId
+    ) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(bookId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsAll(String text, List<String> words) {
+        for (String word : words) {
+            if (!text.contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean titleContains(BookDocument document, String phrase) {
+        return (
+            document.getBookName() != null &&
+            KoreanBigramTokenizer.normalize(document.getBookName()).contains(phrase)
+        );
+    }
+
+    private static class Entry {
+
+        private final BookDocument document;
+        private final String text;
+
+        Entry(BookDocument document, String text) {
+            this.document = document;
+            this.text = text;
+        }
+    }
+}
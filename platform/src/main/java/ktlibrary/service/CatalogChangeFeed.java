@@ -0,0 +1,184 @@
+package ktlibrary.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import ktlibrary.domain.Book;
+import ktlibrary.domain.BookRepository;
+import ktlibrary.infra.CursorToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * 도서 등록/변경 순번(changeSeq)을 발급하고, 순번 이후에 바뀐 도서를 돌려주는 변경 피드.
+ * 순번은 커밋 전에 발급되므로 아직 커밋되지 않은 가장 작은 순번 직전까지만 내보내
+ * 커서가 늦게 커밋된 변경을 건너뛰지 않도록 한다.
+ */
+@Service
+public class CatalogChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        CatalogChangeFeed.class
+    );
+
+    public static final String CURSOR_SORT = "changeSeq";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    // 발급되었지만 트랜잭션이 아직 끝나지 않은 순번
+    private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean signalled = new AtomicBoolean();
+
+    // 대기 중인 조회를 깨우는 작업은 쓰기 트랜잭션의 스레드가 아닌 별도 스레드에서 한다
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(r ->
+        new Thread(r, "catalog-change-feed")
+    );
+
+    @PostConstruct
+    public void init() {
+        Long last = jdbcTemplate.queryForObject(
+            "select coalesce(max(change_seq), 0) from book_table",
+            Long.class
+        );
+        sequence.set(last != null ? last : 0L);
+    }
+
+    @PreDestroy
+    public void stop() {
+        notifier.shutdownNow();
+    }
+
+    public long next() {
+        long seq = sequence.incrementAndGet();
+        pending.add(seq);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        complete(seq);
+                    }
+                }
+            );
+        } else {
+            complete(seq);
+        }
+        return seq;
+    }
+
+    // 이 순번 이하의 변경은 모두 커밋(또는 롤백)이 끝났다
+    public long watermark() {
+        long current = sequence.get();
+        Iterator<Long> iterator = pending.iterator();
+        return iterator.hasNext() ? Math.min(iterator.next() - 1, current) : current;
+    }
+
+    public Map<String, Object> changes(long since, int size) {
+        long upTo = watermark();
+        List<Book> books = upTo > since
+            ? bookRepository.findChanges(since, upTo, PageRequest.of(0, size))
+            : List.of();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("content", books);
+        // 한 페이지를 다 채우지 못했으면 upTo 까지 모두 읽은 것이다
+        long cursor = books.size() == size
+            ? books.get(books.size() - 1).getChangeSeq()
+            : Math.max(since, upTo);
+        result.put("nextCursor", CursorToken.encode(CURSOR_SORT, cursor));
+        result.put("hasMore", books.size() == size);
+        return result;
+    }
+
+    // 새 변경이 없으면 waitMillis 동안 응답을 미루고, 그 사이 변경이 커밋되면 바로 응답한다
+    public DeferredResult<Map<String, Object>> poll(
+        long since,
+        int size,
+        long waitMillis
+    ) {
+        Map<String, Object> empty = changes(since, size);
+        DeferredResult<Map<String, Object>> result = new DeferredResult<>(
+            waitMillis,
+            empty
+        );
+        if (!((List<?>) empty.get("content")).isEmpty() || waitMillis <= 0) {
+            result.setResult(empty);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(since, size, result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        // 등록 직전에 커밋된 변경을 놓치지 않도록 한 번 더 확인
+        signal();
+        return result;
+    }
+
+    private void complete(long seq) {
+        pending.remove(seq);
+        signal();
+    }
+
+    private void signal() {
+        if (waiters.isEmpty() || !signalled.compareAndSet(false, true)) {
+            return;
+        }
+        notifier.execute(() -> {
+            signalled.set(false);
+            long upTo = watermark();
+            for (Waiter waiter : waiters) {
+                if (upTo <= waiter.since || waiter.result.isSetOrExpired()) {
+                    continue;
+                }
+                try {
+                    Map<String, Object> changes = changes(waiter.since, waiter.size);
+                    if (!((List<?>) changes.get("content")).isEmpty()) {
+                        waiter.result.setResult(changes);
+                    }
+                } catch (RuntimeException e) {
+                    logger.error("변경 피드 응답 실패: {}", e.getMessage(), e);
+                    waiter.result.setErrorResult(e);
+                }
+            }
+        });
+    }
+
+    private static class Waiter {
+
+        private final long since;
+        private final int size;
+        private final DeferredResult<Map<String, Object>> result;
+
+        Waiter(long since, int size, DeferredResult<Map<String, Object>> result) {
+            this.since = since;
+            this.size = size;
+            this.result = result;
+        }
+    }
+}
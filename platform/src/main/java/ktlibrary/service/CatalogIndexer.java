@@ -0,0 +1,349 @@
+package ktlibrary.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import javax.annotation.PreDestroy;
+import ktlibrary.domain.Book;
+import ktlibrary.domain.BookDocument;
+import ktlibrary.domain.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 도서 등록/베스트셀러 변경을 메모리 색인(검색, 조건별 목록, 비슷한 책)에 함께 반영한다.
+ * 검색 색인과 조건별 목록은 같은 BookDocument 를 공유한다.
+ * 색인 내용은 주기적으로 메모리 매핑 파일에 저장하고, 기동 시 파일을 적재한 뒤
+ * 저장 시점 이후의 변경만 DB 에서 읽어 따라잡는다.
+ */
+@Service
+public class CatalogIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        CatalogIndexer.class
+    );
+
+    private static final long FILE_MAGIC = 0x4B54_4341_5441_4C31L;
+    private static final int FILE_VERSION = 2;
+
+    @Value("${platform.search.rebuild-page-size:1000}")
+    private int rebuildPageSize;
+
+    @Value("${platform.catalog.index-dir:./catalog-index}")
+    private String indexDir;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookFacets bookFacets;
+
+    @Autowired
+    private SimilarBooks similarBooks;
+
+    @Autowired
+    private CatalogChangeFeed catalogChangeFeed;
+
+    // 적재가 끝나기 전에는 불완전한 색인을 파일에 덮어쓰지 않는다
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Long savedSeq = load();
+        if (savedSeq != null) {
+            catchUp(savedSeq);
+            // 변경 피드에는 삭제가 남지 않으므로 파일에 있던 도서 중 테이블에 없는 도서를 뺀다
+            removeDeleted();
+        } else {
+            rebuildFromTable();
+        }
+        ready = true;
+        logger.info(
+            "도서 색인 적재 완료 ({}): {}권, {}ms",
+            savedSeq != null ? "색인 파일 + 변경분" : "도서 테이블",
+            bookSearchIndex.size(),
+            System.currentTimeMillis() - started
+        );
+    }
+
+    public void index(Book book) {
+        if (book.getId() == null) {
+            return;
+        }
+        index(BookDocument.of(book));
+    }
+
+    public void remove(Long bookId) {
+        if (bookId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        unindex(bookId);
+                    }
+                }
+            );
+        } else {
+            unindex(bookId);
+        }
+    }
+
+    public void updateBestSeller(Long bookId, boolean isBestSeller) {
+        BookDocument document = bookSearchIndex.document(bookId);
+        if (document == null) {
+            return;
+        }
+        boolean previous = Boolean.TRUE.equals(document.getIsBestSeller());
+        bookSearchIndex.updateBestSeller(bookId, isBestSeller);
+        bookFacets.updateBestSeller(document, previous, isBestSeller);
+    }
+
+    // 파일 레이아웃: MAGIC, VERSION, 저장 시점 변경 순번, 도서 수,
+    // 도서마다 [id, 베스트셀러 여부, 내용 지문 유무, 내용 지문, 도서명, 저자명, 카테고리]
+    // (문자열은 길이 + UTF-8, null 은 길이 -1)
+    @Scheduled(
+        initialDelayString = "${platform.catalog.index-save-interval-ms:300000}",
+        fixedDelayString = "${platform.catalog.index-save-interval-ms:300000}"
+    )
+    @PreDestroy
+    public void save() {
+        if (!ready) {
+            return;
+        }
+        // 저장 중에 바뀐 도서는 이 순번 이후의 변경분으로 다음 기동 때 다시 반영된다
+        long seq = catalogChangeFeed.watermark();
+        List<BookDocument> documents = bookSearchIndex.documents();
+        documents.sort(Comparator.comparing(BookDocument::getId));
+
+        List<byte[]> records = new ArrayList<>(documents.size());
+        long size = Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+        for (BookDocument document : documents) {
+            byte[] record = encode(document);
+            records.add(record);
+            size += record.length;
+        }
+
+        try {
+            MappedFiles.write(
+                indexFile(),
+                size,
+                buffer -> {
+                    buffer.putLong(FILE_MAGIC);
+                    buffer.putInt(FILE_VERSION);
+                    buffer.putLong(seq);
+                    buffer.putInt(records.size());
+                    records.forEach(buffer::put);
+                }
+            );
+        } catch (IOException | RuntimeException e) {
+            logger.error("도서 색인 파일 저장 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    private void unindex(Long bookId) {
+        bookSearchIndex.remove(bookId);
+        bookFacets.remove(bookId);
+        similarBooks.remove(bookId);
+    }
+
+    private void index(BookDocument document) {
+        bookSearchIndex.index(document);
+        bookFacets.index(bookSearchIndex.document(document.getId()));
+        similarBooks.index(document.getId(), document.getFingerprint());
+    }
+
+    // 색인 파일의 도서를 적재하고 저장 시점의 변경 순번을 반환. 파일이 없거나 쓸 수 없으면 null
+    private Long load() {
+        // DB 가 새로 만들어졌으면 파일의 순번이 DB 보다 앞서 있으므로 버린다
+        long currentSeq = catalogChangeFeed.watermark();
+        try {
+            return MappedFiles.read(
+                indexFile(),
+                buffer -> {
+                    if (
+                        buffer.remaining() < Long.BYTES + Integer.BYTES ||
+                        buffer.getLong() != FILE_MAGIC ||
+                        buffer.getInt() != FILE_VERSION
+                    ) {
+                        return null;
+                    }
+                    long seq = buffer.getLong();
+                    if (seq > currentSeq) {
+                        return null;
+                    }
+                    int count = buffer.getInt();
+                    for (int i = 0; i < count; i++) {
+                        index(decode(buffer));
+                    }
+                    return seq;
+                }
+            );
+        } catch (IOException | RuntimeException e) {
+            logger.error("도서 색인 파일 적재 실패: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private void catchUp(long since) {
+        while (true) {
+            List<Book> books = bookRepository.findChanges(
+                since,
+                catalogChangeFeed.watermark(),
+                PageRequest.of(0, rebuildPageSize)
+            );
+            books.forEach(this::index);
+            if (books.size() < rebuildPageSize) {
+                return;
+            }
+            since = books.get(books.size() - 1).getChangeSeq();
+        }
+    }
+
+    // 색인의 도서 ID 와 테이블의 도서 ID 를 둘 다 id 순서로 훑으며 테이블에 없는 ID 를 찾는다
+    private void removeDeleted() {
+        List<Long> indexed = new ArrayList<>();
+        bookSearchIndex.documents().forEach(document -> indexed.add(document.getId()));
+        indexed.sort(null);
+
+        List<Long> deleted = new ArrayList<>();
+        int position = 0;
+        long afterId = Long.MIN_VALUE;
+        while (position < indexed.size()) {
+            List<Long> ids = bookRepository.findIdsAfter(
+                afterId,
+                PageRequest.of(0, rebuildPageSize)
+            );
+            for (Long id : ids) {
+                while (position < indexed.size() && indexed.get(position) < id) {
+                    deleted.add(indexed.get(position++));
+                }
+                if (position < indexed.size() && indexed.get(position).equals(id)) {
+                    position++;
+                }
+            }
+            if (ids.size() < rebuildPageSize) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+        while (position < indexed.size()) {
+            deleted.add(indexed.get(position++));
+        }
+
+        deleted.forEach(this::unindex);
+        if (!deleted.isEmpty()) {
+            logger.info("색인 파일에서 삭제된 도서 {}권을 뺐습니다.", deleted.size());
+        }
+    }
+
+    private void rebuildFromTable() {
+        long afterId = 0L;
+        while (true) {
+            List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId,
+                PageRequest.of(0, rebuildPageSize)
+            );
+            books.forEach(this::index);
+            if (books.size() < rebuildPageSize) {
+                return;
+            }
+            afterId = books.get(books.size() - 1).getId();
+        }
+    }
+
+    private Path indexFile() {
+        return Paths.get(indexDir, "catalog.idx");
+    }
+
+    private static byte[] encode(BookDocument document) {
+        byte[] bookName = utf8(document.getBookName());
+        byte[] authorName = utf8(document.getAuthorName());
+        byte[] category = utf8(document.getCategory());
+        ByteBuffer buffer = ByteBuffer.allocate(
+            Long.BYTES +
+            1 +
+            1 +
+            Long.BYTES +
+            3 * Integer.BYTES +
+            length(bookName) +
+            length(authorName) +
+            length(category)
+        );
+        buffer.putLong(document.getId());
+        buffer.put((byte) (Boolean.TRUE.equals(document.getIsBestSeller()) ? 1 : 0));
+        buffer.put((byte) (document.getFingerprint() != null ? 1 : 0));
+        buffer.putLong(document.getFingerprint() != null ? document.getFingerprint() : 0L);
+        putString(buffer, bookName);
+        putString(buffer, authorName);
+        putString(buffer, category);
+        return buffer.array();
+    }
+
+    private static BookDocument decode(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        boolean isBestSeller = buffer.get() == 1;
+        boolean hasFingerprint = buffer.get() == 1;
+        long fingerprint = buffer.getLong();
+        String bookName = getString(buffer);
+        String authorName = getString(buffer);
+        String category = getString(buffer);
+        return new BookDocument(
+            id,
+            bookName,
+            authorName,
+            category,
+            isBestSeller,
+            hasFingerprint ? fingerprint : null
+        );
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(value.length);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,143 @@
+package ktlibrary.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import ktlibrary.domain.Book;
+import ktlibrary.domain.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 도서 전체를 한 줄에 한 권씩(JSON Lines) gzip 으로 압축한 스냅샷을 주기적으로 만든다.
+ * 파일 이름에 스냅샷 시작 시점의 변경 순번을 넣어, 소비자가 스냅샷을 적재한 뒤
+ * 그 순번부터 변경 피드를 이어 읽도록 한다.
+ */
+@Service
+public class CatalogSnapshotExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        CatalogSnapshotExporter.class
+    );
+
+    private static final Pattern FILE_NAME = Pattern.compile(
+        "catalog-(\\d+)\\.jsonl\\.gz"
+    );
+
+    @Value("${platform.catalog.snapshot-dir:./catalog-snapshots}")
+    private String snapshotDir;
+
+    @Value("${platform.catalog.snapshot-retain:3}")
+    private int retain;
+
+    @Value("${platform.search.rebuild-page-size:1000}")
+    private int pageSize;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CatalogChangeFeed catalogChangeFeed;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Scheduled(
+        initialDelayString = "${platform.catalog.snapshot-initial-delay-ms:60000}",
+        fixedDelayString = "${platform.catalog.snapshot-interval-ms:3600000}"
+    )
+    public void export() {
+        // 스냅샷을 읽는 동안 바뀐 도서는 이 순번 이후의 변경 피드에 다시 나온다
+        long seq = catalogChangeFeed.watermark();
+        long started = System.currentTimeMillis();
+        try {
+            Path dir = Paths.get(snapshotDir);
+            Files.createDirectories(dir);
+            Path target = dir.resolve("catalog-" + seq + ".jsonl.gz");
+            if (Files.exists(target)) {
+                return;
+            }
+
+            Path temp = dir.resolve(target.getFileName() + ".tmp");
+            long count = 0;
+            try (
+                OutputStream out = new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp))
+                )
+            ) {
+                long afterId = 0L;
+                while (true) {
+                    List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(
+                        afterId,
+                        PageRequest.of(0, pageSize)
+                    );
+                    for (Book book : books) {
+                        out.write(objectMapper.writeValueAsBytes(book));
+                        out.write('\n');
+                    }
+                    count += books.size();
+                    if (books.size() < pageSize) {
+                        break;
+                    }
+                    afterId = books.get(books.size() - 1).getId();
+                }
+            }
+            // 다 쓴 파일만 보이도록 이름을 바꿔서 공개
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            cleanUp(dir);
+            logger.info(
+                "도서 스냅샷 생성 완료: {} ({}권, {}ms)",
+                target,
+                count,
+                System.currentTimeMillis() - started
+            );
+        } catch (IOException | RuntimeException e) {
+            logger.error("도서 스냅샷 생성 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    public Path latest() throws IOException {
+        List<Path> snapshots = snapshots(Paths.get(snapshotDir));
+        return snapshots.isEmpty() ? null : snapshots.get(0);
+    }
+
+    public static long seqOf(Path snapshot) {
+        Matcher matcher = FILE_NAME.matcher(snapshot.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
+    private void cleanUp(Path dir) throws IOException {
+        List<Path> snapshots = snapshots(dir);
+        for (Path old : snapshots.subList(Math.min(retain, snapshots.size()), snapshots.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    // 최신 순번부터 정렬
+    private static List<Path> snapshots(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                .filter(path -> FILE_NAME.matcher(path.getFileName().toString()).matches())
+                .sorted((a, b) -> Long.compare(seqOf(b), seqOf(a)))
+                .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 도서-도서 동시 구독 횟수 모델. 구독자별 최근 구독 도서와 도서별 이웃 후보(LongCountMap)를 두고,
+ * 도서별 상위 K 이웃은 불변 배열로 게시하여 조회 시에는 계산 없이 그대로 반환한다.
+ */
+public class CoSubscriptionModel {
+
+    private final int topK;
+    private final int candidateCapacity;
+    private final int historyLimit;
+
+    private final Map<Long, History> histories = new ConcurrentHashMap<>();
+    private final Map<Long, Neighbours> neighbours = new ConcurrentHashMap<>();
+
+    public CoSubscriptionModel(int topK, int candidateCapacity, int historyLimit) {
+        this.topK = topK;
+        this.candidateCapacity = Math.max(candidateCapacity, topK);
+        this.historyLimit = historyLimit;
+    }
+
+    public void record(long userId, long bookId) {
+        History history = histories.computeIfAbsent(userId, id -> new History(historyLimit));
+        synchronized (history) {
+            if (history.contains(bookId)) {
+                return;
+            }
+            for (int i = 0; i < history.size; i++) {
+                long other = history.books[i];
+                neighboursOf(bookId).increment(other);
+                neighboursOf(other).increment(bookId);
+            }
+            history.add(bookId);
+        }
+    }
+
+    // 비어 있으면 길이 0 인 결과
+    public Top related(long bookId) {
+        Neighbours entry = neighbours.get(bookId);
+        return entry == null ? Top.EMPTY : entry.top;
+    }
+
+    /**
+     * 구독 이력(구독자별 도서, 오래된 순)으로 모델을 새로 만든다. 대상 도서 ID 로 작업을 나누어
+     * 각 도서의 이웃은 한 스레드만 갱신하므로 스레드 간 잠금 경합이나 병합 단계가 없다.
+     */
+    public static CoSubscriptionModel build(
+        Map<Long, long[]> userBooks,
+        int topK,
+        int candidateCapacity,
+        int historyLimit,
+        int parallelism
+    ) throws Exception {
+        CoSubscriptionModel model = new CoSubscriptionModel(
+            topK,
+            candidateCapacity,
+            historyLimit
+        );
+        List<long[]> lists = new ArrayList<>(userBooks.size());
+        userBooks.forEach((userId, books) -> {
+            // 실시간 반영과 같은 범위가 되도록 최근 historyLimit 권만 쓴다
+            History history = new History(historyLimit);
+            for (long bookId : books) {
+                if (!history.contains(bookId)) {
+                    history.add(bookId);
+                }
+            }
+            model.histories.put(userId, history);
+            long[] recent = new long[history.size];
+            System.arraycopy(history.books, 0, recent, 0, history.size);
+            lists.add(recent);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> futures = new ArrayList<>(parallelism);
+            for (int p = 0; p < parallelism; p++) {
+                int partition = p;
+                futures.add(
+                    executor.submit(() -> {
+                        for (long[] books : lists) {
+                            for (long bookId : books) {
+                                if (Math.floorMod(bookId, parallelism) != partition) {
+                                    continue;
+                                }
+                                Neighbours entry = model.neighboursOf(bookId);
+                                for (long other : books) {
+                                    if (other != bookId) {
+                                        entry.increment(other);
+                                    }
+                                }
+                            }
+                        }
+                    })
+                );
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return model;
+    }
+
+    private Neighbours neighboursOf(long bookId) {
+        return neighbours.computeIfAbsent(bookId, id -> new Neighbours());
+    }
+
+    public static class Top {
+
+        static final Top EMPTY = new Top(new long[0], new int[0]);
+
+        private final long[] bookIds;
+        private final int[] counts;
+
+        Top(long[] bookIds, int[] counts) {
+            this.bookIds = bookIds;
+            this.counts = counts;
+        }
+
+        public int size() {
+            return bookIds.length;
+        }
+
+        public long bookId(int index) {
+            return bookIds[index];
+        }
+
+        public int count(int index) {
+            return counts[index];
+        }
+    }
+
+    // 구독자의 최근 구독 도서 (오래된 순). 가득 차면 가장 오래된 도서를 밀어낸다
+    private static class History {
+
+        private final long[] books;
+        private int size;
+
+        History(int limit) {
+            this.books = new long[limit];
+        }
+
+        boolean contains(long bookId) {
+            for (int i = 0; i < size; i++) {
+                if (books[i] == bookId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(long bookId) {
+            if (size == books.length) {
+                System.arraycopy(books, 1, books, 0, size - 1);
+                size--;
+            }
+            books[size++] = bookId;
+        }
+    }
+
+    private class Neighbours {
+
+        private final LongCountMap counts = new LongCountMap(16);
+        private volatile Top top = Top.EMPTY;
+
+        // 횟수는 1씩만 늘어나므로 상위 K 의 최소값을 넘는 순간에 바로 상위 K 에 들어간다
+        synchronized void increment(long other) {
+            int count = counts.add(other, 1);
+            long evicted = 0;
+            if (counts.size() > candidateCapacity) {
+                evicted = counts.minKey();
+                counts.remove(evicted);
+            }
+
+            Top current = top;
+            int index = indexOf(current, other);
+            int evictedIndex = evicted != 0 ? indexOf(current, evicted) : -1;
+            if (evicted == other) {
+                if (index >= 0) {
+                    top = without(current, index);
+                }
+                return;
+            }
+            if (evictedIndex >= 0) {
+                current = without(current, evictedIndex);
+                index = indexOf(current, other);
+            }
+            if (index < 0) {
+                if (current.size() >= topK && count <= current.count(current.size() - 1)) {
+                    top = current;
+                    return;
+                }
+                current = with(current, other, count);
+            } else {
+                current = withCount(current, index, count);
+            }
+            top = current;
+        }
+
+        private int indexOf(Top current, long bookId) {
+            for (int i = 0; i < current.size(); i++) {
+                if (current.bookIds[i] == bookId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Top without(Top current, int index) {
+            int size = current.size() - 1;
+            long[] ids = new long[size];
+            int[] values = new int[size];
+            for (int i = 0, j = 0; i <= size; i++) {
+                if (i != index) {
+                    ids[j] = current.bookIds[i];
+                    values[j++] = current.counts[i];
+                }
+            }
+            return new Top(ids, values);
+        }
+
+        // 가득 찼으면 가장 낮은 이웃을 밀어내고 횟수 내림차순 위치에 넣는다
+        private Top with(Top current, long bookId, int count) {
+            int size = Math.min(current.size() + 1, topK);
+            long[] ids = new long[size];
+            int[] values = new int[size];
+            int j = 0;
+            boolean placed = false;
+            for (int i = 0; i < current.size() && j < size; i++) {
+                if (!placed && count > current.counts[i]) {
+                    ids[j] = bookId;
+                    values[j++] = count;
+                    placed = true;
+                    if (j == size) {
+                        break;
+                    }
+                }
+                ids[j] = current.bookIds[i];
+                values[j++] = current.counts[i];
+            }
+            if (!placed && j < size) {
+                ids[j] = bookId;
+                values[j] = count;
+            }
+            return new Top(ids, values);
+        }
+
+        private Top withCount(Top current, int index, int count) {
+            long[] ids = current.bookIds.clone();
+            int[] values = current.counts.clone();
+            values[index] = count;
+            // 한 칸씩 앞으로 올린다
+            for (int i = index; i > 0 && values[i] > values[i - 1]; i--) {
+                long id = ids[i];
+                ids[i] = ids[i - 1];
+                ids[i - 1] = id;
+                int value = values[i];
+                values[i] = values[i - 1];
+                values[i - 1] = value;
+            }
+            return new Top(ids, values);
+        }
+    }
+}
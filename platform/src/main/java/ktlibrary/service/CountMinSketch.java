@@ -0,0 +1,87 @@
+package ktlibrary.service;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * 고정 크기(depth x width) 카운트-민 스케치. 도서 수와 관계없이 메모리가 일정하며
+ * 추정치는 실제 값 이상(과대 추정)만 발생한다. 같은 크기의 스케치끼리 더하고 뺄 수 있다.
+ */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L,
+        0xC2B2AE3D27D4EB4FL,
+        0x165667B19E3779F9L,
+        0xD6E8FEB86659FD93L,
+        0xFF51AFD7ED558CCDL,
+        0xC4CEB9FE1A85EC53L,
+        0x94D049BB133111EBL,
+        0xBF58476D1CE4E5B9L,
+    };
+
+    private final int depth;
+    private final int width;
+    private final long[][] table;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth 는 " + SEEDS.length + " 이하여야 합니다.");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.table = new long[depth][width];
+    }
+
+    public void add(long key, long count) {
+        for (int row = 0; row < depth; row++) {
+            table[row][index(key, row)] += count;
+        }
+    }
+
+    public long estimate(long key) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table[row][index(key, row)]);
+        }
+        return min;
+    }
+
+    public void subtract(CountMinSketch other) {
+        for (int row = 0; row < depth; row++) {
+            for (int col = 0; col < width; col++) {
+                table[row][col] -= other.table[row][col];
+            }
+        }
+    }
+
+    public int sizeInLongs() {
+        return depth * width;
+    }
+
+    public void writeTo(LongBuffer buffer) {
+        for (long[] row : table) {
+            buffer.put(row);
+        }
+    }
+
+    public void readFrom(LongBuffer buffer) {
+        for (long[] row : table) {
+            buffer.get(row);
+        }
+    }
+
+    public void clear() {
+        for (long[] row : table) {
+            Arrays.fill(row, 0L);
+        }
+    }
+
+    private int index(long key, int row) {
+        long h = key * SEEDS[row];
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 29;
+        return (int) Math.floorMod(h, (long) width);
+    }
+}
@@ -0,0 +1,193 @@
+package ktlibrary.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 서로 다른 값의 개수를 추정하는 HyperLogLog 스케치. 레지스터 2^precision 개로
+ * 표준 오차는 약 1.04 / sqrt(2^precision) 이며, 같은 정밀도의 스케치끼리 합칠 수 있다.
+ * 값이 적은 동안은 (레지스터 번호, 값) 정렬 배열로 두고, 레지스터 배열보다 커지면 배열로 바꾼다.
+ */
+public class HyperLogLog {
+
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 16;
+
+    private final int precision;
+    private final int registerCount;
+
+    // 희소 표현: 레지스터 번호 << 8 | 값, 레지스터 번호 순 정렬
+    private int[] sparse = new int[4];
+    private int sparseSize;
+
+    // 밀집 표현. null 이면 희소 표현을 쓰는 중
+    private byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                "precision 은 " + MIN_PRECISION + "~" + MAX_PRECISION + " 사이여야 합니다."
+            );
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public synchronized void add(long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (64 - precision));
+        // 남은 비트에서 처음 1 이 나오는 위치. 모두 0 이면 최댓값
+        int rank = Math.min(
+            Long.numberOfLeadingZeros(hash << precision) + 1,
+            64 - precision + 1
+        );
+        update(index, rank);
+    }
+
+    // other 를 이 스케치에 합친다. 합친 결과는 두 집합의 합집합 추정치를 준다
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("정밀도가 다른 스케치는 합칠 수 없습니다.");
+        }
+        int[] entries = other.entries();
+        synchronized (this) {
+            for (int entry : entries) {
+                update(entry >>> 8, entry & 0xFF);
+            }
+        }
+    }
+
+    public synchronized long estimate() {
+        double sum = 0;
+        int zeros = registerCount;
+        if (registers == null) {
+            for (int i = 0; i < sparseSize; i++) {
+                sum += Math.scalb(1.0, -(sparse[i] & 0xFF));
+            }
+            zeros -= sparseSize;
+            sum += zeros;
+        } else {
+            zeros = 0;
+            for (byte register : registers) {
+                sum += Math.scalb(1.0, -register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        }
+
+        double alpha = 0.7213 / (1 + 1.079 / registerCount);
+        double estimate = alpha * registerCount * registerCount / sum;
+        // 작은 범위는 빈 레지스터 비율로 세는 편이 정확하다 (64비트 해시라 큰 범위 보정은 필요 없다)
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public synchronized boolean isEmpty() {
+        return registers == null && sparseSize == 0;
+    }
+
+    // 직렬화 레이아웃: 표현(0 희소, 1 밀집), 희소면 항목 수 + 항목, 밀집이면 레지스터 배열
+    public synchronized int sizeInBytes() {
+        return 1 + (registers == null ? Integer.BYTES + sparseSize * Integer.BYTES : registerCount);
+    }
+
+    public synchronized void writeTo(ByteBuffer buffer) {
+        if (registers == null) {
+            buffer.put((byte) 0);
+            buffer.putInt(sparseSize);
+            for (int i = 0; i < sparseSize; i++) {
+                buffer.putInt(sparse[i]);
+            }
+        } else {
+            buffer.put((byte) 1);
+            buffer.put(registers);
+        }
+    }
+
+    public static HyperLogLog readFrom(ByteBuffer buffer, int precision) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        if (buffer.get() == 0) {
+            int size = buffer.getInt();
+            for (int i = 0; i < size; i++) {
+                int entry = buffer.getInt();
+                sketch.update(entry >>> 8, entry & 0xFF);
+            }
+        } else {
+            sketch.registers = new byte[sketch.registerCount];
+            buffer.get(sketch.registers);
+        }
+        return sketch;
+    }
+
+    // 0 이 아닌 레지스터를 희소 표현 항목으로 반환
+    private synchronized int[] entries() {
+        if (registers == null) {
+            return Arrays.copyOf(sparse, sparseSize);
+        }
+        int[] entries = new int[registerCount];
+        int size = 0;
+        for (int i = 0; i < registerCount; i++) {
+            if (registers[i] != 0) {
+                entries[size++] = i << 8 | registers[i];
+            }
+        }
+        return Arrays.copyOf(entries, size);
+    }
+
+    private void update(int index, int rank) {
+        if (registers != null) {
+            if (registers[index] < rank) {
+                registers[index] = (byte) rank;
+            }
+            return;
+        }
+
+        int position = Arrays.binarySearch(sparse, 0, sparseSize, index << 8);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        if (position < sparseSize && sparse[position] >>> 8 == index) {
+            if ((sparse[position] & 0xFF) < rank) {
+                sparse[position] = index << 8 | rank;
+            }
+            return;
+        }
+
+        // 희소 표현이 레지스터 배열보다 커지면 밀집 표현으로 바꾼다
+        if ((sparseSize + 1) * Integer.BYTES > registerCount) {
+            toDense();
+            update(index, rank);
+            return;
+        }
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        }
+        System.arraycopy(sparse, position, sparse, position + 1, sparseSize - position);
+        sparse[position] = index << 8 | rank;
+        sparseSize++;
+    }
+
+    private void toDense() {
+        registers = new byte[registerCount];
+        for (int i = 0; i < sparseSize; i++) {
+            registers[sparse[i] >>> 8] = (byte) (sparse[i] & 0xFF);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    // 연속된 ID 도 레지스터에 고르게 퍼지도록 섞는다 (SplitMix64 마무리 단계)
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
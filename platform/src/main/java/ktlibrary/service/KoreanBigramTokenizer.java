@@ -0,0 +1,107 @@
+package ktlibrary.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 한글 검색용 토크나이저. 형태소 분석 없이 한글/한자는 음절 2-gram 으로,
+ * 영문/숫자는 단어 단위로 색인어를 만든다. 자동완성을 위해 음절을 자모로 분해하는 기능도 제공한다.
+ */
+public final class KoreanBigramTokenizer {
+
+    private static final char HANGUL_BASE = 0xAC00;
+    private static final char HANGUL_LAST = 0xD7A3;
+
+    private static final char[] CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ".toCharArray();
+    private static final char[] JUNGSEONG = "ㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ".toCharArray();
+    private static final String[] JONGSEONG = {
+        "", "ㄱ", "ㄲ", "ㄳ", "ㄴ", "ㄵ", "ㄶ", "ㄷ", "ㄹ", "ㄺ", "ㄻ", "ㄼ", "ㄽ", "ㄾ",
+        "ㄿ", "ㅀ", "ㅁ", "ㅂ", "ㅄ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ",
+    };
+
+    private KoreanBigramTokenizer() {}
+
+    // 소문자화, 전각/반각 통일 후 글자·숫자 단위로 단어를 나눈다
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String normalized = normalize(text);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    public static Set<String> terms(String text) {
+        return terms(words(text));
+    }
+
+    public static Set<String> terms(List<String> words) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : words) {
+            if (!isCjk(word) || word.length() == 1) {
+                terms.add(word);
+                continue;
+            }
+            for (int i = 0; i + 1 < word.length(); i++) {
+                terms.add(word.substring(i, i + 2));
+            }
+        }
+        return terms;
+    }
+
+    public static String normalize(String text) {
+        return Normalizer
+            .normalize(text, Normalizer.Form.NFKC)
+            .toLowerCase(Locale.ROOT);
+    }
+
+    // "해리" -> "ㅎㅐㄹㅣ". 입력 중인 "해ㄹ" 도 같은 접두어가 되도록 자모 단위로 비교한다
+    public static String jamo(String text) {
+        String normalized = normalize(text);
+        StringBuilder jamo = new StringBuilder(normalized.length() * 3);
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c >= HANGUL_BASE && c <= HANGUL_LAST) {
+                int index = c - HANGUL_BASE;
+                jamo.append(CHOSEONG[index / 588]);
+                jamo.append(JUNGSEONG[(index % 588) / 28]);
+                jamo.append(JONGSEONG[index % 28]);
+            } else {
+                jamo.append(c);
+            }
+        }
+        return jamo.toString();
+    }
+
+    private static boolean isCjk(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            Character.UnicodeScript script = Character.UnicodeScript.of(
+                word.charAt(i)
+            );
+            if (
+                script == Character.UnicodeScript.HANGUL ||
+                script == Character.UnicodeScript.HAN
+            ) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,119 @@
+package ktlibrary.service;
+
+/**
+ * long 키 -> int 횟수의 개방 주소(선형 탐사) 해시 맵. 키/값을 박싱하지 않고 두 배열에 보관한다.
+ * 0 은 빈 칸 표시로 쓰므로 키로 쓸 수 없다(도서 ID 는 1 이상). 동기화하지 않는다.
+ */
+public class LongCountMap {
+
+    public interface Visitor {
+        void visit(long key, int count);
+    }
+
+    private long[] keys;
+    private int[] counts;
+    private int size;
+
+    public LongCountMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        counts = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(long key) {
+        int slot = find(key);
+        return keys[slot] == key ? counts[slot] : 0;
+    }
+
+    // 증가 후 값을 반환
+    public int add(long key, int delta) {
+        int slot = find(key);
+        if (keys[slot] == key) {
+            return counts[slot] += delta;
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+            slot = find(key);
+        }
+        keys[slot] = key;
+        counts[slot] = delta;
+        size++;
+        return delta;
+    }
+
+    public void remove(long key) {
+        int slot = find(key);
+        if (keys[slot] != key) {
+            return;
+        }
+        // 뒤따르는 탐사열을 앞으로 당겨 빈 칸 없이 유지 (backward shift deletion)
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        counts[hole] = 0;
+        size--;
+    }
+
+    // 가장 작은 횟수의 키 (비어 있으면 0)
+    public long minKey() {
+        long minKey = 0;
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && counts[i] < min) {
+                min = counts[i];
+                minKey = keys[i];
+            }
+        }
+        return minKey;
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                visitor.visit(keys[i], counts[i]);
+            }
+        }
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key);
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ktlibrary.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 메모리 매핑 파일 읽기/쓰기. 쓰기는 임시 파일에 한 뒤 이름을 바꿔,
+ * 읽는 쪽은 항상 완성된 파일만 보게 한다.
+ */
+public final class MappedFiles {
+
+    private MappedFiles() {}
+
+    public static void write(Path target, long size, Consumer<ByteBuffer> writer)
+        throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (
+            FileChannel channel = FileChannel.open(
+                temp,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            MappedByteBuffer buffer = channel.map(
+                FileChannel.MapMode.READ_WRITE,
+                0,
+                size
+            );
+            writer.accept(buffer);
+            buffer.force();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // 파일이 없으면 null
+    public static <T> T read(Path source, Function<ByteBuffer, T> reader)
+        throws IOException {
+        if (!Files.isRegularFile(source)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            return reader.apply(
+                channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+            );
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import ktlibrary.domain.BookDocument;
+import ktlibrary.domain.RelatedBook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * "이 책을 구독한 독자가 함께 구독한 책". 구독 신청 이벤트마다 동시 구독 모델을 갱신하고,
+ * 필요하면 구독 서비스의 구독 이력 전체로 모델을 병렬로 다시 만든다.
+ */
+@Service
+public class RelatedBooks {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        RelatedBooks.class
+    );
+
+    @Value("${platform.related.top-k:20}")
+    private int topK;
+
+    @Value("${platform.related.candidates:200}")
+    private int candidateCapacity;
+
+    @Value("${platform.related.history-limit:200}")
+    private int historyLimit;
+
+    @Value("${platform.related.subscriber-url:http://localhost:8086}")
+    private String subscriberUrl;
+
+    @Value("${platform.related.rebuild-page-size:500}")
+    private int rebuildPageSize;
+
+    @Value("${platform.related.rebuild-on-start:false}")
+    private boolean rebuildOnStart;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    private volatile CoSubscriptionModel model;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    // 재구성 중에 들어온 구독은 새 모델로 교체한 뒤 다시 반영한다
+    private final Queue<long[]> pending = new ConcurrentLinkedQueue<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r ->
+        new Thread(r, "related-books-rebuild")
+    );
+
+    @PostConstruct
+    public void init() {
+        model = new CoSubscriptionModel(topK, candidateCapacity, historyLimit);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStart() {
+        if (rebuildOnStart) {
+            startRebuild();
+        }
+    }
+
+    public void record(Long userId, Long bookId) {
+        model.record(userId, bookId);
+        if (rebuilding.get()) {
+            pending.add(new long[] { userId, bookId });
+        }
+    }
+
+    public List<RelatedBook> related(Long bookId, int size) {
+        CoSubscriptionModel.Top top = model.related(bookId);
+        int count = Math.min(size, top.size());
+        List<RelatedBook> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BookDocument document = bookSearchIndex.document(top.bookId(i));
+            result.add(
+                new RelatedBook(
+                    top.bookId(i),
+                    document != null ? document.getBookName() : null,
+                    document != null ? document.getAuthorName() : null,
+                    document != null ? document.getCategory() : null,
+                    top.count(i)
+                )
+            );
+        }
+        return result;
+    }
+
+    // 이미 진행 중이면 false
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(this::rebuild);
+        return true;
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            Map<Long, long[]> userBooks = fetchHistory();
+            CoSubscriptionModel rebuilt = CoSubscriptionModel.build(
+                userBooks,
+                topK,
+                candidateCapacity,
+                historyLimit,
+                Runtime.getRuntime().availableProcessors()
+            );
+            model = rebuilt;
+            logger.info(
+                "함께 구독한 도서 모델 재구성 완료: 구독자 {}명, {}ms",
+                userBooks.size(),
+                System.currentTimeMillis() - started
+            );
+        } catch (Exception e) {
+            logger.error("함께 구독한 도서 모델 재구성 실패: {}", e.getMessage(), e);
+        } finally {
+            rebuilding.set(false);
+            long[] pair;
+            while ((pair = pending.poll()) != null) {
+                model.record(pair[0], pair[1]);
+            }
+        }
+    }
+
+    // 구독 서비스의 커서 목록(/subscriptions/scroll)을 끝까지 읽어 구독자별 도서를 오래된 순으로 모은다
+    @SuppressWarnings("unchecked")
+    private Map<Long, long[]> fetchHistory() {
+        RestTemplate restTemplate = new RestTemplate();
+        Map<Long, List<Long>> newestFirst = new HashMap<>();
+        String cursor = null;
+        do {
+            String url =
+                subscriberUrl +
+                "/subscriptions/scroll?size=" +
+                rebuildPageSize +
+                (cursor != null ? "&cursor=" + cursor : "");
+            Map<String, Object> page = restTemplate.getForObject(url, Map.class);
+            for (Map<String, Object> subscription : (List<Map<String, Object>>) page.get(
+                "content"
+            )) {
+                if (!Boolean.TRUE.equals(subscription.get("isSubscription"))) {
+                    continue;
+                }
+                Long userId = idOf(subscription.get("userId"));
+                Long bookId = idOf(subscription.get("bookId"));
+                if (userId != null && bookId != null) {
+                    newestFirst.computeIfAbsent(userId, id -> new ArrayList<>()).add(bookId);
+                }
+            }
+            cursor = (String) page.get("nextCursor");
+        } while (cursor != null);
+
+        Map<Long, long[]> userBooks = new HashMap<>(newestFirst.size());
+        newestFirst.forEach((userId, books) -> {
+            Set<Long> unique = new LinkedHashSet<>();
+            for (int i = books.size() - 1; i >= 0; i--) {
+                unique.add(books.get(i));
+            }
+            userBooks.put(userId, unique.stream().mapToLong(Long::longValue).toArray());
+        });
+        return userBooks;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long idOf(Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Object id = ((Map<String, Object>) value).get("id");
+        return id != null ? Long.valueOf(id.toString()) : null;
+    }
+}
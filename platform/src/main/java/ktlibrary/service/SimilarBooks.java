@@ -0,0 +1,118 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import ktlibrary.domain.BookDocument;
+import ktlibrary.domain.SimilarBook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 내용 지문(64비트 SimHash) 기반 비슷한 책 색인. 지문을 bands 개 구간으로 나누어 구간 값별로 도서를 모아 두고,
+ * 한 구간이라도 같은 도서만 후보로 삼아 해밍 거리를 계산한다 (거리가 bands 미만이면 반드시 후보에 포함된다).
+ */
+@Service
+public class SimilarBooks {
+
+    @Value("${platform.similar.bands:4}")
+    private int bands;
+
+    @Value("${platform.similar.max-distance:16}")
+    private int maxDistance;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    private final Map<Long, Long> fingerprints = new ConcurrentHashMap<>();
+
+    // 키: 구간 번호(상위 32비트) + 구간 값(하위 32비트)
+    private final Map<Long, SortedIdSet> buckets = new ConcurrentHashMap<>();
+
+    public synchronized void index(Long bookId, Long fingerprint) {
+        if (bookId == null || fingerprint == null) {
+            return;
+        }
+        Long previous = fingerprints.put(bookId, fingerprint);
+        if (fingerprint.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unbucket(bookId, previous);
+        }
+        for (int band = 0; band < bands; band++) {
+            buckets
+                .computeIfAbsent(bucketKey(band, fingerprint), key -> new SortedIdSet())
+                .add(bookId);
+        }
+    }
+
+    public synchronized void remove(Long bookId) {
+        Long previous = fingerprints.remove(bookId);
+        if (previous != null) {
+            unbucket(bookId, previous);
+        }
+    }
+
+    private void unbucket(Long bookId, Long fingerprint) {
+        for (int band = 0; band < bands; band++) {
+            SortedIdSet ids = buckets.get(bucketKey(band, fingerprint));
+            if (ids != null) {
+                ids.remove(bookId);
+            }
+        }
+    }
+
+    public List<SimilarBook> similar(Long bookId, int size) {
+        Long fingerprint = fingerprints.get(bookId);
+        if (fingerprint == null) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> seen = new HashSet<>();
+        List<SimilarBook> result = new ArrayList<>();
+        for (int band = 0; band < bands; band++) {
+            SortedIdSet ids = buckets.get(bucketKey(band, fingerprint));
+            if (ids == null) {
+                continue;
+            }
+            SortedIdSet.Snapshot snapshot = ids.snapshot();
+            for (int i = 0; i < snapshot.size(); i++) {
+                long candidate = snapshot.get(i);
+                if (candidate == bookId || !seen.add(candidate)) {
+                    continue;
+                }
+                Long other = fingerprints.get(candidate);
+                int distance = other == null
+                    ? Integer.MAX_VALUE
+                    : Long.bitCount(fingerprint ^ other);
+                if (distance > maxDistance) {
+                    continue;
+                }
+                BookDocument document = bookSearchIndex.document(candidate);
+                result.add(
+                    new SimilarBook(
+                        candidate,
+                        document != null ? document.getBookName() : null,
+                        document != null ? document.getAuthorName() : null,
+                        document != null ? document.getCategory() : null,
+                        1.0 - distance / 64.0
+                    )
+                );
+            }
+        }
+        result.sort((a, b) -> Double.compare(b.getSimilarity(), a.getSimilarity()));
+        return result.size() > size ? result.subList(0, size) : result;
+    }
+
+    private long bucketKey(int band, long fingerprint) {
+        int bits = 64 / bands;
+        long mask = bits >= 64 ? -1L : (1L << bits) - 1;
+        long value = (fingerprint >>> (band * bits)) & mask;
+        return ((long) band << 32) | value;
+    }
+}
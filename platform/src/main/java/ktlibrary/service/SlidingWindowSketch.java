@@ -0,0 +1,81 @@
+package ktlibrary.service;
+
+import java.nio.LongBuffer;
+
+/**
+ * 시간 구간(bucket) 단위로 나눈 카운트-민 스케치 링. 가장 오래된 구간이 빠질 때
+ * 해당 구간 스케치를 합계에서 빼므로 구간 전체 추정치를 항상 O(depth) 로 얻는다.
+ */
+public class SlidingWindowSketch {
+
+    private final long bucketMillis;
+    private final CountMinSketch[] buckets;
+    private final CountMinSketch total;
+    private long currentBucket;
+
+    public SlidingWindowSketch(
+        long bucketMillis,
+        int bucketCount,
+        int depth,
+        int width
+    ) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = new CountMinSketch[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(depth, width);
+        }
+        this.total = new CountMinSketch(depth, width);
+        this.currentBucket = System.currentTimeMillis() / bucketMillis;
+    }
+
+    public synchronized void add(long key, long count, long now) {
+        advance(now);
+        buckets[(int) (currentBucket % buckets.length)].add(key, count);
+        total.add(key, count);
+    }
+
+    public synchronized long estimate(long key, long now) {
+        advance(now);
+        return total.estimate(key);
+    }
+
+    public long windowMillis() {
+        return bucketMillis * buckets.length;
+    }
+
+    // 현재 구간 번호, 구간별 스케치, 합계 스케치 순서로 저장
+    public long sizeInLongs() {
+        return 1L + (long) (buckets.length + 1) * total.sizeInLongs();
+    }
+
+    public synchronized void writeTo(LongBuffer buffer) {
+        buffer.put(currentBucket);
+        for (CountMinSketch bucket : buckets) {
+            bucket.writeTo(buffer);
+        }
+        total.writeTo(buffer);
+    }
+
+    // 저장 이후 지난 구간은 다음 조회 때 advance 에서 비워진다
+    public synchronized void readFrom(LongBuffer buffer) {
+        currentBucket = buffer.get();
+        for (CountMinSketch bucket : buckets) {
+            bucket.readFrom(buffer);
+        }
+        total.readFrom(buffer);
+    }
+
+    private void advance(long now) {
+        long bucket = now / bucketMillis;
+        // 구간 전체가 지났으면 링 길이만큼만 비우면 된다
+        long from = Math.max(currentBucket + 1, bucket - buckets.length + 1);
+        for (long b = from; b <= bucket; b++) {
+            CountMinSketch expired = buckets[(int) (b % buckets.length)];
+            total.subtract(expired);
+            expired.clear();
+        }
+        if (bucket > currentBucket) {
+            currentBucket = bucket;
+        }
+    }
+}
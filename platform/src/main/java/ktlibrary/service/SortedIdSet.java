@@ -0,0 +1,96 @@
+package ktlibrary.service;
+
+import java.util.Arrays;
+
+/**
+ * 정렬된 도서 ID 집합. 쓰기는 직렬화하고, 읽기는 잠금 없이 불변 스냅샷을 본다.
+ * 새 도서는 대부분 가장 큰 ID 이므로 여유 공간이 있으면 배열을 복사하지 않고 제자리에 덧붙인다.
+ */
+public class SortedIdSet {
+
+    private volatile Snapshot snapshot = new Snapshot(new long[4], 0);
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    public synchronized void add(long id) {
+        Snapshot current = snapshot;
+        int position = Arrays.binarySearch(current.ids, 0, current.size, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+
+        if (insertAt == current.size && current.size < current.ids.length) {
+            current.ids[current.size] = id;
+            snapshot = new Snapshot(current.ids, current.size + 1);
+            return;
+        }
+        long[] ids = new long[current.size == current.ids.length
+            ? current.ids.length * 2
+            : current.ids.length];
+        System.arraycopy(current.ids, 0, ids, 0, insertAt);
+        ids[insertAt] = id;
+        System.arraycopy(
+            current.ids,
+            insertAt,
+            ids,
+            insertAt + 1,
+            current.size - insertAt
+        );
+        snapshot = new Snapshot(ids, current.size + 1);
+    }
+
+    // 기존 스냅샷을 읽는 중인 조회가 있을 수 있으므로 제거는 항상 새 배열에 한다
+    public synchronized void remove(long id) {
+        Snapshot current = snapshot;
+        int position = Arrays.binarySearch(current.ids, 0, current.size, id);
+        if (position < 0) {
+            return;
+        }
+        long[] ids = new long[current.ids.length];
+        System.arraycopy(current.ids, 0, ids, 0, position);
+        System.arraycopy(
+            current.ids,
+            position + 1,
+            ids,
+            position,
+            current.size - position - 1
+        );
+        snapshot = new Snapshot(ids, current.size - 1);
+    }
+
+    public static class Snapshot {
+
+        private final long[] ids;
+        private final int size;
+
+        Snapshot(long[] ids, int size) {
+            this.ids = ids;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long get(int index) {
+            return ids[index];
+        }
+
+        public boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        // id 보다 작은 원소 중 가장 큰 원소의 위치 (없으면 -1)
+        public int lastIndexBefore(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            return (position >= 0 ? position : -position - 1) - 1;
+        }
+    }
+}
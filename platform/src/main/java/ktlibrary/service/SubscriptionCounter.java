@@ -0,0 +1,120 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 도서별 구독 수 증가분을 메모리의 스트라이프 카운터(LongAdder)에 모았다가 주기적으로 일괄 반영한다.
+ * 인기 도서 행을 구독마다 읽고 쓰지 않으므로 경합과 갱신 유실이 없다.
+ * 베스트셀러 여부는 TrendingRanking 의 순위로 결정된다.
+ */
+@Service
+public class SubscriptionCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        SubscriptionCounter.class
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookCardCache bookCardCache;
+
+    @Autowired
+    private CatalogChangeFeed catalogChangeFeed;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Long, LongAdder> counters = new ConcurrentHashMap<>();
+
+    // 마지막 반영 이후 증가분이 생긴 도서
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void increment(Long bookId) {
+        add(bookId, 1);
+    }
+
+    private void add(Long bookId, long delta) {
+        // 증가 후 dirty 에 등록해야 반영 중인 증가분이 다음 주기에 누락되지 않는다
+        counters.computeIfAbsent(bookId, id -> new LongAdder()).add(delta);
+        dirty.add(bookId);
+    }
+
+    @Scheduled(
+        fixedDelayString = "${platform.subscription-count.flush-interval-ms:1000}"
+    )
+    public void flush() {
+        List<Object[]> deltas = new ArrayList<>();
+        Iterator<Long> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            Long bookId = iterator.next();
+            iterator.remove();
+            long delta = counters.get(bookId).sumThenReset();
+            if (delta != 0) {
+                deltas.add(new Object[] { delta, bookId });
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // 변경 순번은 트랜잭션 안에서 발급해야 커밋 전까지 변경 피드에서 제외된다
+                List<Object[]> rows = new ArrayList<>(deltas.size());
+                for (Object[] delta : deltas) {
+                    rows.add(new Object[] { delta[0], catalogChangeFeed.next(), delta[1] });
+                }
+                jdbcTemplate.batchUpdate(
+                    "update book_table " +
+                    "set subscription_count = coalesce(subscription_count, 0) + ?, " +
+                    "change_seq = ? " +
+                    "where id = ?",
+                    rows
+                );
+            });
+        } catch (RuntimeException e) {
+            // 반영에 실패한 증가분은 다음 주기에 다시 시도
+            for (Object[] delta : deltas) {
+                add((Long) delta[1], (Long) delta[0]);
+            }
+            logger.error("구독 수 일괄 반영 실패: {}", e.getMessage(), e);
+            return;
+        }
+
+        List<Long> bookIds = new ArrayList<>(deltas.size());
+        for (Object[] delta : deltas) {
+            bookIds.add((Long) delta[1]);
+        }
+        bookCardCache.evictAll(bookIds);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+}
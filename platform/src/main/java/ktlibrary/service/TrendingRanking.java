@@ -0,0 +1,441 @@
+package ktlibrary.service;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import ktlibrary.domain.BadgeGranted;
+import ktlibrary.domain.BadgeRevoked;
+import ktlibrary.domain.BookDocument;
+import ktlibrary.domain.BookRepository;
+import ktlibrary.domain.TrendingBook;
+import ktlibrary.infra.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 24시간/7일/30일 구간별 인기 도서 순위. 구간마다 카운트-민 스케치 링과
+ * 전체/카테고리별 상위 후보(top-K)만 메모리에 두므로 도서 수와 관계없이 메모리가 일정하다.
+ * 베스트셀러 여부는 고정 횟수가 아니라 지정 구간의 순위로 결정된다.
+ */
+@Service
+public class TrendingRanking {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        TrendingRanking.class
+    );
+
+    public static final String OVERALL = "";
+
+    private static final long STATE_MAGIC = 0x4B54_5452_454E_4431L;
+    private static final long STATE_VERSION = 1L;
+    private static final int STATE_HEADER_LONGS = 6;
+
+    @Value("${platform.trending.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${platform.trending.sketch-width:8192}")
+    private int sketchWidth;
+
+    @Value("${platform.trending.candidates:200}")
+    private int candidateCount;
+
+    @Value("${platform.bestseller.window:7d}")
+    private String bestSellerWindow;
+
+    @Value("${platform.bestseller.rank:10}")
+    private int bestSellerRank;
+
+    @Value("${platform.bestseller.min-score:3}")
+    private long bestSellerMinScore;
+
+    @Value("${platform.catalog.index-dir:./catalog-index}")
+    private String indexDir;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private CatalogIndexer catalogIndexer;
+
+    @Autowired
+    private BookCardCache bookCardCache;
+
+    @Autowired
+    private CatalogChangeFeed catalogChangeFeed;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<String, Window> windows = new LinkedHashMap<>();
+
+    private long startedAt;
+
+    // 저장 파일에서 읽은 구간별 후보. 도서 색인이 적재된 뒤 카테고리를 붙여 후보 목록에 다시 넣는다
+    private Map<String, List<Long>> restoredCandidates = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        windows.put("24h", new Window(TimeUnit.HOURS.toMillis(1), 24));
+        windows.put("7d", new Window(TimeUnit.HOURS.toMillis(6), 28));
+        windows.put("30d", new Window(TimeUnit.DAYS.toMillis(1), 30));
+        startedAt = System.currentTimeMillis();
+        loadState();
+    }
+
+    // 파일 레이아웃(long 단위): MAGIC, VERSION, depth, width, 구간 수, 관측 시작 시각,
+    // 구간마다 [스케치 크기, 스케치, 후보 수, 후보 ID...]
+    @Scheduled(
+        initialDelayString = "${platform.catalog.index-save-interval-ms:300000}",
+        fixedDelayString = "${platform.catalog.index-save-interval-ms:300000}"
+    )
+    @PreDestroy
+    public void saveState() {
+        Map<Window, List<Long>> candidates = new LinkedHashMap<>();
+        long size = STATE_HEADER_LONGS;
+        for (Window window : windows.values()) {
+            List<Long> ids = new ArrayList<>(window.candidateIds());
+            candidates.put(window, ids);
+            size += 2 + window.sketch.sizeInLongs() + ids.size();
+        }
+
+        try {
+            MappedFiles.write(
+                stateFile(),
+                size * Long.BYTES,
+                buffer -> {
+                    LongBuffer longs = buffer.asLongBuffer();
+                    longs.put(STATE_MAGIC);
+                    longs.put(STATE_VERSION);
+                    longs.put(sketchDepth);
+                    longs.put(sketchWidth);
+                    longs.put(windows.size());
+                    longs.put(startedAt);
+                    candidates.forEach((window, ids) -> {
+                        longs.put(window.sketch.sizeInLongs());
+                        window.sketch.writeTo(longs);
+                        longs.put(ids.size());
+                        ids.forEach(longs::put);
+                    });
+                }
+            );
+        } catch (IOException | RuntimeException e) {
+            logger.error("인기 순위 상태 저장 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    private void loadState() {
+        try {
+            Boolean loaded = MappedFiles.read(
+                stateFile(),
+                buffer -> {
+                    LongBuffer longs = buffer.asLongBuffer();
+                    // 스케치 크기나 구간 구성이 바뀌었으면 저장된 상태를 쓰지 않는다
+                    if (
+                        longs.remaining() < STATE_HEADER_LONGS ||
+                        longs.get() != STATE_MAGIC ||
+                        longs.get() != STATE_VERSION ||
+                        longs.get() != sketchDepth ||
+                        longs.get() != sketchWidth ||
+                        longs.get() != windows.size()
+                    ) {
+                        return false;
+                    }
+                    long savedStartedAt = longs.get();
+                    Map<String, List<Long>> restored = new HashMap<>();
+                    for (Map.Entry<String, Window> entry : windows.entrySet()) {
+                        SlidingWindowSketch sketch = entry.getValue().sketch;
+                        if (longs.get() != sketch.sizeInLongs()) {
+                            return false;
+                        }
+                        sketch.readFrom(longs);
+                        int count = (int) longs.get();
+                        List<Long> ids = new ArrayList<>(count);
+                        for (int i = 0; i < count; i++) {
+                            ids.add(longs.get());
+                        }
+                        restored.put(entry.getKey(), ids);
+                    }
+                    startedAt = savedStartedAt;
+                    restoredCandidates = restored;
+                    return true;
+                }
+            );
+            if (Boolean.TRUE.equals(loaded)) {
+                logger.info("인기 순위 상태 복원: {}", stateFile());
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("인기 순위 상태 복원 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    public void restoreCandidates() {
+        long now = System.currentTimeMillis();
+        restoredCandidates.forEach((windowName, ids) -> {
+            Window window = windows.get(windowName);
+            for (Long bookId : ids) {
+                window.offer(bookId, categoryOf(bookId), now);
+            }
+        });
+        restoredCandidates = new HashMap<>();
+    }
+
+    private Path stateFile() {
+        return Paths.get(indexDir, "trending.idx");
+    }
+
+    public Set<String> windowNames() {
+        return windows.keySet();
+    }
+
+    public void record(Long bookId) {
+        long now = System.currentTimeMillis();
+        String category = categoryOf(bookId);
+        for (Window window : windows.values()) {
+            window.record(bookId, category, now);
+        }
+    }
+
+    public List<TrendingBook> top(String windowName, String category, int size) {
+        Window window = windows.get(windowName);
+        if (window == null) {
+            throw new BadRequestException("지원하지 않는 구간입니다: " + windowName);
+        }
+        return window.top(
+            category == null ? OVERALL : category,
+            size,
+            System.currentTimeMillis()
+        );
+    }
+
+    // 지정 구간의 상위 순위를 베스트셀러로 반영. 새로 들어온 도서와 빠진 도서에만 이벤트를 발행한다
+    @Scheduled(
+        fixedDelayString = "${platform.bestseller.refresh-interval-ms:60000}"
+    )
+    public void refreshBestSellers() {
+        Set<Long> ranked = new HashSet<>();
+        for (TrendingBook trendingBook : top(bestSellerWindow, null, bestSellerRank)) {
+            if (trendingBook.getScore() >= bestSellerMinScore) {
+                ranked.add(trendingBook.getBookId());
+            }
+        }
+
+        // 재시작 직후에는 구간이 비어 있으므로 구간 길이만큼 관측한 뒤부터 해제한다
+        boolean warmedUp =
+            System.currentTimeMillis() - startedAt >=
+            windows.get(bestSellerWindow).sketch.windowMillis();
+
+        // 커밋 전 값으로 카드가 다시 만들어지지 않도록 커밋 후에 제거한다
+        List<Long> changed = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> current = new HashSet<>(
+                    jdbcTemplate.queryForList(
+                        "select id from book_table where is_best_seller = true",
+                        Long.class
+                    )
+                );
+
+                List<Long> promoted = new ArrayList<>();
+                for (Long bookId : ranked) {
+                    if (!current.contains(bookId)) {
+                        promoted.add(bookId);
+                    }
+                }
+                List<Long> revoked = new ArrayList<>();
+                if (warmedUp) {
+                    for (Long bookId : current) {
+                        if (!ranked.contains(bookId)) {
+                            revoked.add(bookId);
+                        }
+                    }
+                }
+
+                if (!promoted.isEmpty()) {
+                    markBestSeller(promoted, true);
+                    bookRepository
+                        .findAllById(promoted)
+                        .forEach(book -> {
+                            catalogIndexer.updateBestSeller(book.getId(), true);
+                            changed.add(book.getId());
+                            BadgeGranted badgeGranted = new BadgeGranted(book);
+                            badgeGranted.publishAfterCommit();
+                        });
+                }
+                if (!revoked.isEmpty()) {
+                    markBestSeller(revoked, false);
+                    bookRepository
+                        .findAllById(revoked)
+                        .forEach(book -> {
+                            catalogIndexer.updateBestSeller(book.getId(), false);
+                            changed.add(book.getId());
+                            BadgeRevoked badgeRevoked = new BadgeRevoked(book);
+                            badgeRevoked.publishAfterCommit();
+                        });
+                }
+            });
+            bookCardCache.evictAll(changed);
+        } catch (RuntimeException e) {
+            logger.error("베스트셀러 순위 반영 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    // 변경 피드가 순번으로 페이지를 나누므로 도서마다 순번을 따로 발급한다
+    private void markBestSeller(List<Long> bookIds, boolean bestSeller) {
+        List<Object[]> rows = new ArrayList<>(bookIds.size());
+        for (Long bookId : bookIds) {
+            rows.add(new Object[] { bestSeller, catalogChangeFeed.next(), bookId });
+        }
+        jdbcTemplate.batchUpdate(
+            "update book_table set is_best_seller = ?, change_seq = ? where id = ?",
+            rows
+        );
+    }
+
+    // 카테고리는 도서별로 따로 들고 있지 않고 메모리 도서 색인에서 읽는다. 구독 이벤트마다 DB 를 읽지 않도록
+    // 색인에 아직 없는 도서는 전체 순위에만 반영한다
+    private String categoryOf(Long bookId) {
+        BookDocument document = bookSearchIndex.document(bookId);
+        return document != null ? document.getCategory() : null;
+    }
+
+    private class Window {
+
+        private final SlidingWindowSketch sketch;
+        private final Map<String, TopK> candidates = new ConcurrentHashMap<>();
+
+        Window(long bucketMillis, int bucketCount) {
+            this.sketch =
+                new SlidingWindowSketch(
+                    bucketMillis,
+                    bucketCount,
+                    sketchDepth,
+                    sketchWidth
+                );
+        }
+
+        void record(Long bookId, String category, long now) {
+            sketch.add(bookId, 1, now);
+            offer(bookId, category, now);
+        }
+
+        void offer(Long bookId, String category, long now) {
+            long estimate = sketch.estimate(bookId, now);
+            if (estimate <= 0) {
+                return;
+            }
+            candidates
+                .computeIfAbsent(OVERALL, key -> new TopK(candidateCount))
+                .offer(bookId, estimate);
+            if (category != null) {
+                candidates
+                    .computeIfAbsent(category, key -> new TopK(candidateCount))
+                    .offer(bookId, estimate);
+            }
+        }
+
+        Set<Long> candidateIds() {
+            Set<Long> ids = new HashSet<>();
+            candidates.values().forEach(topK -> ids.addAll(topK.keys()));
+            return ids;
+        }
+
+        List<TrendingBook> top(String category, int size, long now) {
+            TopK topK = candidates.get(category);
+            if (topK == null) {
+                return new ArrayList<>();
+            }
+            // 저장된 추정치는 구간이 밀리면서 낡으므로 조회 시점 기준으로 다시 추정
+            Map<Long, Long> scores = new HashMap<>();
+            for (Long bookId : topK.keys()) {
+                long estimate = sketch.estimate(bookId, now);
+                topK.update(bookId, estimate);
+                if (estimate > 0) {
+                    scores.put(bookId, estimate);
+                }
+            }
+
+            List<TrendingBook> result = new ArrayList<>(scores.size());
+            scores.forEach((bookId, score) ->
+                result.add(
+                    new TrendingBook(bookId, categoryOf(bookId), score)
+                )
+            );
+            result.sort(
+                Comparator.comparing(TrendingBook::getScore).reversed()
+            );
+            return result.size() > size ? result.subList(0, size) : result;
+        }
+    }
+
+    // 고정 크기 후보 목록. 가득 차면 가장 낮은 추정치보다 큰 도서만 들어온다
+    private static class TopK {
+
+        private final int capacity;
+        private final Map<Long, Long> scores = new HashMap<>();
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void offer(Long bookId, long estimate) {
+            if (scores.containsKey(bookId) || scores.size() < capacity) {
+                scores.put(bookId, estimate);
+                return;
+            }
+            Map.Entry<Long, Long> min = null;
+            for (Map.Entry<Long, Long> entry : scores.entrySet()) {
+                if (min == null || entry.getValue() < min.getValue()) {
+                    min = entry;
+                }
+            }
+            if (min != null && estimate > min.getValue()) {
+                scores.remove(min.getKey());
+                scores.put(bookId, estimate);
+            }
+        }
+
+        synchronized void update(Long bookId, long estimate) {
+            if (scores.containsKey(bookId)) {
+                scores.put(bookId, estimate);
+            }
+        }
+
+        synchronized List<Long> keys() {
+            return new ArrayList<>(scores.keySet());
+        }
+    }
+}
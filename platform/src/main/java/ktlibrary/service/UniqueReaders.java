@@ -0,0 +1,316 @@
+package ktlibrary.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import ktlibrary.domain.BookDocument;
+import ktlibrary.domain.BookRepository;
+import ktlibrary.infra.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 도서/카테고리/전체의 일별 고유 독자 수. 날짜마다 HyperLogLog 스케치만 두고
+ * 기간 조회는 해당 날짜의 스케치를 합쳐 추정하므로 (구독자, 도서) 쌍을 저장하지 않는다.
+ * 같은 독자가 여러 번 구독을 신청해도 한 명으로 센다.
+ */
+@Service
+public class UniqueReaders {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        UniqueReaders.class
+    );
+
+    private static final long FILE_MAGIC = 0x4B54_5245_4144_5231L;
+    private static final int FILE_VERSION = 1;
+
+    @Value("${platform.readers.precision:12}")
+    private int precision;
+
+    @Value("${platform.readers.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${platform.readers.zone:Asia/Seoul}")
+    private String zone;
+
+    @Value("${platform.catalog.index-dir:./catalog-index}")
+    private String indexDir;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    private ZoneId zoneId;
+
+    // 키: epoch day
+    private final ConcurrentSkipListMap<Long, Day> days = new ConcurrentSkipListMap<>();
+
+    @PostConstruct
+    public void init() {
+        zoneId = ZoneId.of(zone);
+        load();
+    }
+
+    public void record(Long userId, Long bookId, Long timestamp) {
+        if (userId == null || bookId == null) {
+            return;
+        }
+        long day = Instant
+            .ofEpochMilli(timestamp != null ? timestamp : System.currentTimeMillis())
+            .atZone(zoneId)
+            .toLocalDate()
+            .toEpochDay();
+        if (day < today() - retentionDays) {
+            return;
+        }
+        Day sketches = days.computeIfAbsent(day, key -> new Day(new HyperLogLog(precision)));
+        sketches.all.add(userId);
+        sketches.books.computeIfAbsent(bookId, key -> new HyperLogLog(precision)).add(userId);
+        String category = categoryOf(bookId);
+        if (category != null) {
+            sketches.categories
+                .computeIfAbsent(category, key -> new HyperLogLog(precision))
+                .add(userId);
+        }
+    }
+
+    public Map<String, Object> bookReaders(Long bookId, LocalDate from, LocalDate to) {
+        Map<String, Object> result = summarize(from, to, day -> day.books.get(bookId));
+        result.put("bookId", bookId);
+        return result;
+    }
+
+    // category 가 null 이면 전체 독자
+    public Map<String, Object> categoryReaders(String category, LocalDate from, LocalDate to) {
+        Map<String, Object> result = summarize(
+            from,
+            to,
+            day -> category == null ? day.all : day.categories.get(category)
+        );
+        result.put("category", category);
+        return result;
+    }
+
+    public LocalDate localToday() {
+        return LocalDate.ofEpochDay(today());
+    }
+
+    // 보관 기간이 지난 날짜의 스케치를 버린다
+    @Scheduled(fixedDelayString = "${platform.readers.cleanup-interval-ms:3600000}")
+    public void cleanUp() {
+        days.headMap(today() - retentionDays).clear();
+    }
+
+    // 파일 레이아웃: MAGIC, VERSION, 정밀도, 날짜 수,
+    // 날짜마다 [epoch day, 전체 스케치, 도서 수, (도서 ID, 스케치)..., 카테고리 수, (카테고리, 스케치)...]
+    @Scheduled(
+        initialDelayString = "${platform.catalog.index-save-interval-ms:300000}",
+        fixedDelayString = "${platform.catalog.index-save-interval-ms:300000}"
+    )
+    @PreDestroy
+    public void save() {
+        List<byte[]> records = new ArrayList<>();
+        long size = Long.BYTES + 3 * Integer.BYTES;
+        for (Map.Entry<Long, Day> entry : days.entrySet()) {
+            byte[] record = encode(entry.getKey(), entry.getValue());
+            records.add(record);
+            size += record.length;
+        }
+
+        try {
+            MappedFiles.write(
+                stateFile(),
+                size,
+                buffer -> {
+                    buffer.putLong(FILE_MAGIC);
+                    buffer.putInt(FILE_VERSION);
+                    buffer.putInt(precision);
+                    buffer.putInt(records.size());
+                    records.forEach(buffer::put);
+                }
+            );
+        } catch (IOException | RuntimeException e) {
+            logger.error("고유 독자 스케치 저장 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    private void load() {
+        try {
+            Integer loaded = MappedFiles.read(
+                stateFile(),
+                buffer -> {
+                    // 정밀도가 바뀌었으면 저장된 스케치와 합칠 수 없으므로 버린다
+                    if (
+                        buffer.remaining() < Long.BYTES + 3 * Integer.BYTES ||
+                        buffer.getLong() != FILE_MAGIC ||
+                        buffer.getInt() != FILE_VERSION ||
+                        buffer.getInt() != precision
+                    ) {
+                        return null;
+                    }
+                    int count = buffer.getInt();
+                    for (int i = 0; i < count; i++) {
+                        decode(buffer);
+                    }
+                    return count;
+                }
+            );
+            cleanUp();
+            if (loaded != null) {
+                logger.info("고유 독자 스케치 복원: {}일", days.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            days.clear();
+            logger.error("고유 독자 스케치 복원 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    private Map<String, Object> summarize(
+        LocalDate from,
+        LocalDate to,
+        Function<Day, HyperLogLog> selector
+    ) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from 은 to 보다 늦을 수 없습니다.");
+        }
+        HyperLogLog total = new HyperLogLog(precision);
+        List<Map<String, Object>> daily = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Day day = days.get(date.toEpochDay());
+            HyperLogLog sketch = day == null ? null : selector.apply(day);
+            long readers = 0L;
+            if (sketch != null) {
+                total.merge(sketch);
+                readers = sketch.estimate();
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("date", date.toString());
+            entry.put("uniqueReaders", readers);
+            daily.add(entry);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", from.toString());
+        result.put("to", to.toString());
+        // 날짜별 값을 더하면 여러 날 구독한 독자가 중복되므로 합친 스케치로 추정
+        result.put("uniqueReaders", total.estimate());
+        result.put("daily", daily);
+        return result;
+    }
+
+    private String categoryOf(Long bookId) {
+        // 메모리 도서 색인에 있으면 DB 를 읽지 않는다
+        BookDocument document = bookSearchIndex.document(bookId);
+        if (document != null) {
+            return document.getCategory();
+        }
+        return bookRepository.findById(bookId).map(book -> book.getCategory()).orElse(null);
+    }
+
+    private long today() {
+        return LocalDate.now(zoneId).toEpochDay();
+    }
+
+    private Path stateFile() {
+        return Paths.get(indexDir, "readers.idx");
+    }
+
+    private static byte[] encode(long epochDay, Day day) {
+        List<Map.Entry<Long, HyperLogLog>> books = new ArrayList<>(day.books.entrySet());
+        List<Map.Entry<byte[], HyperLogLog>> categories = new ArrayList<>();
+        day.categories.forEach((category, sketch) ->
+            categories.add(Map.entry(category.getBytes(StandardCharsets.UTF_8), sketch))
+        );
+
+        // 크기를 잰 뒤 쓰는 사이에 스케치가 커질 수 있으므로 각 스케치를 먼저 바이트로 만든다
+        byte[] all = bytes(day.all);
+        List<byte[]> bookSketches = new ArrayList<>(books.size());
+        List<byte[]> categorySketches = new ArrayList<>(categories.size());
+        int size = Long.BYTES + all.length + 2 * Integer.BYTES;
+        for (Map.Entry<Long, HyperLogLog> entry : books) {
+            byte[] sketch = bytes(entry.getValue());
+            bookSketches.add(sketch);
+            size += Long.BYTES + sketch.length;
+        }
+        for (Map.Entry<byte[], HyperLogLog> entry : categories) {
+            byte[] sketch = bytes(entry.getValue());
+            categorySketches.add(sketch);
+            size += Integer.BYTES + entry.getKey().length + sketch.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(epochDay);
+        buffer.put(all);
+        buffer.putInt(books.size());
+        for (int i = 0; i < books.size(); i++) {
+            buffer.putLong(books.get(i).getKey());
+            buffer.put(bookSketches.get(i));
+        }
+        buffer.putInt(categories.size());
+        for (int i = 0; i < categories.size(); i++) {
+            buffer.putInt(categories.get(i).getKey().length);
+            buffer.put(categories.get(i).getKey());
+            buffer.put(categorySketches.get(i));
+        }
+        return buffer.array();
+    }
+
+    private void decode(ByteBuffer buffer) {
+        long epochDay = buffer.getLong();
+        Day day = new Day(HyperLogLog.readFrom(buffer, precision));
+        int bookCount = buffer.getInt();
+        for (int i = 0; i < bookCount; i++) {
+            long bookId = buffer.getLong();
+            day.books.put(bookId, HyperLogLog.readFrom(buffer, precision));
+        }
+        int categoryCount = buffer.getInt();
+        for (int i = 0; i < categoryCount; i++) {
+            byte[] category = new byte[buffer.getInt()];
+            buffer.get(category);
+            day.categories.put(
+                new String(category, StandardCharsets.UTF_8),
+                HyperLogLog.readFrom(buffer, precision)
+            );
+        }
+        days.put(epochDay, day);
+    }
+
+    private static byte[] bytes(HyperLogLog sketch) {
+        synchronized (sketch) {
+            ByteBuffer buffer = ByteBuffer.allocate(sketch.sizeInBytes());
+            sketch.writeTo(buffer);
+            return buffer.array();
+        }
+    }
+
+    private static class Day {
+
+        private final HyperLogLog all;
+        private final Map<Long, HyperLogLog> books = new ConcurrentHashMap<>();
+        private final Map<String, HyperLogLog> categories = new ConcurrentHashMap<>();
+
+        Day(HyperLogLog all) {
+            this.all = all;
+        }
+    }
+}
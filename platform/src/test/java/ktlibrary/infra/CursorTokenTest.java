@@ -0,0 +1,69 @@
+package ktlibrary.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class CursorTokenTest {
+
+    @Test
+    void roundTripsKeys() {
+        String token = CursorToken.encode("subscriptionCount", 42, 1001L);
+
+        assertThat(CursorToken.decode(token, "subscriptionCount", 2))
+            .containsExactly("42", "1001");
+        assertThat(CursorToken.decodeLongs(token, "subscriptionCount", 2))
+            .containsExactly(42L, 1001L);
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = CursorToken.encode("id", Long.MAX_VALUE);
+
+        assertThat(token).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void rejectsTokenForAnotherSort() {
+        String token = CursorToken.encode("id", 10L);
+
+        assertThatThrownBy(() -> CursorToken.decode(token, "subscriptionCount", 2))
+            .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void rejectsWrongKeyCount() {
+        String token = CursorToken.encode("id", 10L, 20L);
+
+        assertThatThrownBy(() -> CursorToken.decode(token, "id", 1))
+            .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void rejectsMalformedBase64() {
+        assertThatThrownBy(() -> CursorToken.decode("%%%", "id", 1))
+            .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void rejectsNonNumericKey() {
+        String token = Base64
+            .getUrlEncoder()
+            .withoutPadding()
+            .encodeToString("v1|id|abc".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(CursorToken.decode(token, "id", 1)).containsExactly("abc");
+        assertThatThrownBy(() -> CursorToken.decodeLongs(token, "id", 1))
+            .isInstanceOf(BadRequestException.class)
+            .hasMessageContaining("잘못된 커서");
+    }
+
+    @Test
+    void badRequestIsStillAnIllegalArgument() {
+        assertThatThrownBy(() -> CursorToken.decode("", "id", 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
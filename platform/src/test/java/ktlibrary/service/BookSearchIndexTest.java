@@ -0,0 +1,57 @@
+package ktlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ktlibrary.domain.BookDocument;
+import ktlibrary.domain.BookSuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        ReflectionTestUtils.setField(index, "candidateLimit", 1000);
+    }
+
+    // 글이 바뀐 도서를 다시 색인하면 이전 도서명/저자명으로는 검색도 자동완성도 되지 않는다
+    @Test
+    void reindexRemovesOldTermsAndSuggestions() {
+        index.index(document(1L, "자바의 정석", "남궁성"));
+        index.index(document(2L, "자바 입문", "홍길동"));
+
+        index.index(document(1L, "코틀린 인 액션", "드미트리"));
+
+        assertThat(index.search("정석", null, 10)).isEmpty();
+        assertThat(index.search("자바", null, 10))
+            .extracting(BookDocument::getId)
+            .containsExactly(2L);
+        assertThat(index.search("코틀린", null, 10))
+            .extracting(BookDocument::getId)
+            .containsExactly(1L);
+        assertThat(index.autocomplete("남궁", 10)).isEmpty();
+        assertThat(index.autocomplete("자바", 10))
+            .extracting(BookSuggestion::getBookId)
+            .containsExactly(2L);
+        assertThat(index.autocomplete("드미", 10))
+            .extracting(BookSuggestion::getText)
+            .containsExactly("드미트리");
+    }
+
+    @Test
+    void reindexWithSameTextKeepsEntries() {
+        index.index(document(1L, "자바의 정석", "남궁성"));
+        index.index(document(1L, "자바의 정석", "남궁성"));
+
+        assertThat(index.search("정석", null, 10)).hasSize(1);
+        assertThat(index.autocomplete("자바", 10)).hasSize(1);
+    }
+
+    private static BookDocument document(Long id, String bookName, String authorName) {
+        return new BookDocument(id, bookName, authorName, "IT", false, null);
+    }
+}
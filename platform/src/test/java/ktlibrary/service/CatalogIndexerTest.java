@@ -0,0 +1,92 @@
+package ktlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import ktlibrary.domain.BookDocument;
+import ktlibrary.domain.BookRepository;
+import ktlibrary.domain.SimilarBook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class CatalogIndexerTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+
+    private BookSearchIndex bookSearchIndex;
+    private BookFacets bookFacets;
+    private SimilarBooks similarBooks;
+    private CatalogIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        bookSearchIndex = new BookSearchIndex();
+        ReflectionTestUtils.setField(bookSearchIndex, "candidateLimit", 1000);
+        bookFacets = new BookFacets();
+        ReflectionTestUtils.setField(bookFacets, "authorFacetSize", 20);
+        similarBooks = new SimilarBooks();
+        ReflectionTestUtils.setField(similarBooks, "bands", 4);
+        ReflectionTestUtils.setField(similarBooks, "maxDistance", 16);
+        ReflectionTestUtils.setField(similarBooks, "bookSearchIndex", bookSearchIndex);
+
+        indexer = new CatalogIndexer();
+        ReflectionTestUtils.setField(indexer, "rebuildPageSize", 2);
+        ReflectionTestUtils.setField(indexer, "bookRepository", bookRepository);
+        ReflectionTestUtils.setField(indexer, "bookSearchIndex", bookSearchIndex);
+        ReflectionTestUtils.setField(indexer, "bookFacets", bookFacets);
+        ReflectionTestUtils.setField(indexer, "similarBooks", similarBooks);
+
+        for (long id = 1; id <= 6; id++) {
+            ReflectionTestUtils.invokeMethod(
+                indexer,
+                "index",
+                new BookDocument(id, "자바 " + id, "저자", "IT", false, 0x0F0F_0F0FL)
+            );
+        }
+    }
+
+    @Test
+    void removeDropsBookFromAllIndexes() {
+        indexer.remove(3L);
+
+        assertThat(ids(bookSearchIndex.search("자바", null, 10))).doesNotContain(3L);
+        assertThat(bookFacets.count("IT", null, null)).isEqualTo(5);
+        assertThat(similarBooks.similar(3L, 10)).isEmpty();
+        assertThat(similarBooks.similar(1L, 10))
+            .extracting(SimilarBook::getBookId)
+            .doesNotContain(3L);
+    }
+
+    // 색인 파일에서 읽은 도서 중 테이블에 없는 도서(1, 4, 6)는 적재 후 뺀다
+    @Test
+    void removeDeletedDropsIdsMissingFromTable() {
+        List<Long> table = Arrays.asList(2L, 3L, 5L, 7L);
+        when(bookRepository.findIdsAfter(anyLong(), any(Pageable.class)))
+            .thenAnswer(invocation -> {
+                long afterId = invocation.getArgument(0);
+                Pageable pageable = invocation.getArgument(1);
+                return table
+                    .stream()
+                    .filter(id -> id > afterId)
+                    .limit(pageable.getPageSize())
+                    .collect(Collectors.toList());
+            });
+
+        ReflectionTestUtils.invokeMethod(indexer, "removeDeleted");
+
+        assertThat(ids(bookSearchIndex.documents())).containsExactlyInAnyOrder(2L, 3L, 5L);
+        assertThat(bookFacets.count("IT", null, null)).isEqualTo(3);
+    }
+
+    private static List<Long> ids(List<BookDocument> documents) {
+        return documents.stream().map(BookDocument::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,85 @@
+package ktlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    @Test
+    void emptySketchEstimatesZero() {
+        HyperLogLog sketch = new HyperLogLog(12);
+
+        assertThat(sketch.isEmpty()).isTrue();
+        assertThat(sketch.estimate()).isZero();
+    }
+
+    @Test
+    void duplicatesDoNotIncreaseEstimate() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int round = 0; round < 5; round++) {
+            for (long value = 1; value <= 100; value++) {
+                sketch.add(value);
+            }
+        }
+
+        assertThat(sketch.estimate()).isCloseTo(100L, within(3L));
+    }
+
+    // 표준 오차 1.04 / sqrt(4096) ≈ 1.6% 이므로 5% 안에 들어와야 한다. 희소에서 밀집 표현으로 바뀌는 구간을 지난다
+    @Test
+    void estimatesWithinErrorBoundAcrossRepresentations() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (long value = 1; value <= 100_000; value++) {
+            sketch.add(value);
+            if (value == 500 || value == 100_000) {
+                assertThat((double) sketch.estimate()).isCloseTo(value, within(value * 0.05));
+            }
+        }
+    }
+
+    @Test
+    void mergeEstimatesUnion() {
+        HyperLogLog left = new HyperLogLog(12);
+        HyperLogLog right = new HyperLogLog(12);
+        for (long value = 0; value < 30_000; value++) {
+            left.add(value);
+        }
+        for (long value = 20_000; value < 50_000; value++) {
+            right.add(value);
+        }
+
+        left.merge(right);
+
+        assertThat((double) left.estimate()).isCloseTo(50_000, within(2_500.0));
+    }
+
+    @Test
+    void mergeRejectsDifferentPrecision() {
+        assertThatThrownBy(() -> new HyperLogLog(12).merge(new HyperLogLog(10)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void roundTripsSparseAndDenseSketches() {
+        for (int count : new int[] { 50, 20_000 }) {
+            HyperLogLog sketch = new HyperLogLog(12);
+            for (long value = 0; value < count; value++) {
+                sketch.add(value * 31);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(sketch.sizeInBytes());
+            sketch.writeTo(buffer);
+            assertThat(buffer.remaining()).isZero();
+            buffer.flip();
+
+            HyperLogLog read = HyperLogLog.readFrom(buffer, 12);
+
+            assertThat(read.estimate()).isEqualTo(sketch.estimate());
+            assertThat(read.sizeInBytes()).isEqualTo(sketch.sizeInBytes());
+        }
+    }
+}
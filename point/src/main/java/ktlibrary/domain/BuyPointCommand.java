@@ -0,0 +1,9 @@
+package ktlibrary.domain;
+
+import lombok.Data;
+
+@Data
+public class BuyPointCommand {
+
+    private Integer point;
+}
@@ -0,0 +1,13 @@
+package ktlibrary.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 구매 포인트가 없거나 0 이하인 경우 (400 Bad Request)
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPointAmountException extends RuntimeException {
+
+    public InvalidPointAmountException(Integer point) {
+        super("구매 포인트는 1 이상이어야 합니다: " + point);
+    }
+}
@@ -2,10 +2,15 @@ package ktlibrary.domain;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.persistence.*;
 
 import org.springframework.http.ResponseEntity;
@@ -16,18 +21,32 @@ import ktlibrary.domain.OutOfPoint;
 import ktlibrary.domain.PointBought;
 import ktlibrary.domain.PointDecreased;
 import ktlibrary.domain.RegisterPointGained;
+import ktlibrary.infra.AbstractEvent;
+import ktlibrary.service.PointCommandDispatcher;
 import lombok.Data;
 
 @Entity
-@Table(name = "Point_table")
+@Table(
+    name = "Point_table",
+    indexes = {
+        @Index(name = "idx_point_user", columnList = "userId_id"),
+    }
+)
 @Data
 //<<< DDD / Aggregate Root
 public class Point {
 
+    // 플랫폼의 /books/batch 한 번에 조회할 수 있는 도서 수 (platform.book-card.batch-limit)
+    private static final int BOOK_BATCH_SIZE = 500;
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
+    // 여러 인스턴스의 처리자가 같은 구독자를 낡은 잔액으로 덮어쓰지 않도록 버전을 확인한다
+    @Version
+    private Long version;
+
     private Integer point;
 
     private Boolean isSubscribe;
@@ -45,16 +64,36 @@ public class Point {
         return pointRepository;
     }
 
+    public static PointCommandDispatcher dispatcher() {
+        PointCommandDispatcher pointCommandDispatcher = PointApplication.applicationContext.getBean(
+            PointCommandDispatcher.class
+        );
+        return pointCommandDispatcher;
+    }
+
     //<<< Clean Arch / Port Method
     public static void gainRegisterPoint(UserRegistered userRegistered) {
 
-        Point point = new Point();
-        point.setPoint(1000);
-        point.setUserId(new UserId(userRegistered.getId()));
-        repository().save(point);
+        // 가입 포인트 적립은 해당 구독자를 소유한 처리자에게 위임하고, 저장될 때까지 기다린다
+        dispatcher().dispatchAndWait(
+            Collections.singletonList(
+                PointCommand.gainRegisterPoint(userRegistered.getId(), 1000)
+            )
+        );
+
+    }
+
+    //>>> Clean Arch / Port Method
+    //<<< Clean Arch / Port Method
+    public static void gainRegisterPoint(UsersRegistered usersRegistered) {
 
-        RegisterPointGained registerPointGained = new RegisterPointGained(point);
-        registerPointGained.publishAfterCommit();
+        // 대량 가입 묶음은 구독자마다 나누어 각 처리자에게 위임
+        if (usersRegistered.getUserIds() == null) return;
+        List<PointCommand> commands = new ArrayList<>();
+        for (Long userId : usersRegistered.getUserIds()) {
+            commands.add(PointCommand.gainRegisterPoint(userId, 1000));
+        }
+        dispatcher().dispatchAndWait(commands);
 
     }
 
@@ -71,6 +110,111 @@ public class Point {
         Long bookId = Long.valueOf(bookMap.get("id").toString());
         Long userId = Long.valueOf(userMap.get("id").toString());
 
+        charge(userId, bookId, subscriptionApplied.getId(), subscriptionApplied.getCorrelationId());
+    }
+    //>>> Clean Arch / Port Method
+
+    //<<< Clean Arch / Port Method
+    public static void decreasePoint(SubscriptionBundleApplied subscriptionBundleApplied) {
+
+        Long userId = subscriptionBundleApplied.getUserId();
+        List<SubscriptionBundleApplied.Item> items = subscriptionBundleApplied.getSubscriptions();
+        if (userId == null || items == null || items.isEmpty()) {
+            return;
+        }
+        RestTemplate restTemplate = new RestTemplate();
+
+        // 구독권 보유 여부는 한 번만 확인
+        ResponseEntity<Map> userResponse = restTemplate.getForEntity("http://localhost:8086/users/" + userId, Map.class);
+        Object isPurchase = userResponse.getBody().get("isPurchase");
+        if(isPurchase != null && (Boolean)isPurchase == true){
+            return;
+        }
+
+        // 묶음의 도서는 일괄 조회 한 번으로 가격을 정해 합계를 구한다
+        List<Long> bookIds = new ArrayList<>();
+        for (SubscriptionBundleApplied.Item item : items) {
+            bookIds.add(item.getBookId());
+        }
+        Map<Long, Object> bestSellers = bestSellers(restTemplate, bookIds);
+
+        List<Long> subscriptionIds = new ArrayList<>();
+        boolean missing = false;
+        for (SubscriptionBundleApplied.Item item : items) {
+            subscriptionIds.add(item.getId());
+            // 없는 도서(missing)는 기본 가격으로 청구하지 않고 묶음 전체를 실패시킨다
+            if (!bestSellers.containsKey(item.getBookId())) {
+                missing = true;
+            }
+        }
+        if (missing) {
+            bookNotFound(userId, subscriptionIds);
+            return;
+        }
+
+        int total = 0;
+        for (SubscriptionBundleApplied.Item item : items) {
+            total += price(bestSellers.get(item.getBookId()));
+        }
+
+        // 잔액 확인과 차감은 합계로 한 번에. 부족하면 묶음의 구독이 모두 해제된다
+        dispatcher().dispatchAndWait(
+            Collections.singletonList(
+                PointCommand.decreaseBundlePoint(userId, subscriptionIds, total)
+            )
+        );
+    }
+    //>>> Clean Arch / Port Method
+
+    //<<< Clean Arch / Port Method
+    public static void decreasePoint(SubscriptionRenewed subscriptionRenewed) {
+
+        // 자동 연장된 구독은 구독자별로 모아 합계를 한 번에 차감한다. 부족하면 그 구독자의 연장분이 모두 해제된다
+        Map<Long, List<SubscriptionRenewed.Item>> byUser = new LinkedHashMap<>();
+        Set<Long> bookIds = new LinkedHashSet<>();
+        for (SubscriptionRenewed.Item item : subscriptionRenewed.getSubscriptions()) {
+            if (item.getUserId() == null || item.getBookId() == null) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(item.getIsPurchase())) {
+                continue;
+            }
+            byUser.computeIfAbsent(item.getUserId(), key -> new ArrayList<>()).add(item);
+            bookIds.add(item.getBookId());
+        }
+        if (byUser.isEmpty()) {
+            return;
+        }
+
+        // 도서 가격은 이벤트당 일괄 조회로 정한다
+        Map<Long, Object> bestSellers = bestSellers(new RestTemplate(), new ArrayList<>(bookIds));
+
+        List<PointCommand> commands = new ArrayList<>();
+        byUser.forEach((userId, renewed) -> {
+            int total = 0;
+            List<Long> subscriptionIds = new ArrayList<>();
+            List<Long> missingIds = new ArrayList<>();
+            for (SubscriptionRenewed.Item item : renewed) {
+                if (!bestSellers.containsKey(item.getBookId())) {
+                    missingIds.add(item.getId());
+                    continue;
+                }
+                total += price(bestSellers.get(item.getBookId()));
+                subscriptionIds.add(item.getId());
+            }
+            // 없어진 도서의 구독은 청구하지 않고 해제한다
+            if (!missingIds.isEmpty()) {
+                bookNotFound(userId, missingIds);
+            }
+            if (!subscriptionIds.isEmpty()) {
+                commands.add(PointCommand.decreaseBundlePoint(userId, subscriptionIds, total));
+            }
+        });
+        dispatcher().dispatchAndWait(commands);
+    }
+    //>>> Clean Arch / Port Method
+
+    private static void charge(Long userId, Long bookId, Long subscriptionId, String correlationId) {
         RestTemplate restTemplate = new RestTemplate();
         
         // 도서Id, 구독자Id를 조회하여 정보 추출
@@ -80,46 +224,105 @@ public class Point {
         ResponseEntity<Map> bookResponse = restTemplate.getForEntity(bookServiceUrl, Map.class);
         ResponseEntity<Map> userResponse = restTemplate.getForEntity(userServiceUrl, Map.class);
 
-        // 구독자 정보가 동일한 Point 정보를 조회
-        repository().findByUserId(new UserId(userId)).ifPresent(point->{
-            // 해당 구독자가 구독권 보유하였는지 확인하고 보유하였을 경우 포인트 감소를 하지 않도록 처리
-            Object isPurchase = userResponse.getBody().get("isPurchase");
-            if(isPurchase != null && (Boolean)isPurchase == true){
-            }else{
-                // 베스트셀러 여부에 따라 차감할 포인트를 설정
-                Object isBestSeller = bookResponse.getBody().get("isBestSeller");
-                if(isBestSeller != null && (Boolean)isBestSeller == true){
-                    // 베스트셀러인 경우 구독 신청에 필요한 포인트를 1500포인트로 설정 후 조건문에 따라 감소, 부족 이벤트 발행
-                    if(point.getPoint() >= 1500){
-                        point.setPoint(point.getPoint() - 1500);
-                        repository().save(point);
-                        PointDecreased pointDecreased = new PointDecreased(point);
-                        pointDecreased.publishAfterCommit();
-                    }else{
-                        // 포인트가 부족하면 포인트 부족 이벤트를 발행.
-                        point.setSubscriptionId(new SubscriptionId(subscriptionApplied.getId()));
-                        repository().save(point);
-                        OutOfPoint outOfPoint = new OutOfPoint(point);
-                        outOfPoint.publishAfterCommit();
-                    }
-                }else{
-                    // 일반 도서인 경우 구독 신청에 필요한 포인트를 1000포인트로 설정 조건문에 따라 감소, 부족 이벤트 발행
-                    if(point.getPoint() >= 1000){
-                        point.setPoint(point.getPoint() - 1000);
-                        repository().save(point);
-                        PointDecreased pointDecreased = new PointDecreased(point);
-                        pointDecreased.publishAfterCommit();
-                    }else{
-                        point.setSubscriptionId(new SubscriptionId(subscriptionApplied.getId()));
-                        repository().save(point);
-                        OutOfPoint outOfPoint = new OutOfPoint(point);
-                        outOfPoint.publishAfterCommit();
-                    }
-                }
+        // 해당 구독자가 구독권 보유하였는지 확인하고 보유하였을 경우 포인트 감소를 하지 않도록 처리
+        Object isPurchase = userResponse.getBody().get("isPurchase");
+        if(isPurchase != null && (Boolean)isPurchase == true){
+            return;
+        }
+
+        // 베스트셀러인 경우 1500포인트, 일반 도서인 경우 1000포인트를 차감
+        int price = price(bookResponse.getBody().get("isBestSeller"));
+
+        // 잔액 확인과 차감은 해당 구독자를 소유한 처리자에서 순차적으로 처리
+        PointCommand command = PointCommand.decreasePoint(userId, subscriptionId, price);
+        command.setCorrelationId(correlationId);
+        dispatcher().dispatchAndWait(Collections.singletonList(command));
+    }
+
+    // 도서별 베스트셀러 여부. 응답의 missing 에 있는 (없는) 도서는 결과에 들어가지 않는다
+    private static Map<Long, Object> bestSellers(RestTemplate restTemplate, List<Long> bookIds) {
+        Map<Long, Object> bestSellers = new HashMap<>();
+        for (int from = 0; from < bookIds.size(); from += BOOK_BATCH_SIZE) {
+            List<Long> chunk = bookIds.subList(from, Math.min(bookIds.size(), from + BOOK_BATCH_SIZE));
+            ResponseEntity<Map> booksResponse = restTemplate.postForEntity("http://localhost:8087/books/batch", chunk, Map.class);
+            for (Object entry : (List<?>) booksResponse.getBody().get("content")) {
+                Map<?, ?> card = (Map<?, ?>) entry;
+                Map<?, ?> book = (Map<?, ?>) card.get("book");
+                bestSellers.put(Long.valueOf(card.get("id").toString()), book.get("isBestSeller"));
             }
-        });
+        }
+        return bestSellers;
+    }
+
+    private static void bookNotFound(Long userId, List<Long> subscriptionIds) {
+        OutOfPoint outOfPoint = new OutOfPoint();
+        outOfPoint.setUserId(new UserId(userId));
+        outOfPoint.setSubscriptionId(new SubscriptionId(subscriptionIds.get(0)));
+        outOfPoint.setSubscriptionIds(subscriptionIds);
+        outOfPoint.setReason(OutOfPoint.BOOK_NOT_FOUND);
+        outOfPoint.publishAfterCommit();
+    }
+
+    private static int price(Object isBestSeller) {
+        return (isBestSeller != null && (Boolean)isBestSeller == true) ? 1500 : 1000;
+    }
+
+    // 아래 메서드는 구독자를 소유한 처리자 스레드에서만 호출되므로 잠금 없이 잔액을 변경한다
+    public AbstractEvent gain(PointLot lot) {
+        credit(lot);
+        RegisterPointGained registerPointGained = new RegisterPointGained(this);
+        registerPointGained.setChangedPoint(lot.getAmount());
+        return registerPointGained;
+    }
+
+    public AbstractEvent buy(PointLot lot) {
+        credit(lot);
+        PointBought pointBought = new PointBought(this);
+        pointBought.setChangedPoint(lot.getAmount());
+        return pointBought;
+    }
+
+    public void credit(PointLot lot) {
+        this.point = (this.point == null ? 0 : this.point) + lot.getAmount();
+    }
+
+    public AbstractEvent decrease(
+        Integer amount,
+        Long subscriptionId,
+        List<Long> subscriptionIds,
+        List<PointLot> lots
+    ) {
+        if (this.point != null && this.point >= amount) {
+            // 만료일이 빠른 묶음부터 차감. 묶음이 없는 기존 잔액은 만료되지 않는 잔액으로 취급
+            PointLot.consume(lots, amount);
+            this.point = this.point - amount;
+            PointDecreased pointDecreased = new PointDecreased(this);
+            pointDecreased.setChangedPoint(-amount);
+            return pointDecreased;
+        }
+        // 포인트가 부족하면 포인트 부족 이벤트를 발행.
+        this.subscriptionId = new SubscriptionId(subscriptionId);
+        OutOfPoint outOfPoint = new OutOfPoint(this);
+        outOfPoint.setSubscriptionIds(subscriptionIds);
+        return outOfPoint;
+    }
+
+    public AbstractEvent expire(List<PointLot> expiredLots) {
+        int expiredPoint = 0;
+        for (PointLot lot : expiredLots) {
+            expiredPoint += lot.getRemaining();
+            lot.setRemaining(0);
+        }
+        if (expiredPoint == 0) {
+            return null;
+        }
+        this.point =
+            Math.max(0, (this.point == null ? 0 : this.point) - expiredPoint);
+
+        PointExpired pointExpired = new PointExpired(this);
+        pointExpired.setExpiredPoint(expiredPoint);
+        return pointExpired;
     }
-    //>>> Clean Arch / Port Method
 
 }
 //>>> DDD / Aggregate Root
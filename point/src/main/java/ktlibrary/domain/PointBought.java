@@ -13,6 +13,7 @@ public class PointBought extends AbstractEvent {
 
     private Long id;
     private Integer point;
+    private Integer changedPoint;
     private UserId userId;
 
     public PointBought(Point aggregate) {
@@ -0,0 +1,49 @@
+package ktlibrary.domain;
+
+import java.util.Date;
+import javax.persistence.*;
+import lombok.Data;
+
+@Entity
+@Table(name = "PointCampaign_table")
+@Data
+// 대량 포인트 지급 캠페인. lastUserId 까지 지급이 끝났으므로 중단되어도 그 다음부터 재개한다.
+public class PointCampaign {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    private String name;
+
+    private Integer point;
+
+    private Integer validDays;
+
+    private String status;
+
+    // true 이면 지정된 구독자 목록(PointCampaignTarget), false 이면 잔액 조건으로 대상을 고른다
+    private Boolean targeted;
+
+    private Integer minPoint;
+
+    private Integer maxPoint;
+
+    private Long lastUserId;
+
+    private Long targetCount;
+
+    private Long processedCount;
+
+    private Long grantedCount;
+
+    private String failureMessage;
+
+    private Date createdAt;
+
+    private Date completedAt;
+}
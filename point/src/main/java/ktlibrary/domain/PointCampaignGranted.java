@@ -0,0 +1,40 @@
+package ktlibrary.domain;
+
+import java.time.LocalDate;
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+//<<< DDD / Domain Event
+@Data
+@ToString
+public class PointCampaignGranted extends AbstractEvent {
+
+    private Long id;
+    private String name;
+    private Integer point;
+    private List<Long> userIds;
+    // 지급 후 구독자별 잔액. 조회 모델은 증감분이 아닌 이 잔액을 그대로 쓴다
+    private List<Item> balances;
+
+    public PointCampaignGranted(PointCampaign aggregate) {
+        super(aggregate);
+    }
+
+    public PointCampaignGranted() {
+        super();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private Long userId;
+        private Integer point;
+        // 처리자가 지급을 반영한 시각. 다른 포인트 이벤트와 발생 순서를 비교한다
+        private Long changedAt;
+    }
+}
+//>>> DDD / Domain Event
@@ -0,0 +1,13 @@
+package ktlibrary.domain;
+
+import java.util.List;
+import ktlibrary.domain.*;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+//<<< PoEAA / Repository
+@RepositoryRestResource(exported = false)
+public interface PointCampaignRepository
+    extends PagingAndSortingRepository<PointCampaign, Long> {
+    List<PointCampaign> findByStatus(String status);
+}
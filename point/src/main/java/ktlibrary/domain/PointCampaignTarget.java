@@ -0,0 +1,30 @@
+package ktlibrary.domain;
+
+import javax.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(
+    name = "PointCampaignTarget_table",
+    indexes = {
+        @Index(
+            name = "idx_point_campaign_target",
+            columnList = "campaignId, userId"
+        ),
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointCampaignTarget {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    private Long campaignId;
+
+    private Long userId;
+}
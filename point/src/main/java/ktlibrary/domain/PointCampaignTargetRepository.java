@@ -0,0 +1,25 @@
+package ktlibrary.domain;
+
+import java.util.List;
+import ktlibrary.domain.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+//<<< PoEAA / Repository
+@RepositoryRestResource(exported = false)
+public interface PointCampaignTargetRepository
+    extends PagingAndSortingRepository<PointCampaignTarget, Long> {
+    @Query(
+        "select t.userId from PointCampaignTarget t " +
+        "where t.campaignId = :campaignId and t.userId > :afterUserId " +
+        "order by t.userId"
+    )
+    List<Long> findUserIds(
+        @Param("campaignId") Long campaignId,
+        @Param("afterUserId") Long afterUserId,
+        Pageable pageable
+    );
+}
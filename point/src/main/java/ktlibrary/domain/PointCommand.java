@@ -0,0 +1,91 @@
+package ktlibrary.domain;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.Data;
+
+// 구독자별 단일 처리자(shard)에게 전달되는 포인트 변경 명령
+@Data
+public class PointCommand {
+
+    public enum Type {
+        GAIN_REGISTER_POINT,
+        BUY_POINT,
+        GRANT_CAMPAIGN_POINT,
+        DECREASE_POINT,
+        EXPIRE_POINT,
+    }
+
+    private Type type;
+    private Long userId;
+    private Integer amount;
+    private Long subscriptionId;
+    private List<Long> subscriptionIds;
+    // 차감 결과 이벤트 헤더로 돌려줄 구독 신청 요청의 상관 ID
+    private String correlationId;
+    private Long campaignId;
+    private Integer validDays;
+
+    // 명령이 반영된 트랜잭션이 커밋되면 완료된다 (반영 대상이 없으면 false)
+    private CompletableFuture<Boolean> completion = new CompletableFuture<>();
+
+    // 명령을 반영한 뒤의 잔액과 반영 시각. completion 이 true 로 완료된 뒤에 읽는다
+    private Integer balance;
+    private Long changedAt;
+
+    public static PointCommand gainRegisterPoint(Long userId, Integer amount) {
+        return of(Type.GAIN_REGISTER_POINT, userId, amount);
+    }
+
+    public static PointCommand buyPoint(Long userId, Integer amount) {
+        return of(Type.BUY_POINT, userId, amount);
+    }
+
+    public static PointCommand grantCampaignPoint(
+        Long userId,
+        PointCampaign campaign
+    ) {
+        PointCommand command = of(
+            Type.GRANT_CAMPAIGN_POINT,
+            userId,
+            campaign.getPoint()
+        );
+        command.setCampaignId(campaign.getId());
+        command.setValidDays(campaign.getValidDays());
+        return command;
+    }
+
+    public static PointCommand decreasePoint(
+        Long userId,
+        Long subscriptionId,
+        Integer amount
+    ) {
+        PointCommand command = of(Type.DECREASE_POINT, userId, amount);
+        command.setSubscriptionId(subscriptionId);
+        return command;
+    }
+
+    // 묶음 구독은 합계 금액을 한 번에 차감한다. 부족하면 묶음 전체가 실패한다
+    public static PointCommand decreaseBundlePoint(
+        Long userId,
+        List<Long> subscriptionIds,
+        Integer amount
+    ) {
+        PointCommand command = of(Type.DECREASE_POINT, userId, amount);
+        command.setSubscriptionId(subscriptionIds.get(0));
+        command.setSubscriptionIds(subscriptionIds);
+        return command;
+    }
+
+    public static PointCommand expirePoint(Long userId) {
+        return of(Type.EXPIRE_POINT, userId, null);
+    }
+
+    private static PointCommand of(Type type, Long userId, Integer amount) {
+        PointCommand command = new PointCommand();
+        command.setType(type);
+        command.setUserId(userId);
+        command.setAmount(amount);
+        return command;
+    }
+}
@@ -13,6 +13,7 @@ public class PointDecreased extends AbstractEvent {
 
     private Long id;
     private Integer point;
+    private Integer changedPoint;
     private UserId userId;
 
     public PointDecreased(Point aggregate) {
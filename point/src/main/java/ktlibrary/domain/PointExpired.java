@@ -0,0 +1,27 @@
+package ktlibrary.domain;
+
+import java.time.LocalDate;
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+//<<< DDD / Domain Event
+@Data
+@ToString
+public class PointExpired extends AbstractEvent {
+
+    private Long id;
+    private Integer point;
+    private Integer expiredPoint;
+    private UserId userId;
+
+    public PointExpired(Point aggregate) {
+        super(aggregate);
+    }
+
+    public PointExpired() {
+        super();
+    }
+}
+//>>> DDD / Domain Event
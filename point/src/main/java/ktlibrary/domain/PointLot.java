@@ -0,0 +1,89 @@
+package ktlibrary.domain;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.*;
+import lombok.Data;
+
+@Entity
+@Table(
+    name = "PointLot_table",
+    indexes = {
+        @Index(name = "idx_point_lot_expiry_bucket", columnList = "expiryBucket"),
+        @Index(name = "idx_point_lot_user", columnList = "userId_id"),
+        @Index(name = "idx_point_lot_campaign", columnList = "campaignId"),
+    }
+)
+@Data
+// 만료일을 가진 포인트 묶음. 적립/구매 단위로 생성되며 만료일이 빠른 순서로 차감된다.
+public class PointLot {
+
+    // 만료 인덱스의 시간 단위(일)
+    public static final long BUCKET_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    public static final String REGISTER = "REGISTER";
+    public static final String PURCHASE = "PURCHASE";
+    public static final String CAMPAIGN = "CAMPAIGN";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Embedded
+    private UserId userId;
+
+    private Integer amount;
+
+    private Integer remaining;
+
+    private String source;
+
+    private Long campaignId;
+
+    private Date grantedAt;
+
+    private Date expiresAt;
+
+    private Long expiryBucket;
+
+    public static PointLot grant(
+        Long userId,
+        Integer amount,
+        int validDays,
+        String source
+    ) {
+        PointLot lot = new PointLot();
+        lot.setUserId(new UserId(userId));
+        lot.setAmount(amount);
+        lot.setRemaining(amount);
+        lot.setSource(source);
+        lot.setGrantedAt(new Date());
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(lot.getGrantedAt());
+        calendar.add(Calendar.DATE, validDays);
+        lot.setExpiresAt(calendar.getTime());
+        lot.setExpiryBucket(bucketOf(lot.getExpiresAt()));
+        return lot;
+    }
+
+    public static long bucketOf(Date date) {
+        return date.getTime() / BUCKET_MILLIS;
+    }
+
+    // 만료일이 빠른 묶음부터 차감하고 실제로 차감된 포인트를 반환
+    public static int consume(List<PointLot> lots, int amount) {
+        int consumed = 0;
+        for (PointLot lot : lots) {
+            if (consumed >= amount) {
+                break;
+            }
+            int used = Math.min(lot.getRemaining(), amount - consumed);
+            lot.setRemaining(lot.getRemaining() - used);
+            consumed += used;
+        }
+        return consumed;
+    }
+}
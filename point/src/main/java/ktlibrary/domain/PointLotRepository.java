@@ -0,0 +1,50 @@
+package ktlibrary.domain;
+
+import java.util.Date;
+import java.util.List;
+import ktlibrary.domain.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+//<<< PoEAA / Repository
+@RepositoryRestResource(exported = false)
+public interface PointLotRepository
+    extends PagingAndSortingRepository<PointLot, Long> {
+    List<PointLot> findByUserIdAndRemainingGreaterThanOrderByExpiresAtAsc(
+        UserId userId,
+        Integer remaining
+    );
+
+    List<PointLot> findByUserIdAndRemainingGreaterThanAndExpiresAtLessThanEqual(
+        UserId userId,
+        Integer remaining,
+        Date expiresAt
+    );
+
+    // 만료 버킷 인덱스만 사용하여 해당 버킷에서 만료 대상이 남아있는 구독자를 조회
+    @Query(
+        "select distinct l.userId.id from PointLot l " +
+        "where l.expiryBucket = :bucket and l.remaining > 0 " +
+        "and l.expiresAt <= :now and l.userId.id > :afterUserId " +
+        "order by l.userId.id"
+    )
+    List<Long> findExpiringUserIds(
+        @Param("bucket") Long bucket,
+        @Param("now") Date now,
+        @Param("afterUserId") Long afterUserId,
+        Pageable pageable
+    );
+
+    // 재개된 캠페인이 이미 지급한 구독자에게 중복 지급하지 않도록 확인
+    @Query(
+        "select l.userId.id from PointLot l " +
+        "where l.campaignId = :campaignId and l.userId.id in :userIds"
+    )
+    List<Long> findGrantedUserIds(
+        @Param("campaignId") Long campaignId,
+        @Param("userIds") List<Long> userIds
+    );
+}
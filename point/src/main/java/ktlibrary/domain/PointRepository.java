@@ -7,6 +7,7 @@ import ktlibrary.domain.*;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 
 //<<< PoEAA / Repository
@@ -14,4 +15,28 @@ import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 public interface PointRepository
     extends PagingAndSortingRepository<Point, Long> {
         Optional<Point> findByUserId(UserId userId);
+
+        @Query(
+            "select p.userId.id from Point p " +
+            "where p.userId.id > :afterUserId " +
+            "and (:minPoint is null or p.point >= :minPoint) " +
+            "and (:maxPoint is null or p.point <= :maxPoint) " +
+            "order by p.userId.id"
+        )
+        List<Long> findCampaignUserIds(
+            @Param("afterUserId") Long afterUserId,
+            @Param("minPoint") Integer minPoint,
+            @Param("maxPoint") Integer maxPoint,
+            Pageable pageable
+        );
+
+        @Query(
+            "select count(p) from Point p " +
+            "where (:minPoint is null or p.point >= :minPoint) " +
+            "and (:maxPoint is null or p.point <= :maxPoint)"
+        )
+        long countCampaignUsers(
+            @Param("minPoint") Integer minPoint,
+            @Param("maxPoint") Integer maxPoint
+        );
     }
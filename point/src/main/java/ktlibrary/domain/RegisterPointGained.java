@@ -15,6 +15,9 @@ public class RegisterPointGained extends AbstractEvent {
     private String 구독자정보;
     private String 포인트;
     private String 구독권여부;
+    private Integer point;
+    private Integer changedPoint;
+    private UserId userId;
 
     public RegisterPointGained(Point aggregate) {
         super(aggregate);
@@ -0,0 +1,16 @@
+package ktlibrary.domain;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class StartPointCampaignCommand {
+
+    private String name;
+    private Integer point;
+    private Integer validDays;
+    // 지정하면 해당 구독자에게만, 없으면 잔액 조건(minPoint, maxPoint)에 맞는 전체 구독자에게 지급
+    private List<Long> userIds;
+    private Integer minPoint;
+    private Integer maxPoint;
+}
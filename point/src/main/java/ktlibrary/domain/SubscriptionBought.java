@@ -0,0 +1,14 @@
+package ktlibrary.domain;
+
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+@Data
+@ToString
+public class SubscriptionBought extends AbstractEvent {
+
+    private Long id;
+    private Boolean isPurchase;
+}
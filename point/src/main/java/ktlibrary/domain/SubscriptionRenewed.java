@@ -0,0 +1,26 @@
+package ktlibrary.domain;
+
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+@Data
+@ToString
+public class SubscriptionRenewed extends AbstractEvent {
+
+    private List<Item> subscriptions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private Long id;
+        private Long userId;
+        private Long bookId;
+        private Date endSubscription;
+        // 구독권 보유 구독자는 연장해도 포인트를 차감하지 않는다. 포인트 서비스가 구독자를 따로 조회하지 않도록 함께 보낸다
+        private Boolean isPurchase;
+    }
+}
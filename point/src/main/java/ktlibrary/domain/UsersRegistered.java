@@ -0,0 +1,14 @@
+package ktlibrary.domain;
+
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+@Data
+@ToString
+public class UsersRegistered extends AbstractEvent {
+
+    private Long importId;
+    private List<Long> userIds;
+}
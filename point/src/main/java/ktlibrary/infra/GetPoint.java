@@ -0,0 +1,27 @@
+package ktlibrary.infra;
+
+import java.util.Date;
+import javax.persistence.*;
+import lombok.Data;
+
+//<<< EDA / CQRS
+// 구독자별 포인트 조회 화면용 비정규화 뷰 (id = 구독자 ID)
+@Entity
+@Table(name = "GetPoint_table")
+@Data
+public class GetPoint {
+
+    @Id
+    private Long id;
+
+    private Integer point;
+
+    private Boolean isSubscribe;
+
+    private String lastChangeType;
+
+    private Integer lastChangedPoint;
+
+    private Date lastChangedAt;
+}
+//>>> EDA / CQRS
@@ -0,0 +1,56 @@
+package ktlibrary.infra;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+//<<< Clean Arch / Inbound Adaptor
+
+@RestController
+// @RequestMapping(value="/getPoints")
+public class GetPointController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    PointHistoryRepository pointHistoryRepository;
+
+    // 최신순 포인트 변동 내역. 다음 페이지는 응답의 nextCursor 를 before 로 넘겨 조회한다.
+    @RequestMapping(
+        value = "/getPoints/{id}/history",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> getPointHistory(
+        @PathVariable(value = "id") Long id,
+        @RequestParam(value = "before", required = false) Long before,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<PointHistory> histories = pointHistoryRepository.findPage(
+            id,
+            before != null ? before : Long.MAX_VALUE,
+            PageRequest.of(0, pageSize)
+        );
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("content", histories);
+        page.put(
+            "nextCursor",
+            histories.size() == pageSize
+                ? histories.get(histories.size() - 1).getId()
+                : null
+        );
+        return page;
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
@@ -0,0 +1,9 @@
+package ktlibrary.infra;
+
+import ktlibrary.domain.*;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+@RepositoryRestResource(collectionResourceRel = "getPoints", path = "getPoints")
+public interface GetPointRepository
+    extends PagingAndSortingRepository<GetPoint, Long> {}
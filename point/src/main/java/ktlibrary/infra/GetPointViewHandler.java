@@ -0,0 +1,265 @@
+package ktlibrary.infra;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.transaction.Transactional;
+import ktlibrary.config.kafka.KafkaProcessor;
+import ktlibrary.domain.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.stream.annotation.StreamListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+@Service
+@Transactional
+public class GetPointViewHandler {
+
+    //<<< DDD / CQRS
+    @Autowired
+    private GetPointRepository getPointRepository;
+
+    @Autowired
+    private PointHistoryRepository pointHistoryRepository;
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='RegisterPointGained'"
+    )
+    public void whenRegisterPointGained_then_UPDATE_1(
+        @Payload RegisterPointGained registerPointGained
+    ) {
+        try {
+            if (!registerPointGained.validate()) return;
+            apply(
+                registerPointGained.getUserId(),
+                "REGISTER",
+                registerPointGained.getChangedPoint(),
+                registerPointGained.getPoint(),
+                registerPointGained.getTimestamp()
+            );
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='PointBought'"
+    )
+    public void whenPointBought_then_UPDATE_2(
+        @Payload PointBought pointBought
+    ) {
+        try {
+            if (!pointBought.validate()) return;
+            apply(
+                pointBought.getUserId(),
+                "PURCHASE",
+                pointBought.getChangedPoint(),
+                pointBought.getPoint(),
+                pointBought.getTimestamp()
+            );
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='PointDecreased'"
+    )
+    public void whenPointDecreased_then_UPDATE_3(
+        @Payload PointDecreased pointDecreased
+    ) {
+        try {
+            if (!pointDecreased.validate()) return;
+            apply(
+                pointDecreased.getUserId(),
+                "DECREASE",
+                pointDecreased.getChangedPoint(),
+                pointDecreased.getPoint(),
+                pointDecreased.getTimestamp()
+            );
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='OutOfPoint'"
+    )
+    public void whenOutOfPoint_then_UPDATE_4(@Payload OutOfPoint outOfPoint) {
+        try {
+            if (!outOfPoint.validate()) return;
+            apply(
+                outOfPoint.getUserId(),
+                "OUT_OF_POINT",
+                0,
+                outOfPoint.getPoint(),
+                outOfPoint.getTimestamp()
+            );
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='PointExpired'"
+    )
+    public void whenPointExpired_then_UPDATE_5(
+        @Payload PointExpired pointExpired
+    ) {
+        try {
+            if (!pointExpired.validate()) return;
+            apply(
+                pointExpired.getUserId(),
+                "EXPIRE",
+                -pointExpired.getExpiredPoint(),
+                pointExpired.getPoint(),
+                pointExpired.getTimestamp()
+            );
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='PointCampaignGranted'"
+    )
+    public void whenPointCampaignGranted_then_UPDATE_6(
+        @Payload PointCampaignGranted pointCampaignGranted
+    ) {
+        try {
+            if (!pointCampaignGranted.validate()) return;
+            List<PointCampaignGranted.Item> balances = pointCampaignGranted.getBalances();
+            if (balances == null || balances.isEmpty()) return;
+
+            // 캠페인 청크는 한 번의 조회와 일괄 저장으로 반영 (다른 이벤트와 같이 지급 후 잔액을 그대로 쓴다)
+            List<Long> userIds = new ArrayList<>(balances.size());
+            balances.forEach(item -> userIds.add(item.getUserId()));
+            Map<Long, GetPoint> views = new HashMap<>();
+            getPointRepository
+                .findAllById(userIds)
+                .forEach(getPoint -> views.put(getPoint.getId(), getPoint));
+
+            List<PointHistory> histories = new ArrayList<>(balances.size());
+            for (PointCampaignGranted.Item item : balances) {
+                Date changedAt = new Date(item.getChangedAt());
+                GetPoint getPoint = views.computeIfAbsent(
+                    item.getUserId(),
+                    this::newView
+                );
+                update(
+                    getPoint,
+                    "CAMPAIGN",
+                    pointCampaignGranted.getPoint(),
+                    item.getPoint(),
+                    changedAt
+                );
+                histories.add(
+                    history(
+                        item.getUserId(),
+                        "CAMPAIGN",
+                        pointCampaignGranted.getPoint(),
+                        item.getPoint(),
+                        changedAt
+                    )
+                );
+            }
+            getPointRepository.saveAll(views.values());
+            pointHistoryRepository.saveAll(histories);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='SubscriptionBought'"
+    )
+    public void whenSubscriptionBought_then_UPDATE_7(
+        @Payload SubscriptionBought subscriptionBought
+    ) {
+        try {
+            if (!subscriptionBought.validate()) return;
+            GetPoint getPoint = getPointRepository
+                .findById(subscriptionBought.getId())
+                .orElseGet(() -> newView(subscriptionBought.getId()));
+            getPoint.setIsSubscribe(subscriptionBought.getIsPurchase());
+            getPointRepository.save(getPoint);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    //>>> DDD / CQRS
+
+    private void apply(
+        UserId userId,
+        String changeType,
+        Integer changedPoint,
+        Integer point,
+        Long timestamp
+    ) {
+        if (userId == null || userId.getId() == null) return;
+        Date changedAt = new Date(timestamp);
+
+        GetPoint getPoint = getPointRepository
+            .findById(userId.getId())
+            .orElseGet(() -> newView(userId.getId()));
+        update(getPoint, changeType, changedPoint, point, changedAt);
+        getPointRepository.save(getPoint);
+
+        pointHistoryRepository.save(
+            history(userId.getId(), changeType, changedPoint, point, changedAt)
+        );
+    }
+
+    // 늦게 도착한 이벤트가 최신 잔액을 덮어쓰지 않도록 발생 시각을 비교
+    private void update(
+        GetPoint getPoint,
+        String changeType,
+        Integer changedPoint,
+        Integer point,
+        Date changedAt
+    ) {
+        if (
+            getPoint.getLastChangedAt() == null ||
+            !changedAt.before(getPoint.getLastChangedAt())
+        ) {
+            getPoint.setPoint(point);
+            getPoint.setLastChangeType(changeType);
+            getPoint.setLastChangedPoint(changedPoint);
+            getPoint.setLastChangedAt(changedAt);
+        }
+    }
+
+    private GetPoint newView(Long userId) {
+        GetPoint getPoint = new GetPoint();
+        getPoint.setId(userId);
+        getPoint.setPoint(0);
+        getPoint.setIsSubscribe(false);
+        return getPoint;
+    }
+
+    private PointHistory history(
+        Long userId,
+        String changeType,
+        Integer changedPoint,
+        Integer point,
+        Date changedAt
+    ) {
+        PointHistory pointHistory = new PointHistory();
+        pointHistory.setUserId(userId);
+        pointHistory.setChangeType(changeType);
+        pointHistory.setChangedPoint(changedPoint);
+        pointHistory.setPoint(point);
+        pointHistory.setChangedAt(changedAt);
+        return pointHistory;
+    }
+}
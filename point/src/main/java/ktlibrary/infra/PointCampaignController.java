@@ -0,0 +1,74 @@
+package ktlibrary.infra;
+
+import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import ktlibrary.domain.*;
+import ktlibrary.service.PointCampaignRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+//<<< Clean Arch / Inbound Adaptor
+
+@RestController
+// @RequestMapping(value="/points/campaigns")
+public class PointCampaignController {
+
+    @Autowired
+    PointCampaignRepository pointCampaignRepository;
+
+    @Autowired
+    PointCampaignRunner pointCampaignRunner;
+
+    @RequestMapping(
+        value = "/points/campaigns",
+        method = RequestMethod.POST,
+        produces = "application/json;charset=UTF-8"
+    )
+    public PointCampaign startCampaign(
+        @RequestBody StartPointCampaignCommand startPointCampaignCommand,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws Exception {
+        System.out.println("##### /points/campaigns/startCampaign  called #####");
+        return pointCampaignRunner.start(startPointCampaignCommand);
+    }
+
+    // 진행률 조회: processedCount / targetCount
+    @RequestMapping(
+        value = "/points/campaigns/{id}",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public PointCampaign getCampaign(
+        @PathVariable(value = "id") Long id,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws Exception {
+        Optional<PointCampaign> optionalPointCampaign = pointCampaignRepository.findById(
+            id
+        );
+
+        optionalPointCampaign.orElseThrow(() ->
+            new Exception("No Entity Found")
+        );
+        return optionalPointCampaign.get();
+    }
+
+    @RequestMapping(
+        value = "/points/campaigns/{id}/resume",
+        method = RequestMethod.PUT,
+        produces = "application/json;charset=UTF-8"
+    )
+    public PointCampaign resumeCampaign(
+        @PathVariable(value = "id") Long id,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws Exception {
+        System.out.println("##### /points/campaigns/resumeCampaign  called #####");
+        return pointCampaignRunner.resume(id);
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
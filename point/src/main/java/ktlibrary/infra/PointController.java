@@ -1,11 +1,17 @@
 package ktlibrary.infra;
 
+import java.net.URI;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.transaction.Transactional;
 import ktlibrary.domain.*;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -14,10 +20,63 @@ import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 // @RequestMapping(value="/points")
-@Transactional
+// 반영은 처리자의 트랜잭션에서 하므로, 결과를 기다리는 동안 트랜잭션을 붙잡지 않는다
 public class PointController {
 
     @Autowired
     PointRepository pointRepository;
+
+    @Value("${point.buy.timeout-ms:5000}")
+    private long buyTimeoutMillis;
+
+    @RequestMapping(
+        value = "/points/{id}/buypoint",
+        method = RequestMethod.PUT,
+        produces = "application/json;charset=UTF-8"
+    )
+    public ResponseEntity<Point> buyPoint(
+        @PathVariable(value = "id") Long id,
+        @RequestBody BuyPointCommand buyPointCommand,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws Exception {
+        System.out.println("##### /point/buyPoint  called #####");
+        // 잘못된 금액은 처리자에게 넘기기 전에 거른다
+        Integer amount = buyPointCommand.getPoint();
+        if (amount == null || amount <= 0) {
+            throw new InvalidPointAmountException(amount);
+        }
+
+        Optional<Point> optionalPoint = pointRepository.findById(id);
+
+        optionalPoint.orElseThrow(() -> new Exception("No Entity Found"));
+        Point point = optionalPoint.get();
+
+        // 구매 포인트도 만료일을 가진 묶음으로 적립되며, 해당 구독자를 소유한 처리자에서 반영된다
+        PointCommand command = PointCommand.buyPoint(
+            point.getUserId().getId(),
+            amount
+        );
+        Point.dispatcher().dispatch(command);
+
+        boolean applied;
+        try {
+            applied = command.getCompletion().get(buyTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 아직 반영되지 않았으면 202 로 응답하고, 잔액은 포인트 조회로 확인한다
+            return ResponseEntity.accepted().location(URI.create("/points/" + id)).build();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        if (!applied) {
+            throw new Exception("No Entity Found");
+        }
+
+        // 반영된 잔액으로 응답한다
+        Point bought = new Point();
+        BeanUtils.copyProperties(point, bought);
+        bought.setPoint(command.getBalance());
+        return ResponseEntity.ok(bought);
+    }
 }
 //>>> Clean Arch / Inbound Adaptor
@@ -0,0 +1,34 @@
+package ktlibrary.infra;
+
+import java.util.Date;
+import javax.persistence.*;
+import lombok.Data;
+
+//<<< EDA / CQRS
+// 구독자별 포인트 변동 내역. (userId, id) 인덱스로 최신순 키셋 페이지를 조회한다.
+@Entity
+@Table(
+    name = "PointHistory_table",
+    indexes = {
+        @Index(name = "idx_point_history_user", columnList = "userId, id"),
+    }
+)
+@Data
+public class PointHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    private Long userId;
+
+    private String changeType;
+
+    private Integer changedPoint;
+
+    // 변경 후 잔액. 캠페인 지급도 구독자별 잔액(PointCampaignGranted.Item.point)을 함께 전달한다
+    private Integer point;
+
+    private Date changedAt;
+}
+//>>> EDA / CQRS
@@ -0,0 +1,23 @@
+package ktlibrary.infra;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+@RepositoryRestResource(exported = false)
+public interface PointHistoryRepository
+    extends PagingAndSortingRepository<PointHistory, Long> {
+    @Query(
+        "select h from PointHistory h " +
+        "where h.userId = :userId and h.id < :before " +
+        "order by h.id desc"
+    )
+    List<PointHistory> findPage(
+        @Param("userId") Long userId,
+        @Param("before") Long before,
+        Pageable pageable
+    );
+}
@@ -9,6 +9,7 @@ import ktlibrary.config.kafka.KafkaProcessor;
 import ktlibrary.domain.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.stream.annotation.StreamListener;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
@@ -39,14 +40,32 @@ public class PolicyHandler {
         Point.gainRegisterPoint(event);
     }
 
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='UsersRegistered'"
+    )
+    public void wheneverUsersRegistered_GainRegisterPoint(
+        @Payload UsersRegistered usersRegistered
+    ) {
+        UsersRegistered event = usersRegistered;
+        System.out.println(
+            "\n\n##### listener GainRegisterPoint : " + usersRegistered + "\n\n"
+        );
+
+        Point.gainRegisterPoint(event);
+    }
+
     @StreamListener(
         value = KafkaProcessor.INPUT,
         condition = "headers['type']=='SubscriptionApplied'"
     )
     public void wheneverSubscriptionApplied_DecreasePoint(
-        @Payload SubscriptionApplied subscriptionApplied
+        @Payload SubscriptionApplied subscriptionApplied,
+        @Header(value = "correlationId", required = false) String correlationId
     ) {
         SubscriptionApplied event = subscriptionApplied;
+        // 구독 결과를 기다리는 요청이 있으면 차감/부족 이벤트에 같은 상관 ID 를 싣는다
+        event.setCorrelationId(correlationId);
         System.out.println(
             "\n\n##### listener DecreasePoint : " + subscriptionApplied + "\n\n"
         );
@@ -54,5 +73,35 @@ public class PolicyHandler {
         // Sample Logic //
         Point.decreasePoint(event);
     }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='SubscriptionBundleApplied'"
+    )
+    public void wheneverSubscriptionBundleApplied_DecreasePoint(
+        @Payload SubscriptionBundleApplied subscriptionBundleApplied
+    ) {
+        SubscriptionBundleApplied event = subscriptionBundleApplied;
+        System.out.println(
+            "\n\n##### listener DecreasePoint : " + subscriptionBundleApplied + "\n\n"
+        );
+
+        Point.decreasePoint(event);
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='SubscriptionRenewed'"
+    )
+    public void wheneverSubscriptionRenewed_DecreasePoint(
+        @Payload SubscriptionRenewed subscriptionRenewed
+    ) {
+        SubscriptionRenewed event = subscriptionRenewed;
+        System.out.println(
+            "\n\n##### listener DecreasePoint : " + subscriptionRenewed + "\n\n"
+        );
+
+        Point.decreasePoint(event);
+    }
 }
 //>>> Clean Arch / Inbound Adaptor
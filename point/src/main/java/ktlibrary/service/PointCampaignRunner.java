@@ -0,0 +1,292 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import ktlibrary.domain.PointCampaign;
+import ktlibrary.domain.PointCampaignGranted;
+import ktlibrary.domain.PointCampaignRepository;
+import ktlibrary.domain.PointCampaignTarget;
+import ktlibrary.domain.PointCampaignTargetRepository;
+import ktlibrary.domain.PointCommand;
+import ktlibrary.domain.PointLotRepository;
+import ktlibrary.domain.PointRepository;
+import ktlibrary.domain.StartPointCampaignCommand;
+import ktlibrary.infra.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 캠페인 대상 구독자를 userId 순서로 청크 단위로 읽어 각 구독자를 소유한 처리자에게 지급 명령을 보내고,
+ * 청크가 모두 커밋되면 진행 위치(lastUserId)와 진행률을 저장한 뒤 청크당 한 건의 이벤트를 발행한다.
+ */
+@Service
+public class PointCampaignRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        PointCampaignRunner.class
+    );
+
+    @Value("${point.campaign.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${point.campaign.chunk-timeout-seconds:60}")
+    private long chunkTimeoutSeconds;
+
+    @Value("${point.lot.campaign-valid-days:90}")
+    private int campaignValidDays;
+
+    @Autowired
+    private PointCampaignRepository pointCampaignRepository;
+
+    @Autowired
+    private PointCampaignTargetRepository pointCampaignTargetRepository;
+
+    @Autowired
+    private PointRepository pointRepository;
+
+    @Autowired
+    private PointLotRepository pointLotRepository;
+
+    @Autowired
+    private PointCommandDispatcher pointCommandDispatcher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // 캠페인은 하나씩 순서대로 진행하고, 병렬성은 처리자(shard)에서 얻는다
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r ->
+        new Thread(r, "point-campaign")
+    );
+
+    public PointCampaign start(StartPointCampaignCommand command) {
+        if (command.getPoint() == null || command.getPoint() <= 0) {
+            throw new BadRequestException("지급 포인트는 0보다 커야 합니다.");
+        }
+
+        PointCampaign campaign = new PointCampaign();
+        campaign.setName(command.getName());
+        campaign.setPoint(command.getPoint());
+        campaign.setValidDays(
+            command.getValidDays() != null
+                ? command.getValidDays()
+                : campaignValidDays
+        );
+        campaign.setTargeted(command.getUserIds() != null);
+        campaign.setMinPoint(command.getMinPoint());
+        campaign.setMaxPoint(command.getMaxPoint());
+        campaign.setLastUserId(Long.MIN_VALUE);
+        campaign.setProcessedCount(0L);
+        campaign.setGrantedCount(0L);
+        campaign.setStatus(PointCampaign.RUNNING);
+        campaign.setCreatedAt(new Date());
+
+        if (campaign.getTargeted()) {
+            Set<Long> userIds = new TreeSet<>(command.getUserIds());
+            campaign.setTargetCount((long) userIds.size());
+            pointCampaignRepository.save(campaign);
+            saveTargets(campaign.getId(), new ArrayList<>(userIds));
+        } else {
+            campaign.setTargetCount(
+                pointRepository.countCampaignUsers(
+                    campaign.getMinPoint(),
+                    campaign.getMaxPoint()
+                )
+            );
+            pointCampaignRepository.save(campaign);
+        }
+
+        submit(campaign.getId());
+        return campaign;
+    }
+
+    public PointCampaign resume(Long campaignId) {
+        PointCampaign campaign = pointCampaignRepository
+            .findById(campaignId)
+            .orElseThrow(() -> new IllegalArgumentException("No Entity Found"));
+        if (PointCampaign.FAILED.equals(campaign.getStatus())) {
+            campaign.setStatus(PointCampaign.RUNNING);
+            campaign.setFailureMessage(null);
+            pointCampaignRepository.save(campaign);
+            submit(campaign.getId());
+        }
+        return campaign;
+    }
+
+    // 재시작 전에 진행 중이던 캠페인은 마지막으로 저장된 위치부터 이어서 진행
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningCampaigns() {
+        pointCampaignRepository
+            .findByStatus(PointCampaign.RUNNING)
+            .forEach(campaign -> submit(campaign.getId()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void submit(Long campaignId) {
+        executor.submit(() -> run(campaignId));
+    }
+
+    private void saveTargets(Long campaignId, List<Long> userIds) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+            transactionManager
+        );
+        for (int from = 0; from < userIds.size(); from += chunkSize) {
+            List<PointCampaignTarget> targets = new ArrayList<>(chunkSize);
+            for (Long userId : userIds.subList(
+                from,
+                Math.min(from + chunkSize, userIds.size())
+            )) {
+                targets.add(new PointCampaignTarget(null, campaignId, userId));
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                pointCampaignTargetRepository.saveAll(targets)
+            );
+        }
+    }
+
+    private void run(Long campaignId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+            transactionManager
+        );
+        PointCampaign campaign = pointCampaignRepository
+            .findById(campaignId)
+            .orElse(null);
+        if (campaign == null) {
+            return;
+        }
+        logger.info("포인트 캠페인 {} 진행 시작 ({})", campaignId, campaign.getName());
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Long> userIds = nextChunk(campaign);
+                if (userIds.isEmpty()) {
+                    campaign.setStatus(PointCampaign.COMPLETED);
+                    campaign.setCompletedAt(new Date());
+                    pointCampaignRepository.save(campaign);
+                    logger.info(
+                        "포인트 캠페인 {} 완료: {}명 지급",
+                        campaignId,
+                        campaign.getGrantedCount()
+                    );
+                    return;
+                }
+
+                List<PointCampaignGranted.Item> granted = grant(campaign, userIds);
+
+                campaign.setLastUserId(userIds.get(userIds.size() - 1));
+                campaign.setProcessedCount(
+                    campaign.getProcessedCount() + userIds.size()
+                );
+                campaign.setGrantedCount(
+                    campaign.getGrantedCount() + granted.size()
+                );
+                PointCampaign progress = campaign;
+                transactionTemplate.executeWithoutResult(status -> {
+                    pointCampaignRepository.save(progress);
+                    if (!granted.isEmpty()) {
+                        PointCampaignGranted pointCampaignGranted = new PointCampaignGranted(
+                            progress
+                        );
+                        List<Long> grantedUserIds = new ArrayList<>(granted.size());
+                        granted.forEach(item -> grantedUserIds.add(item.getUserId()));
+                        pointCampaignGranted.setUserIds(grantedUserIds);
+                        pointCampaignGranted.setBalances(granted);
+                        pointCampaignGranted.publishAfterCommit();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            logger.error(
+                "포인트 캠페인 {} 실패: {}",
+                campaignId,
+                e.getMessage(),
+                e
+            );
+            campaign.setStatus(PointCampaign.FAILED);
+            campaign.setFailureMessage(e.getMessage());
+            pointCampaignRepository.save(campaign);
+        }
+    }
+
+    private List<Long> nextChunk(PointCampaign campaign) {
+        PageRequest page = PageRequest.of(0, chunkSize);
+        if (campaign.getTargeted()) {
+            return pointCampaignTargetRepository.findUserIds(
+                campaign.getId(),
+                campaign.getLastUserId(),
+                page
+            );
+        }
+        return pointRepository.findCampaignUserIds(
+            campaign.getLastUserId(),
+            campaign.getMinPoint(),
+            campaign.getMaxPoint(),
+            page
+        );
+    }
+
+    private List<PointCampaignGranted.Item> grant(
+        PointCampaign campaign,
+        List<Long> userIds
+    ) throws Exception {
+        // 중단 직전 청크가 일부 반영되었을 수 있으므로 이미 지급된 구독자는 제외
+        Set<Long> alreadyGranted = new HashSet<>(
+            pointLotRepository.findGrantedUserIds(campaign.getId(), userIds)
+        );
+
+        List<PointCommand> commands = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            if (!alreadyGranted.contains(userId)) {
+                PointCommand command = PointCommand.grantCampaignPoint(
+                    userId,
+                    campaign
+                );
+                pointCommandDispatcher.dispatch(command);
+                commands.add(command);
+            }
+        }
+
+        CompletableFuture
+            .allOf(
+                commands
+                    .stream()
+                    .map(PointCommand::getCompletion)
+                    .toArray(CompletableFuture[]::new)
+            )
+            .get(chunkTimeoutSeconds, TimeUnit.SECONDS);
+
+        List<PointCampaignGranted.Item> granted = new ArrayList<>(commands.size());
+        for (PointCommand command : commands) {
+            if (command.getCompletion().get()) {
+                granted.add(
+                    new PointCampaignGranted.Item(
+                        command.getUserId(),
+                        command.getBalance(),
+                        command.getChangedAt()
+                    )
+                );
+            }
+        }
+        return granted;
+    }
+}
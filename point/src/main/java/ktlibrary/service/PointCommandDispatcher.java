@@ -0,0 +1,378 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import ktlibrary.domain.Point;
+import ktlibrary.domain.PointCommand;
+import ktlibrary.domain.PointLot;
+import ktlibrary.domain.PointLotRepository;
+import ktlibrary.domain.PointRepository;
+import ktlibrary.domain.UserId;
+import ktlibrary.infra.AbstractEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 구독자(userId)별 포인트 명령을 단일 처리자(shard)에게 라우팅한다.
+ * 각 shard 는 자신이 소유한 구독자의 잔액을 메모리에 두고 명령을 도착 순서대로 적용하며,
+ * 모아진 변경분을 하나의 트랜잭션으로 일괄 저장한다. 일괄 저장이 실패하면 명령마다 따로 다시 적용하고,
+ * 다른 인스턴스가 먼저 바꾼 잔액(버전 충돌)은 DB 에서 다시 읽어 재시도한다.
+ * 대기열은 크기가 정해져 있어 처리가 밀리면 명령을 넣는 쪽(이벤트 리스너 등)이 기다린다.
+ */
+@Service
+public class PointCommandDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        PointCommandDispatcher.class
+    );
+
+    @Value("${point.shard.count:8}")
+    private int shardCount;
+
+    @Value("${point.shard.batch-size:200}")
+    private int batchSize;
+
+    @Value("${point.shard.cache-size:100000}")
+    private int cacheSize;
+
+    @Value("${point.shard.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${point.shard.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${point.lot.register-valid-days:365}")
+    private int registerValidDays;
+
+    @Value("${point.lot.purchase-valid-days:1825}")
+    private int purchaseValidDays;
+
+    @Autowired
+    private PointRepository pointRepository;
+
+    @Autowired
+    private PointLotRepository pointLotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private PointShard[] shards;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        shards = new PointShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new PointShard(i);
+            shards[i].start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // 남아있는 명령을 모두 저장한 뒤 종료
+        for (PointShard shard : shards) {
+            shard.running = false;
+        }
+        for (PointShard shard : shards) {
+            shard.join();
+        }
+    }
+
+    // 대기열이 가득 차 있으면 자리가 날 때까지 기다린다
+    public void dispatch(PointCommand command) {
+        try {
+            shardOf(command.getUserId()).queue.put(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("포인트 명령 전달 중 중단되었습니다.", e);
+        }
+    }
+
+    // 명령을 전달하고 모두 저장(커밋)될 때까지 기다린다. 이벤트 리스너는 이 메서드를 써서
+    // 잔액 변경이 저장되기 전에 메시지 처리가 끝나(오프셋이 커밋되어) 명령을 잃지 않도록 한다.
+    // 실패한 명령이 있으면 예외를 던져 바인더가 메시지를 다시 처리하게 한다
+    public void dispatchAndWait(List<PointCommand> commands) {
+        commands.forEach(this::dispatch);
+        for (PointCommand command : commands) {
+            try {
+                command.getCompletion().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("포인트 명령 대기 중 중단되었습니다.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(
+                    "포인트 명령 처리 실패 (" + command.getType() + ", userId=" + command.getUserId() + ")",
+                    e.getCause()
+                );
+            }
+        }
+    }
+
+    private PointShard shardOf(Long userId) {
+        return shards[Math.floorMod(userId.hashCode(), shards.length)];
+    }
+
+    class PointShard extends Thread {
+
+        private final BlockingQueue<PointCommand> queue = new LinkedBlockingQueue<>(
+            queueCapacity
+        );
+
+        // shard 스레드에서만 접근하므로 동기화가 필요 없다
+        private final Map<Long, Point> balances = new LinkedHashMap<Long, Point>(
+            16,
+            0.75f,
+            true
+        ) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Point> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        private volatile boolean running = true;
+
+        PointShard(int index) {
+            super("point-shard-" + index);
+        }
+
+        @Override
+        public void run() {
+            List<PointCommand> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    PointCommand first = queue.poll(500, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    process(batch);
+                } catch (InterruptedException e) {
+                    running = false;
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        void process(List<PointCommand> batch) {
+            try {
+                complete(batch, save(batch));
+                return;
+            } catch (RuntimeException e) {
+                logger.warn(
+                    "포인트 일괄 저장 실패, 명령별로 다시 적용 ({}건): {}",
+                    batch.size(),
+                    e.getMessage()
+                );
+            }
+            // 실패한 트랜잭션에서 바뀐 잔액은 버리고, 명령마다 따로 적용해 한 명령의 실패가 묶음 전체를 잃지 않게 한다
+            batch.forEach(command -> balances.remove(command.getUserId()));
+            for (PointCommand command : batch) {
+                processOne(command);
+            }
+        }
+
+        private void processOne(PointCommand command) {
+            List<PointCommand> single = Collections.singletonList(command);
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    complete(single, save(single));
+                    return;
+                } catch (OptimisticLockingFailureException e) {
+                    // 다른 인스턴스가 먼저 바꾼 잔액이면 DB 에서 다시 읽어 적용한다
+                    balances.remove(command.getUserId());
+                    if (attempt >= maxAttempts) {
+                        fail(command, e);
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    balances.remove(command.getUserId());
+                    fail(command, e);
+                    return;
+                }
+            }
+        }
+
+        // 이벤트는 커밋된 경우에만 발행되므로 롤백된 명령의 결과는 밖으로 나가지 않는다
+        private List<Boolean> save(List<PointCommand> commands) {
+            Map<Long, Point> dirty = new LinkedHashMap<>();
+            List<Boolean> applied = new ArrayList<>(commands.size());
+            transactionTemplate.executeWithoutResult(status -> {
+                for (PointCommand command : commands) {
+                    Point point = apply(command);
+                    if (point != null) {
+                        dirty.put(command.getUserId(), point);
+                        command.setBalance(point.getPoint());
+                        command.setChangedAt(System.currentTimeMillis());
+                    }
+                    applied.add(point != null);
+                }
+                // 병합된 엔티티로 캐시를 바꿔 다음 저장에서 새 버전을 쓰도록 한다
+                pointRepository
+                    .saveAll(dirty.values())
+                    .forEach(point -> balances.put(point.getUserId().getId(), point));
+            });
+            return applied;
+        }
+
+        private void complete(List<PointCommand> commands, List<Boolean> applied) {
+            for (int i = 0; i < commands.size(); i++) {
+                commands.get(i).getCompletion().complete(applied.get(i));
+            }
+        }
+
+        private void fail(PointCommand command, RuntimeException e) {
+            logger.error(
+                "포인트 명령 처리 실패 ({}, userId={}): {}",
+                command.getType(),
+                command.getUserId(),
+                e.getMessage(),
+                e
+            );
+            command.getCompletion().completeExceptionally(e);
+        }
+
+        private Point apply(PointCommand command) {
+            Long userId = command.getUserId();
+            Point point = load(userId);
+
+            switch (command.getType()) {
+                case GAIN_REGISTER_POINT:
+                    // 가입 포인트는 구독자당 한 번만 적립
+                    if (point != null) {
+                        return null;
+                    }
+                    point = new Point();
+                    point.setPoint(0);
+                    point.setUserId(new UserId(userId));
+                    pointRepository.save(point);
+                    balances.put(userId, point);
+                    point
+                        .gain(
+                            grant(
+                                userId,
+                                command.getAmount(),
+                                registerValidDays,
+                                PointLot.REGISTER
+                            )
+                        )
+                        .publishAfterCommit();
+                    return point;
+                case BUY_POINT:
+                    if (point == null) {
+                        return null;
+                    }
+                    point
+                        .buy(
+                            grant(
+                                userId,
+                                command.getAmount(),
+                                purchaseValidDays,
+                                PointLot.PURCHASE
+                            )
+                        )
+                        .publishAfterCommit();
+                    return point;
+                case GRANT_CAMPAIGN_POINT:
+                    if (point == null) {
+                        return null;
+                    }
+                    // 캠페인 지급은 구독자별 이벤트 없이 캠페인 청크 단위로 이벤트를 발행한다
+                    PointLot lot = PointLot.grant(
+                        userId,
+                        command.getAmount(),
+                        command.getValidDays(),
+                        PointLot.CAMPAIGN
+                    );
+                    lot.setCampaignId(command.getCampaignId());
+                    pointLotRepository.save(lot);
+                    point.credit(lot);
+                    return point;
+                case DECREASE_POINT:
+                    if (point == null) {
+                        return null;
+                    }
+                    // 만료 처리가 아직 돌지 않은 묶음이 차감에 쓰이지 않도록 먼저 만료시킨다
+                    expire(point, userId);
+                    AbstractEvent decreased = point.decrease(
+                        command.getAmount(),
+                        command.getSubscriptionId(),
+                        command.getSubscriptionIds(),
+                        pointLotRepository.findByUserIdAndRemainingGreaterThanOrderByExpiresAtAsc(
+                            new UserId(userId),
+                            0
+                        )
+                    );
+                    decreased.setCorrelationId(command.getCorrelationId());
+                    decreased.publishAfterCommit();
+                    return point;
+                case EXPIRE_POINT:
+                    if (point == null) {
+                        return null;
+                    }
+                    return expire(point, userId) ? point : null;
+                default:
+                    return null;
+            }
+        }
+
+        private PointLot grant(
+            Long userId,
+            Integer amount,
+            int validDays,
+            String source
+        ) {
+            PointLot lot = PointLot.grant(userId, amount, validDays, source);
+            pointLotRepository.save(lot);
+            return lot;
+        }
+
+        private boolean expire(Point point, Long userId) {
+            AbstractEvent pointExpired = point.expire(
+                pointLotRepository.findByUserIdAndRemainingGreaterThanAndExpiresAtLessThanEqual(
+                    new UserId(userId),
+                    0,
+                    new Date()
+                )
+            );
+            if (pointExpired == null) {
+                return false;
+            }
+            pointExpired.publishAfterCommit();
+            return true;
+        }
+
+        private Point load(Long userId) {
+            Point point = balances.get(userId);
+            if (point == null) {
+                point =
+                    pointRepository.findByUserId(new UserId(userId)).orElse(null);
+                if (point != null) {
+                    balances.put(userId, point);
+                }
+            }
+            return point;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ktlibrary.service;
+
+import java.util.Date;
+import java.util.List;
+import ktlibrary.domain.PointCommand;
+import ktlibrary.domain.PointLot;
+import ktlibrary.domain.PointLotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 만료 버킷(일 단위) 인덱스를 따라 이번 버킷에 만료되는 포인트 묶음의 구독자만 찾아
+ * 해당 구독자를 소유한 처리자에게 만료 명령을 전달한다. 전체 구독자를 훑지 않는다.
+ */
+@Component
+public class PointExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        PointExpiryScheduler.class
+    );
+
+    @Value("${point.lot.expiry-page-size:1000}")
+    private int pageSize;
+
+    @Value("${point.lot.catch-up-buckets:7}")
+    private int catchUpBuckets;
+
+    @Autowired
+    private PointLotRepository pointLotRepository;
+
+    @Autowired
+    private PointCommandDispatcher pointCommandDispatcher;
+
+    // 지난 버킷은 한 번만 처리하고, 현재 버킷은 실행될 때마다 다시 확인한다
+    private Long lastCompletedBucket;
+
+    @Scheduled(cron = "${point.lot.expiry-cron:0 0 * * * *}")
+    public void expirePointLots() {
+        Date now = new Date();
+        long currentBucket = PointLot.bucketOf(now);
+        if (lastCompletedBucket == null) {
+            lastCompletedBucket = currentBucket - catchUpBuckets - 1;
+        }
+
+        for (long bucket = lastCompletedBucket + 1; bucket <= currentBucket; bucket++) {
+            int dispatched = expireBucket(bucket, now);
+            logger.info("포인트 만료 버킷 {} 처리: 구독자 {}명", bucket, dispatched);
+        }
+        lastCompletedBucket = currentBucket - 1;
+    }
+
+    private int expireBucket(long bucket, Date now) {
+        int dispatched = 0;
+        long afterUserId = Long.MIN_VALUE;
+        while (true) {
+            List<Long> userIds = pointLotRepository.findExpiringUserIds(
+                bucket,
+                now,
+                afterUserId,
+                PageRequest.of(0, pageSize)
+            );
+            for (Long userId : userIds) {
+                pointCommandDispatcher.dispatch(PointCommand.expirePoint(userId));
+            }
+            dispatched += userIds.size();
+            if (userIds.size() < pageSize) {
+                return dispatched;
+            }
+            afterUserId = userIds.get(userIds.size() - 1);
+        }
+    }
+}
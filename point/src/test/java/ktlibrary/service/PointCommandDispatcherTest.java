@@ -0,0 +1,208 @@
+package ktlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import ktlibrary.PointApplication;
+import ktlibrary.config.kafka.KafkaProcessor;
+import ktlibrary.domain.Point;
+import ktlibrary.domain.PointBought;
+import ktlibrary.domain.PointCommand;
+import ktlibrary.domain.PointLot;
+import ktlibrary.domain.PointLotRepository;
+import ktlibrary.domain.PointRepository;
+import ktlibrary.domain.UserId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class PointCommandDispatcherTest {
+
+    private final PointRepository pointRepository = mock(PointRepository.class);
+    private final PointLotRepository pointLotRepository = mock(PointLotRepository.class);
+    private final List<Object> published = new ArrayList<>();
+    private final List<Point> saved = new ArrayList<>();
+
+    private PointCommandDispatcher dispatcher;
+    private PointCommandDispatcher.PointShard shard;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+            new NoOpTransactionManager()
+        );
+        PointCommandDispatcher dispatcher = new PointCommandDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "pointRepository", pointRepository);
+        ReflectionTestUtils.setField(dispatcher, "pointLotRepository", pointLotRepository);
+        ReflectionTestUtils.setField(dispatcher, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 200);
+        ReflectionTestUtils.setField(dispatcher, "cacheSize", 1000);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "purchaseValidDays", 1825);
+        shard = dispatcher.new PointShard(0);
+        ReflectionTestUtils.setField(
+            dispatcher,
+            "shards",
+            new PointCommandDispatcher.PointShard[] { shard }
+        );
+        this.dispatcher = dispatcher;
+
+        // 조회할 때마다 DB 에서 새로 읽은 것처럼 새 엔티티를 돌려준다
+        when(pointRepository.findByUserId(any(UserId.class)))
+            .thenAnswer(invocation -> {
+                UserId userId = invocation.getArgument(0);
+                if (userId.getId() == 2L) {
+                    throw new IllegalStateException("broken user");
+                }
+                return Optional.of(point(userId.getId(), 1000));
+            });
+        when(pointLotRepository.save(any(PointLot.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        when(pointRepository.saveAll(anyIterable()))
+            .thenAnswer(invocation -> {
+                Iterable<Point> points = invocation.getArgument(0);
+                points.forEach(saved::add);
+                return points;
+            });
+
+        MessageChannel channel = mock(MessageChannel.class);
+        when(channel.send(any(Message.class)))
+            .thenAnswer(invocation -> {
+                published.add(((Message<?>) invocation.getArgument(0)).getPayload());
+                return true;
+            });
+        KafkaProcessor processor = mock(KafkaProcessor.class);
+        when(processor.outboundTopic()).thenReturn(channel);
+        ApplicationContext applicationContext = mock(ApplicationContext.class);
+        when(applicationContext.getBean(KafkaProcessor.class)).thenReturn(processor);
+        PointApplication.applicationContext = applicationContext;
+    }
+
+    @AfterEach
+    void tearDown() {
+        PointApplication.applicationContext = null;
+    }
+
+    @Test
+    void failingCommandDoesNotDropTheRestOfTheBatch() {
+        PointCommand first = PointCommand.buyPoint(1L, 100);
+        PointCommand broken = PointCommand.buyPoint(2L, 100);
+        PointCommand last = PointCommand.buyPoint(3L, 50);
+
+        shard.process(Arrays.asList(first, broken, last));
+
+        assertThat(first.getCompletion()).isCompletedWithValue(true);
+        assertThat(last.getCompletion()).isCompletedWithValue(true);
+        assertThat(broken.getCompletion()).isCompletedExceptionally();
+
+        // 롤백된 일괄 저장의 이벤트는 발행되지 않고, 다시 적용한 명령의 이벤트만 한 번씩 발행된다
+        assertThat(published).hasSize(2).allMatch(PointBought.class::isInstance);
+        assertThat(published)
+            .extracting(event -> ((PointBought) event).getPoint())
+            .containsExactly(1100, 1050);
+        assertThat(saved)
+            .extracting(Point::getPoint)
+            .containsExactly(1100, 1050);
+    }
+
+    @Test
+    void versionConflictReloadsBalanceAndRetries() {
+        AtomicInteger calls = new AtomicInteger();
+        when(pointRepository.saveAll(anyIterable()))
+            .thenAnswer(invocation -> {
+                // 일괄 저장과 첫 단건 저장은 다른 인스턴스와 충돌한 것으로 본다
+                if (calls.incrementAndGet() <= 2) {
+                    throw new ObjectOptimisticLockingFailureException(Point.class, 1L);
+                }
+                Iterable<Point> points = invocation.getArgument(0);
+                points.forEach(saved::add);
+                return points;
+            });
+        PointCommand command = PointCommand.buyPoint(1L, 100);
+
+        shard.process(Arrays.asList(command));
+
+        assertThat(command.getCompletion()).isCompletedWithValue(true);
+        assertThat(calls).hasValue(3);
+        assertThat(saved).extracting(Point::getPoint).containsExactly(1100);
+        assertThat(published).hasSize(1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        when(pointRepository.saveAll(anyIterable()))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Point.class, 1L));
+        PointCommand command = PointCommand.buyPoint(1L, 100);
+
+        shard.process(Arrays.asList(command));
+
+        assertThat(command.getCompletion()).isCompletedExceptionally();
+        assertThat(published).isEmpty();
+    }
+
+    // 리스너는 명령이 저장될 때까지 기다리고, 실패하면 예외로 메시지를 다시 처리하게 한다
+    @Test
+    void dispatchAndWaitReturnsOnlyAfterCommandsAreSaved() throws Exception {
+        shard.start();
+        try {
+            PointCommand ok = PointCommand.buyPoint(1L, 100);
+            dispatcher.dispatchAndWait(Arrays.asList(ok));
+            assertThat(ok.getCompletion()).isCompletedWithValue(true);
+            assertThat(saved).extracting(Point::getPoint).containsExactly(1100);
+
+            PointCommand broken = PointCommand.buyPoint(2L, 100);
+            assertThatThrownBy(() -> dispatcher.dispatchAndWait(Arrays.asList(broken)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("broken user");
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    private static Point point(Long userId, int balance) {
+        Point point = new Point();
+        point.setId(userId);
+        point.setVersion(0L);
+        point.setPoint(balance);
+        point.setUserId(new UserId(userId));
+        return point;
+    }
+
+    // 트랜잭션 동기화(커밋 후 발행)만 동작시키는 트랜잭션 관리자
+    private static class NoOpTransactionManager
+        extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {}
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {}
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {}
+    }
+}
@@ -0,0 +1,58 @@
+package ktlibrary.domain;
+
+import javax.persistence.*;
+import lombok.Data;
+
+// 도서별 평점 집계. 리뷰 등록/수정/삭제와 같은 트랜잭션에서 증감하므로 리뷰를 다시 세지 않는다
+@Entity
+@Table(name = "BookRating_table")
+@Data
+public class BookRating {
+
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 5;
+
+    @Id
+    private Long bookId;
+
+    // 평점이 있는 리뷰 수와 평점 합계
+    private Long reviewCount;
+
+    private Long ratingSum;
+
+    // 별점별 리뷰 수 (히스토그램)
+    private Long star1;
+
+    private Long star2;
+
+    private Long star3;
+
+    private Long star4;
+
+    private Long star5;
+
+    public Double getAverage() {
+        if (reviewCount == null || reviewCount == 0) {
+            return null;
+        }
+        return Math.round(ratingSum * 10.0 / reviewCount) / 10.0;
+    }
+
+    // 평점이 없는 도서도 캐시에 담아 다시 조회하지 않는다
+    public static BookRating empty(Long bookId) {
+        BookRating rating = new BookRating();
+        rating.setBookId(bookId);
+        rating.setReviewCount(0L);
+        rating.setRatingSum(0L);
+        rating.setStar1(0L);
+        rating.setStar2(0L);
+        rating.setStar3(0L);
+        rating.setStar4(0L);
+        rating.setStar5(0L);
+        return rating;
+    }
+
+    public static boolean isValid(Integer rating) {
+        return rating == null || (rating >= MIN_RATING && rating <= MAX_RATING);
+    }
+}
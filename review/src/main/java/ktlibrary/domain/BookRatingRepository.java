@@ -0,0 +1,11 @@
+package ktlibrary.domain;
+
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+// 집계는 리뷰 변경으로만 바뀌며 /reviews/ratings 에서 캐시를 거쳐 조회한다
+//<<< PoEAA / Repository
+@RepositoryRestResource(exported = false)
+public interface BookRatingRepository
+    extends PagingAndSortingRepository<BookRating, Long> {}
+//>>> PoEAA / Repository
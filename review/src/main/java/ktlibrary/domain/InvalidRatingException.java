@@ -0,0 +1,13 @@
+package ktlibrary.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 평점이 1~5 범위를 벗어난 경우 (400 Bad Request)
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRatingException extends RuntimeException {
+
+    public InvalidRatingException(Integer rating) {
+        super("평점은 1에서 5 사이여야 합니다: " + rating);
+    }
+}
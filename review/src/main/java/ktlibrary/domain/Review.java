@@ -6,15 +6,20 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import javax.persistence.*;
 import ktlibrary.ReviewApplication;
 import ktlibrary.domain.ReviewDeleted;
 import ktlibrary.domain.ReviewEdited;
 import ktlibrary.domain.ReviewRegistered;
+import ktlibrary.service.BookRatings;
 import lombok.Data;
 
 @Entity
-@Table(name = "Review_table")
+@Table(
+    name = "Review_table",
+    indexes = { @Index(name = "idx_review_book", columnList = "bookId_id, id") }
+)
 @Data
 //<<< DDD / Aggregate Root
 public class Review {
@@ -31,29 +36,81 @@ public class Review {
 
     private String content;
 
+    // 1~5 점. 평점 없이 글만 남긴 기존 리뷰는 null 이며 집계에서 빠진다
+    private Integer rating;
+
+    // 수정/삭제 시 집계에서 뺄 값. 읽어 올 때의 도서와 평점을 기억한다
+    @Transient
+    @JsonIgnore
+    private Long loadedBookId;
+
+    @Transient
+    @JsonIgnore
+    private Integer loadedRating;
+
+    @PostLoad
+    public void onPostLoad() {
+        remember();
+    }
+
+    @PrePersist
+    public void onPrePersist() {
+        validateRating();
+    }
+
     @PostPersist
     public void onPostPersist() {
+        ratings().add(bookId(), rating);
+        remember();
+
         ReviewRegistered reviewRegistered = new ReviewRegistered(this);
         reviewRegistered.publishAfterCommit();
     }
 
     @PreUpdate
     public void onPreUpdate() {
+        validateRating();
+        ratings().change(loadedBookId, loadedRating, bookId(), rating);
+        remember();
+
         ReviewEdited reviewEdited = new ReviewEdited(this);
         reviewEdited.publishAfterCommit();
     }
 
     @PreRemove
     public void onPreRemove() {
+        ratings().remove(loadedBookId, loadedRating);
+
         ReviewDeleted reviewDeleted = new ReviewDeleted(this);
         reviewDeleted.publishAfterCommit();
     }
 
+    // 저장소 API 의 생성/수정 요청은 저장 전에 검사해 400 으로 응답한다 (ReviewRepositoryEventHandler).
+    // 수정은 커밋 시점의 flush 에서 @PreUpdate 가 불려 예외가 트랜잭션 예외로 감싸지므로 여기서는 마지막 방어선이다
+    public void validateRating() {
+        if (!BookRating.isValid(rating)) {
+            throw new InvalidRatingException(rating);
+        }
+    }
+
+    private void remember() {
+        loadedBookId = bookId();
+        loadedRating = rating;
+    }
+
+    private Long bookId() {
+        return bookId != null ? bookId.getId() : null;
+    }
+
     public static ReviewRepository repository() {
         ReviewRepository reviewRepository = ReviewApplication.applicationContext.getBean(
             ReviewRepository.class
         );
         return reviewRepository;
     }
+
+    public static BookRatings ratings() {
+        return ReviewApplication.applicationContext.getBean(BookRatings.class);
+    }
 }
 //>>> DDD / Aggregate Root
@@ -15,6 +15,7 @@ public class ReviewDeleted extends AbstractEvent {
     private BookId bookId;
     private UserId userId;
     private String content;
+    private Integer rating;
 
     public ReviewDeleted(Review aggregate) {
         super(aggregate);
@@ -15,6 +15,7 @@ public class ReviewEdited extends AbstractEvent {
     private BookId bookId;
     private UserId userId;
     private String content;
+    private Integer rating;
 
     public ReviewEdited(Review aggregate) {
         super(aggregate);
@@ -15,6 +15,7 @@ public class ReviewRegistered extends AbstractEvent {
     private BookId bookId;
     private UserId userId;
     private String content;
+    private Integer rating;
 
     public ReviewRegistered(Review aggregate) {
         super(aggregate);
@@ -1,10 +1,32 @@
 package ktlibrary.domain;
 
+import java.util.List;
 import ktlibrary.domain.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 
 //<<< PoEAA / Repository
 @RepositoryRestResource(collectionResourceRel = "reviews", path = "reviews")
 public interface ReviewRepository
-    extends PagingAndSortingRepository<Review, Long> {}
+    extends PagingAndSortingRepository<Review, Long> {
+    // 커서 목록 조회. 건수(count) 조회 없이 마지막 행의 키 다음부터 읽는다
+    @RestResource(exported = false)
+    @Query("select r from Review r where r.id < :beforeId order by r.id desc")
+    List<Review> findLatest(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query(
+        "select r from Review r " +
+        "where r.bookId.id = :bookId and r.id < :beforeId " +
+        "order by r.id desc"
+    )
+    List<Review> findLatestByBookId(
+        @Param("bookId") Long bookId,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+}
@@ -0,0 +1,13 @@
+package ktlibrary.infra;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 잘못된 요청 파라미터 (400 Bad Request). IllegalArgumentException 을 잡는 기존 코드에서도 그대로 잡힌다
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends IllegalArgumentException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,70 @@
+package ktlibrary.infra;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 목록 조회의 다음 페이지 위치(정렬 기준과 마지막 행의 키 값)를 감싼 불투명 토큰.
+ * 클라이언트는 응답의 nextCursor 를 그대로 다시 넘기기만 한다.
+ */
+public final class CursorToken {
+
+    private static final String VERSION = "v1";
+    private static final String DELIMITER = "|";
+
+    private CursorToken() {}
+
+    public static String encode(String sort, Object... keys) {
+        StringBuilder value = new StringBuilder(VERSION)
+            .append(DELIMITER)
+            .append(sort);
+        for (Object key : keys) {
+            value.append(DELIMITER).append(key);
+        }
+        return Base64
+            .getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 정렬 기준이 다르거나 형식이 맞지 않는 토큰은 거부한다
+    public static String[] decode(String token, String sort, int keyCount) {
+        try {
+            String[] parts = new String(
+                Base64.getUrlDecoder().decode(token),
+                StandardCharsets.UTF_8
+            )
+                .split("\\|", -1);
+            if (
+                parts.length == keyCount + 2 &&
+                VERSION.equals(parts[0]) &&
+                sort.equals(parts[1])
+            ) {
+                String[] keys = new String[keyCount];
+                System.arraycopy(parts, 2, keys, 0, keyCount);
+                return keys;
+            }
+        } catch (IllegalArgumentException e) {
+            // 아래에서 같은 예외로 응답
+        }
+        throw invalid(token);
+    }
+
+    // 키가 모두 숫자인 커서. 숫자가 아닌 키도 잘못된 커서로 거부한다
+    public static long[] decodeLongs(String token, String sort, int keyCount) {
+        String[] keys = decode(token, sort, keyCount);
+        long[] values = new long[keyCount];
+        try {
+            for (int i = 0; i < keyCount; i++) {
+                values[i] = Long.parseLong(keys[i]);
+            }
+        } catch (NumberFormatException e) {
+            throw invalid(token);
+        }
+        return values;
+    }
+
+    private static BadRequestException invalid(String token) {
+        return new BadRequestException("잘못된 커서입니다: " + token);
+    }
+}
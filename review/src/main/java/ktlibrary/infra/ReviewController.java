@@ -1,11 +1,18 @@
 package ktlibrary.infra;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.transaction.Transactional;
 import ktlibrary.domain.*;
+import ktlibrary.service.BookRatingCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -17,7 +24,75 @@ import org.springframework.web.bind.annotation.RestController;
 @Transactional
 public class ReviewController {
 
+    private static final int MAX_RATING_BOOKS = 500;
+
     @Autowired
     ReviewRepository reviewRepository;
+
+    @Autowired
+    BookRatingCache bookRatingCache;
+
+    // 무한 스크롤용 커서 목록 (최신순). bookId 를 주면 해당 도서의 리뷰만
+    @RequestMapping(
+        value = "/reviews/scroll",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> scroll(
+        @RequestParam(value = "bookId", required = false) Long bookId,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        Long beforeId = cursor != null
+            ? CursorToken.decodeLongs(cursor, "id", 1)[0]
+            : Long.MAX_VALUE;
+        List<Review> reviews = bookId != null
+            ? reviewRepository.findLatestByBookId(
+                bookId,
+                beforeId,
+                PageRequest.of(0, pageSize)
+            )
+            : reviewRepository.findLatest(beforeId, PageRequest.of(0, pageSize));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("content", reviews);
+        result.put(
+            "nextCursor",
+            reviews.size() == pageSize
+                ? CursorToken.encode("id", reviews.get(reviews.size() - 1).getId())
+                : null
+        );
+        return result;
+    }
+
+    // 도서 한 권의 평점 집계 (평균, 리뷰 수, 별점별 수)
+    @RequestMapping(
+        value = "/reviews/ratings/{bookId}",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public BookRating rating(@PathVariable("bookId") Long bookId) {
+        return bookRatingCache.get(bookId);
+    }
+
+    // 도서 목록 한 페이지의 평점 집계를 한 번에 (?bookIds=1,2,3). 캐시에 없는 도서만 한 번에 읽는다
+    @RequestMapping(
+        value = "/reviews/ratings",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Collection<BookRating> ratings(
+        @RequestParam("bookIds") List<Long> bookIds
+    ) {
+        if (bookIds.size() > MAX_RATING_BOOKS) {
+            throw new BadRequestException(
+                "한 번에 조회할 수 있는 도서는 " + MAX_RATING_BOOKS + "권까지입니다."
+            );
+        }
+        return bookRatingCache.getAll(new LinkedHashSet<>(bookIds)).values();
+    }
 }
 //>>> Clean Arch / Inbound Adaptor
@@ -0,0 +1,21 @@
+package ktlibrary.infra;
+
+import ktlibrary.domain.Review;
+import org.springframework.data.rest.core.annotation.HandleBeforeCreate;
+import org.springframework.data.rest.core.annotation.HandleBeforeSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+//<<< Clean Arch / Inbound Adaptor
+// 저장소 API(POST/PUT/PATCH)로 들어온 리뷰를 저장 전에 검사한다. 잘못된 평점은 InvalidRatingException(400)
+@Component
+@RepositoryEventHandler(Review.class)
+public class ReviewRepositoryEventHandler {
+
+    @HandleBeforeCreate
+    @HandleBeforeSave
+    public void validate(Review review) {
+        review.validateRating();
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
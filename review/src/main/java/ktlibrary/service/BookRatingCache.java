@@ -0,0 +1,102 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import ktlibrary.domain.BookRating;
+import ktlibrary.domain.BookRatingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 도서별 평점 집계 캐시. 도서 목록 한 페이지의 평점을 도서당 맵 조회 한 번으로 돌려준다.
+ * 평점이 없는 도서도 빈 집계로 담아 두며, 집계가 바뀐 도서만 커밋 시점에 제거해 다음 조회에서 다시 읽는다.
+ */
+@Service
+public class BookRatingCache {
+
+    @Value("${review.rating.cache-capacity:100000}")
+    private int capacity;
+
+    @Autowired
+    private BookRatingRepository bookRatingRepository;
+
+    private final Map<Long, BookRating> ratings = new ConcurrentHashMap<>();
+
+    // 집계를 읽는 동안 제거 요청이 있었으면 낡은 집계를 넣지 않기 위한 세대 번호
+    private final AtomicLong generation = new AtomicLong();
+
+    public BookRating get(Long bookId) {
+        return getAll(List.of(bookId)).get(bookId);
+    }
+
+    // 요청 순서대로 반환. 캐시에 없는 도서는 IN 조회 한 번으로 읽는다
+    public Map<Long, BookRating> getAll(Collection<Long> bookIds) {
+        Map<Long, BookRating> result = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long bookId : bookIds) {
+            BookRating rating = ratings.get(bookId);
+            if (rating == null) {
+                misses.add(bookId);
+            }
+            result.put(bookId, rating);
+        }
+
+        if (!misses.isEmpty()) {
+            long started = generation.get();
+            for (BookRating rating : bookRatingRepository.findAllById(misses)) {
+                result.put(rating.getBookId(), rating);
+            }
+            for (Long bookId : misses) {
+                BookRating rating = result.get(bookId);
+                if (rating == null) {
+                    rating = BookRating.empty(bookId);
+                    result.put(bookId, rating);
+                }
+                // 넣은 뒤에 세대를 다시 확인한다. 확인과 넣기 사이에 제거되었으면 방금 넣은 낡은 집계를 되돌린다
+                if (generation.get() == started) {
+                    ratings.put(bookId, rating);
+                    if (generation.get() != started) {
+                        ratings.remove(bookId, rating);
+                    }
+                }
+            }
+            trim();
+        }
+        return result;
+    }
+
+    // 트랜잭션 안에서 호출되면 커밋 전에 다시 읽힌 집계도 버리도록 완료 시점에 한 번 더 제거한다
+    public void evict(Long bookId) {
+        generation.incrementAndGet();
+        ratings.remove(bookId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        generation.incrementAndGet();
+                        ratings.remove(bookId);
+                    }
+                }
+            );
+        }
+    }
+
+    // 용량을 넘으면 임의의 집계부터 제거
+    private void trim() {
+        Iterator<Long> iterator = ratings.keySet().iterator();
+        while (ratings.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ktlibrary.service;
+
+import java.util.Objects;
+import ktlibrary.domain.BookRating;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * 리뷰 등록/수정/삭제 시 도서별 평점 집계(리뷰 수, 합계, 별점별 수)를 증감한다.
+ * 리뷰 엔티티 콜백은 flush 중에 호출되므로 영속성 컨텍스트를 건드리지 않도록 같은 트랜잭션의 JDBC 연결로
+ * 원자적 UPDATE 를 실행한다. 리뷰가 롤백되면 집계도 함께 롤백된다.
+ */
+@Service
+public class BookRatings {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRatingCache bookRatingCache;
+
+    public void add(Long bookId, Integer rating) {
+        apply(bookId, rating, 1);
+    }
+
+    public void remove(Long bookId, Integer rating) {
+        apply(bookId, rating, -1);
+    }
+
+    // 도서나 평점이 바뀐 수정은 이전 평점을 빼고 새 평점을 더한다
+    public void change(
+        Long oldBookId,
+        Integer oldRating,
+        Long newBookId,
+        Integer newRating
+    ) {
+        if (
+            Objects.equals(oldBookId, newBookId) &&
+            Objects.equals(oldRating, newRating)
+        ) {
+            return;
+        }
+        remove(oldBookId, oldRating);
+        add(newBookId, newRating);
+    }
+
+    private void apply(Long bookId, Integer rating, int delta) {
+        if (bookId == null || rating == null) {
+            return;
+        }
+        if (update(bookId, rating, delta) == 0) {
+            try {
+                jdbcTemplate.update(
+                    "insert into book_rating_table " +
+                    "(book_id, review_count, rating_sum, star1, star2, star3, star4, star5) " +
+                    "values (?, 0, 0, 0, 0, 0, 0, 0)",
+                    bookId
+                );
+            } catch (DuplicateKeyException e) {
+                // 다른 트랜잭션이 먼저 만든 집계 행에 더한다
+            }
+            update(bookId, rating, delta);
+        }
+        bookRatingCache.evict(bookId);
+    }
+
+    private int update(Long bookId, int rating, int delta) {
+        // 별점 열 이름은 검증된 1~5 범위의 평점으로만 만든다
+        if (rating < BookRating.MIN_RATING || rating > BookRating.MAX_RATING) {
+            return 1;
+        }
+        String star = "star" + rating;
+        return jdbcTemplate.update(
+            "update book_rating_table set review_count = review_count + ?, " +
+            "rating_sum = rating_sum + ?, " + star + " = " + star + " + ? " +
+            "where book_id = ?",
+            delta,
+            (long) rating * delta,
+            delta,
+            bookId
+        );
+    }
+}
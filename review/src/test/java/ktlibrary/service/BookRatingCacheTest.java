@@ -0,0 +1,54 @@
+package ktlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import ktlibrary.domain.BookRating;
+import ktlibrary.domain.BookRatingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class BookRatingCacheTest {
+
+    private final BookRatingRepository bookRatingRepository = mock(BookRatingRepository.class);
+
+    private BookRatingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BookRatingCache();
+        ReflectionTestUtils.setField(cache, "bookRatingRepository", bookRatingRepository);
+        ReflectionTestUtils.setField(cache, "capacity", 100);
+    }
+
+    @Test
+    void cachesMissesIncludingBooksWithoutRatings() {
+        when(bookRatingRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        assertThat(cache.get(1L).getBookId()).isEqualTo(1L);
+        cache.get(1L);
+
+        verify(bookRatingRepository, times(1)).findAllById(anyIterable());
+    }
+
+    // 읽는 동안 제거된 도서의 낡은 집계는 캐시에 남기지 않는다
+    @Test
+    void doesNotCacheRatingEvictedWhileLoading() {
+        when(bookRatingRepository.findAllById(anyIterable()))
+            .thenAnswer(invocation -> {
+                cache.evict(1L);
+                return List.of(BookRating.empty(1L));
+            });
+
+        cache.get(1L);
+        cache.get(1L);
+
+        verify(bookRatingRepository, times(2)).findAllById(anyIterable());
+    }
+}
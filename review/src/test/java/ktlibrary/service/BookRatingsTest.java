@@ -0,0 +1,117 @@
+package ktlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class BookRatingsTest {
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+    private final BookRatingCache bookRatingCache = mock(BookRatingCache.class);
+
+    private BookRatings bookRatings;
+
+    @BeforeEach
+    void setUp() {
+        bookRatings = new BookRatings();
+        ReflectionTestUtils.setField(bookRatings, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(bookRatings, "bookRatingCache", bookRatingCache);
+    }
+
+    @Test
+    void changeWithSameBookAndRatingDoesNothing() {
+        bookRatings.change(1L, 4, 1L, 4);
+
+        assertThat(jdbcTemplate.calls).isEmpty();
+        verify(bookRatingCache, never()).evict(1L);
+    }
+
+    @Test
+    void changeOfRatingMovesOneReviewBetweenStarColumns() {
+        bookRatings.change(1L, 2, 1L, 5);
+
+        assertThat(jdbcTemplate.calls).hasSize(2);
+        assertThat(jdbcTemplate.calls.get(0).sql).contains("star2 = star2 + ?");
+        assertThat(jdbcTemplate.calls.get(0).args).containsExactly(-1, -2L, -1, 1L);
+        assertThat(jdbcTemplate.calls.get(1).sql).contains("star5 = star5 + ?");
+        assertThat(jdbcTemplate.calls.get(1).args).containsExactly(1, 5L, 1, 1L);
+    }
+
+    @Test
+    void changeOfBookEvictsBothBooks() {
+        bookRatings.change(1L, 3, 2L, 3);
+
+        assertThat(jdbcTemplate.calls.get(0).args).containsExactly(-1, -3L, -1, 1L);
+        assertThat(jdbcTemplate.calls.get(1).args).containsExactly(1, 3L, 1, 2L);
+        verify(bookRatingCache).evict(1L);
+        verify(bookRatingCache).evict(2L);
+    }
+
+    // 평점을 새로 매긴 리뷰는 더하기만, 평점을 지운 리뷰는 빼기만 한다
+    @Test
+    void changeFromOrToNoRatingOnlyAddsOrRemoves() {
+        bookRatings.change(1L, null, 1L, 4);
+        bookRatings.change(1L, 4, 1L, null);
+
+        assertThat(jdbcTemplate.calls).hasSize(2);
+        assertThat(jdbcTemplate.calls.get(0).args).containsExactly(1, 4L, 1, 1L);
+        assertThat(jdbcTemplate.calls.get(1).args).containsExactly(-1, -4L, -1, 1L);
+    }
+
+    // 집계 행이 없으면 만든 뒤 다시 더하고, 다른 트랜잭션이 먼저 만들었어도 더한다
+    @Test
+    void missingRowIsInsertedThenUpdated() {
+        jdbcTemplate.missingRows = 1;
+        jdbcTemplate.duplicateOnInsert = true;
+
+        bookRatings.change(null, null, 7L, 1);
+
+        assertThat(jdbcTemplate.calls).hasSize(3);
+        assertThat(jdbcTemplate.calls.get(1).sql).startsWith("insert into book_rating_table");
+        assertThat(jdbcTemplate.calls.get(2).args).containsExactly(1, 1L, 1, 7L);
+    }
+
+    private static class Call {
+
+        private final String sql;
+        private final List<Object> args;
+
+        Call(String sql, Object[] args) {
+            this.sql = sql;
+            this.args = Arrays.asList(args);
+        }
+    }
+
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<Call> calls = new ArrayList<>();
+        private int missingRows;
+        private boolean duplicateOnInsert;
+
+        @Override
+        public int update(String sql, Object... args) {
+            calls.add(new Call(sql, args));
+            if (sql.startsWith("insert")) {
+                if (duplicateOnInsert) {
+                    throw new DuplicateKeyException("book_rating_table");
+                }
+                return 1;
+            }
+            if (missingRows > 0) {
+                missingRows--;
+                return 0;
+            }
+            return 1;
+        }
+    }
+}
@@ -8,10 +8,15 @@ import org.springframework.messaging.SubscribableChannel;
 public interface KafkaProcessor {
     String INPUT = "event-in";
     String OUTPUT = "event-out";
+    // 그룹 없이 모든 인스턴스가 받는 채널. 요청이나 연결을 붙잡은 인스턴스가 직접 응답한다 (구독 결과, 알림 푸시)
+    String BROADCAST_INPUT = "event-broadcast-in";
 
     @Input(INPUT)
     SubscribableChannel inboundTopic();
 
+    @Input(BROADCAST_INPUT)
+    SubscribableChannel broadcastInboundTopic();
+
     @Output(OUTPUT)
     MessageChannel outboundTopic();
 }
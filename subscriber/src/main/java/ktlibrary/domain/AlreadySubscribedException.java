@@ -0,0 +1,18 @@
+package ktlibrary.domain;
+
+import java.util.Collection;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 이미 구독 중인 도서를 다시 구독하려는 경우 (409 Conflict)
+@ResponseStatus(HttpStatus.CONFLICT)
+public class AlreadySubscribedException extends RuntimeException {
+
+    public AlreadySubscribedException(Long userId, Long bookId) {
+        super("이미 구독 중인 도서입니다: userId=" + userId + ", bookId=" + bookId);
+    }
+
+    public AlreadySubscribedException(Long userId, Collection<Long> bookIds) {
+        super("이미 구독 중인 도서가 있습니다: userId=" + userId + ", bookIds=" + bookIds);
+    }
+}
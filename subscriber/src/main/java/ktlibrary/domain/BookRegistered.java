@@ -0,0 +1,20 @@
+package ktlibrary.domain;
+
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+@Data
+@ToString
+public class BookRegistered extends AbstractEvent {
+
+    private Long id;
+    private String bookName;
+    private String category;
+    private Boolean isBestSeller;
+    private String image;
+    private String authorName;
+    private String webUrl;
+    private String pdfPath;
+}
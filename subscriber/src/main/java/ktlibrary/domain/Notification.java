@@ -0,0 +1,68 @@
+package ktlibrary.domain;
+
+import java.util.Date;
+import javax.persistence.*;
+import ktlibrary.SubscriberApplication;
+import ktlibrary.service.NotificationInbox;
+import lombok.Data;
+
+// 구독자 알림. 덮어쓰지 않고 추가만 하며, 읽음 여부는 구독자의 읽은 알림 순번으로 판단한다
+@Entity
+@Table(
+    name = "Notification_table",
+    indexes = {
+        @Index(name = "idx_notification_user", columnList = "userId, id"),
+        @Index(name = "idx_notification_user_seq", columnList = "userId, seq"),
+    }
+)
+@Data
+//<<< DDD / Aggregate Root
+public class Notification {
+
+    public static final String SUBSCRIPTION_FAILED = "SUBSCRIPTION_FAILED";
+    public static final String SUBSCRIPTION_EXPIRED = "SUBSCRIPTION_EXPIRED";
+    public static final String SUBSCRIPTION_RENEWED = "SUBSCRIPTION_RENEWED";
+
+    // 만료/연장 알림을 묶음으로 저장할 때 INSERT 를 JDBC 배치로 묶을 수 있도록 ID 를 미리 할당받는다
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(
+        name = "notification_seq",
+        sequenceName = "notification_seq",
+        allocationSize = 100
+    )
+    private Long id;
+
+    private Long userId;
+
+    // 구독자별 알림 순번 (1부터 빈틈 없이 증가). 읽음 여부와 미읽음 수는 ID 대신 이 순번으로 센다
+    private Long seq;
+
+    private String type;
+
+    @Column(length = 1000)
+    private String message;
+
+    private Date createdAt;
+
+    // 조회 시 구독자의 읽은 알림 순번과 비교해 채운다
+    @Transient
+    private Boolean read;
+
+    public static Notification of(Long userId, String type, String message) {
+        Notification notification = new Notification();
+        notification.setUserId(userId);
+        notification.setType(type);
+        notification.setMessage(message);
+        notification.setCreatedAt(new Date());
+        return notification;
+    }
+
+    public static NotificationInbox inbox() {
+        NotificationInbox notificationInbox = SubscriberApplication.applicationContext.getBean(
+            NotificationInbox.class
+        );
+        return notificationInbox;
+    }
+}
+//>>> DDD / Aggregate Root
@@ -0,0 +1,46 @@
+package ktlibrary.domain;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+// 알림은 미읽음 수와 함께 바뀌어야 하므로 저장소 API 로 노출하지 않고 NotificationController 로만 다룬다
+//<<< PoEAA / Repository
+@RepositoryRestResource(exported = false)
+public interface NotificationRepository
+    extends PagingAndSortingRepository<Notification, Long> {
+    // 최신순 커서 목록
+    @Query(
+        "select n from Notification n " +
+        "where n.userId = :userId and n.id < :before " +
+        "order by n.id desc"
+    )
+    List<Notification> findPage(
+        @Param("userId") Long userId,
+        @Param("before") Long before,
+        Pageable pageable
+    );
+
+    // 재연결한 연결에 놓친 알림을 순서대로 다시 보낸다. 알림 ID 는 추가 순서와 다를 수 있으므로 구독자별 순번으로 찾는다
+    @Query(
+        "select n from Notification n " +
+        "where n.userId = :userId and n.seq > :afterSeq " +
+        "order by n.seq asc"
+    )
+    List<Notification> findAfterSeq(
+        @Param("userId") Long userId,
+        @Param("afterSeq") Long afterSeq,
+        Pageable pageable
+    );
+
+    // upTo 이하 ID 중 가장 늦게 추가된 알림의 순번. 읽음 처리할 위치
+    @Query(
+        "select max(n.seq) from Notification n " +
+        "where n.userId = :userId and n.id <= :upTo"
+    )
+    Long findSeqUpTo(@Param("userId") Long userId, @Param("upTo") Long upTo);
+}
+//>>> PoEAA / Repository
@@ -0,0 +1,34 @@
+package ktlibrary.domain;
+
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+// 새 알림. 연결을 붙잡은 인스턴스가 구독자에게 바로 보내도록 모든 인스턴스에 전달된다
+//<<< DDD / Domain Event
+@Data
+@ToString
+public class NotificationsAdded extends AbstractEvent {
+
+    private List<Item> notifications;
+
+    public NotificationsAdded() {
+        super();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private Long id;
+        // 구독자별 알림 순번. SSE 이벤트 ID 로 쓰여 재연결 시 이 순번 이후의 알림을 다시 받는다
+        private Long seq;
+        private Long userId;
+        private String type;
+        private String message;
+        private Date createdAt;
+    }
+}
+//>>> DDD / Domain Event
@@ -9,8 +9,14 @@ import lombok.*;
 @ToString
 public class OutOfPoint extends AbstractEvent {
 
+    // 잔액이 아닌 이유로 구독을 해제할 때의 사유. null 이면 포인트 부족
+    public static final String BOOK_NOT_FOUND = "BOOK_NOT_FOUND";
+
     private Long id;
     private Integer point;
     private Object userId;
     private Object subscriptionId;
+    // 묶음 구독의 포인트 부족이면 묶음의 구독 ID 전체
+    private List<Long> subscriptionIds;
+    private String reason;
 }
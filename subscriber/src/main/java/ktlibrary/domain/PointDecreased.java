@@ -0,0 +1,16 @@
+package ktlibrary.domain;
+
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+@Data
+@ToString
+public class PointDecreased extends AbstractEvent {
+
+    private Long id;
+    private Integer point;
+    private Integer changedPoint;
+    private Object userId;
+}
@@ -0,0 +1,11 @@
+package ktlibrary.domain;
+
+import java.util.*;
+import lombok.Data;
+
+@Data
+public class SubscribeBundleCommand {
+
+    private Long userId;
+    private List<Long> bookIds;
+}
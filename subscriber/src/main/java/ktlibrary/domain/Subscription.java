@@ -1,7 +1,10 @@
 package ktlibrary.domain;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 import javax.persistence.Embedded;
@@ -9,25 +12,55 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.springframework.dao.DataIntegrityViolationException;
+
 import ktlibrary.SubscriberApplication;
+import ktlibrary.service.EntitlementIndex;
 import lombok.Data;
 
 
 @Entity
-@Table(name="Subscription_table")
+@Table(
+    name = "Subscription_table",
+    indexes = {
+        @Index(name = "idx_subscription_user", columnList = "userId_id, id"),
+        @Index(name = "idx_subscription_end", columnList = "endSubscription, id"),
+        @Index(name = "idx_subscription_ended", columnList = "endedAt, id"),
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_subscription_active", columnNames = { "userId_id", "activeBookId" }),
+    }
+)
 @Data
 
 //<<< DDD / Aggregate Root
 public class Subscription  {
 
+    public static final String CANCELED = "CANCELED";
+    public static final String FAILED = "FAILED";
+    public static final String EXPIRED = "EXPIRED";
+
     @Id
     @GeneratedValue(strategy=GenerationType.AUTO)
     private Long id;    
+
+    // 겹친 만료 처리나 다른 인스턴스가 같은 구독을 두 번 연장(두 번 차감)하지 않도록 버전을 확인한다
+    @Version
+    @JsonIgnore
+    private Long version;
     
     @Embedded
     private BookId bookId;    
@@ -47,6 +80,61 @@ public class Subscription  {
         
     private String webUrl;
 
+    // 구독이 끝난(취소/실패/만료) 시각과 사유. 보관 기간이 지나면 보관 테이블로 옮긴다
+    private Date endedAt;
+
+    private String endReason;
+
+    // 구독 중인 동안만 도서 ID 를 담는다. (구독자, 이 값) 유일 제약으로 여러 인스턴스가 동시에 받은
+    // 같은 도서의 구독 신청 중 하나만 저장되게 한다. 끝난 구독은 비워 두어 다시 구독할 수 있다
+    @JsonIgnore
+    private Long activeBookId;
+
+    // 묶음 구독으로 저장된 구독. 신청 이벤트는 묶음 단위로 한 번에 발행한다
+    @Transient
+    @JsonIgnore
+    private boolean bundled;
+
+    // 결과를 기다리는 구독 신청 요청의 상관 ID. 신청 이벤트로 복사되어 메시지 헤더로 전달된다
+    @Transient
+    @JsonIgnore
+    private String correlationId;
+
+    // 같은 도서를 이미 구독 중이면 구독 테이블을 조회하지 않고 메모리의 열람 권한으로 거절.
+    // 메모리 확인은 이 인스턴스 안에서만 유효한 빠른 경로이고, 인스턴스 사이의 중복은
+    // 같은 트랜잭션의 INSERT 에서 uk_subscription_active 제약이 막는다
+    @PrePersist
+    public void onPrePersist(){
+        if (userId == null || bookId == null) {
+            return;
+        }
+        this.activeBookId = bookId.getId();
+        if (!entitlements().reserve(userId.getId(), bookId.getId())) {
+            throw new AlreadySubscribedException(userId.getId(), bookId.getId());
+        }
+    }
+
+    // 끝난 구독은 유일 제약에서 빠진다
+    @PreUpdate
+    public void onPreUpdate(){
+        this.activeBookId =
+            Boolean.TRUE.equals(isSubscription) && bookId != null ? bookId.getId() : null;
+    }
+
+    // 취소/실패/만료/연장 모두 구독 여부로 이 인스턴스의 열람 권한에 바로 반영.
+    // 다른 인스턴스는 구독 이벤트를 받아 DB 에서 다시 읽는다 (EntitlementHandler)
+    @PostUpdate
+    public void onPostUpdate(){
+        if (userId == null || bookId == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(isSubscription)) {
+            entitlements().grant(userId.getId(), bookId.getId());
+        } else {
+            entitlements().revoke(userId.getId(), bookId.getId());
+        }
+    }
+
     @PostPersist
     public void onPostPersist(){
 
@@ -61,16 +149,38 @@ public class Subscription  {
         calendar.add(Calendar.MONTH, 1);
         this.endSubscription = calendar.getTime();
 
-        SubscriptionApplied subscriptionApplied = new SubscriptionApplied(this);
-        subscriptionApplied.publishAfterCommit();
+        if (!bundled) {
+            SubscriptionApplied subscriptionApplied = new SubscriptionApplied(this);
+            subscriptionApplied.publishAfterCommit();
+        }
     
     }
 
+    // 자동 연장: 종료 날짜를 기존 종료 날짜 기준으로 한달 늦춘다
+    public void renew(){
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(this.endSubscription);
+        calendar.add(Calendar.MONTH, 1);
+        this.endSubscription = calendar.getTime();
+    }
+
+    // 만료: 구독 기간은 이력으로 남기고 구독 여부만 해제
+    public void expire(){
+        this.isSubscription = false;
+        this.endedAt = new Date();
+        this.endReason = EXPIRED;
+    }
+
     public static SubscriptionRepository repository(){
         SubscriptionRepository subscriptionRepository = SubscriberApplication.applicationContext.getBean(SubscriptionRepository.class);
         return subscriptionRepository;
     }
 
+    public static EntitlementIndex entitlements(){
+        EntitlementIndex entitlementIndex = SubscriberApplication.applicationContext.getBean(EntitlementIndex.class);
+        return entitlementIndex;
+    }
+
 
 
 //<<< Clean Arch / Port Method
@@ -81,6 +191,8 @@ public class Subscription  {
             this.setIsSubscription(false);
             this.setStartSubscription(null);
             this.setEndSubscription(null);
+            this.setEndedAt(new Date());
+            this.setEndReason(CANCELED);
 
             SubscriptionCanceled subscriptionCanceled = new SubscriptionCanceled(this);
             subscriptionCanceled.publishAfterCommit();
@@ -88,29 +200,85 @@ public class Subscription  {
     }
 //>>> Clean Arch / Port Method
 
+//<<< Clean Arch / Port Method
+    public static List<Subscription> subscribeBundle(SubscribeBundleCommand subscribeBundleCommand){
+
+        // 한 트랜잭션에서 모두 저장한다. 이미 구독 중인 도서가 하나라도 있으면 묶음 전체가 롤백된다
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (Long bookId : new LinkedHashSet<>(subscribeBundleCommand.getBookIds())) {
+            Subscription subscription = new Subscription();
+            subscription.setUserId(new UserId(subscribeBundleCommand.getUserId()));
+            subscription.setBookId(new BookId(bookId));
+            subscription.setBundled(true);
+            subscriptions.add(subscription);
+        }
+        try {
+            repository().saveAll(subscriptions);
+            // 구독 기간은 저장 직후(@PostPersist)에 정해지므로 먼저 반영한 뒤 이벤트를 만든다
+            repository().flush();
+        } catch (DataIntegrityViolationException e) {
+            // 다른 인스턴스가 먼저 구독을 저장했다
+            throw new AlreadySubscribedException(
+                subscribeBundleCommand.getUserId(),
+                subscribeBundleCommand.getBookIds()
+            );
+        }
+
+        List<SubscriptionBundleApplied.Item> items = new ArrayList<>();
+        for (Subscription subscription : subscriptions) {
+            items.add(
+                new SubscriptionBundleApplied.Item(
+                    subscription.getId(),
+                    subscription.getBookId().getId(),
+                    subscription.getStartSubscription(),
+                    subscription.getEndSubscription()
+                )
+            );
+        }
+        SubscriptionBundleApplied subscriptionBundleApplied = new SubscriptionBundleApplied();
+        subscriptionBundleApplied.setUserId(subscribeBundleCommand.getUserId());
+        subscriptionBundleApplied.setSubscriptions(items);
+        subscriptionBundleApplied.publishAfterCommit();
+        return subscriptions;
+    }
+//>>> Clean Arch / Port Method
+
 //<<< Clean Arch / Port Method
     public static void failSubscription(OutOfPoint outOfPoint){
         
+        // 묶음 구독의 포인트 부족은 묶음의 구독을 모두 해제
+        if (outOfPoint.getSubscriptionIds() != null && !outOfPoint.getSubscriptionIds().isEmpty()) {
+            repository()
+                .findAllById(outOfPoint.getSubscriptionIds())
+                .forEach(subscription -> fail(subscription, outOfPoint.getReason()));
+            return;
+        }
+
         // 발행된 포인트부족 이벤트에서 subscriptionId 정보를 추출
         ObjectMapper mapper = new ObjectMapper();
         Map<Long, Object> subscriptionMap = mapper.convertValue(outOfPoint.getSubscriptionId(), Map.class);
 
         // subscriptionId와 일치하는 Subscription정보를 조회 후, 구독 신청에 따라 생성된 정보 제거
-        repository().findById(Long.valueOf(subscriptionMap.get("id").toString())).ifPresent(subscription->{
-            
-            subscription.setIsSubscription(false);
-            subscription.setStartSubscription(null);
-            subscription.setEndSubscription(null);
-            repository().save(subscription);
-
-            SubscriptionFailed subscriptionFailed = new SubscriptionFailed(subscription);
-            subscriptionFailed.publishAfterCommit();
-
-        });
+        repository()
+            .findById(Long.valueOf(subscriptionMap.get("id").toString()))
+            .ifPresent(subscription -> fail(subscription, outOfPoint.getReason()));
         
     }
 //>>> Clean Arch / Port Method
 
+    private static void fail(Subscription subscription, String reason){
+        subscription.setIsSubscription(false);
+        subscription.setStartSubscription(null);
+        subscription.setEndSubscription(null);
+        subscription.setEndedAt(new Date());
+        subscription.setEndReason(FAILED);
+        repository().save(subscription);
+
+        SubscriptionFailed subscriptionFailed = new SubscriptionFailed(subscription);
+        subscriptionFailed.setReason(reason);
+        subscriptionFailed.publishAfterCommit();
+    }
+
 
 }
 //>>> DDD / Aggregate Root
@@ -0,0 +1,51 @@
+package ktlibrary.domain;
+
+import java.util.Date;
+import javax.persistence.*;
+import lombok.Data;
+
+// 보관 기간이 지난 끝난 구독. 구독 테이블에서 옮겨 와 이력 조회에만 쓰며 ID 는 원래 구독 ID 를 그대로 쓴다
+@Entity
+@Table(
+    name = "SubscriptionArchive_table",
+    indexes = {
+        @Index(name = "idx_subscription_archive_user", columnList = "userId, id"),
+    }
+)
+@Data
+public class SubscriptionArchive {
+
+    @Id
+    private Long id;
+
+    private Long userId;
+
+    private Long bookId;
+
+    private Date startSubscription;
+
+    private Date endSubscription;
+
+    private Date endedAt;
+
+    private String endReason;
+
+    private Date archivedAt;
+
+    public static SubscriptionArchive of(Subscription subscription, Date archivedAt) {
+        SubscriptionArchive archive = new SubscriptionArchive();
+        archive.setId(subscription.getId());
+        archive.setUserId(
+            subscription.getUserId() != null ? subscription.getUserId().getId() : null
+        );
+        archive.setBookId(
+            subscription.getBookId() != null ? subscription.getBookId().getId() : null
+        );
+        archive.setStartSubscription(subscription.getStartSubscription());
+        archive.setEndSubscription(subscription.getEndSubscription());
+        archive.setEndedAt(subscription.getEndedAt());
+        archive.setEndReason(subscription.getEndReason());
+        archive.setArchivedAt(archivedAt);
+        return archive;
+    }
+}
@@ -0,0 +1,26 @@
+package ktlibrary.domain;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+// 보관된 구독은 읽기 전용 이력으로 SubscriptionArchiveController 에서만 조회한다
+//<<< PoEAA / Repository
+@RepositoryRestResource(exported = false)
+public interface SubscriptionArchiveRepository
+    extends PagingAndSortingRepository<SubscriptionArchive, Long> {
+    @Query(
+        "select a from SubscriptionArchive a " +
+        "where a.userId = :userId and a.id < :before " +
+        "order by a.id desc"
+    )
+    List<SubscriptionArchive> findPage(
+        @Param("userId") Long userId,
+        @Param("before") Long before,
+        Pageable pageable
+    );
+}
+//>>> PoEAA / Repository
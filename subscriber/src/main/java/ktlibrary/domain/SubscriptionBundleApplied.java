@@ -0,0 +1,32 @@
+package ktlibrary.domain;
+
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+// 묶음 구독 신청. 도서마다 SubscriptionApplied 를 발행하지 않고 한 구독자의 묶음당 한 건 발행한다
+//<<< DDD / Domain Event
+@Data
+@ToString
+public class SubscriptionBundleApplied extends AbstractEvent {
+
+    private Long userId;
+    private List<Item> subscriptions;
+
+    public SubscriptionBundleApplied() {
+        super();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private Long id;
+        private Long bookId;
+        private Date startSubscription;
+        private Date endSubscription;
+    }
+}
+//>>> DDD / Domain Event
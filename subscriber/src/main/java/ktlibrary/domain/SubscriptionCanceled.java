@@ -13,6 +13,8 @@ public class SubscriptionCanceled extends AbstractEvent {
 
     private Long id;
     private Boolean isSubscription;
+    private BookId bookId;
+    private UserId userId;
 
     public SubscriptionCanceled(Subscription aggregate) {
         super(aggregate);
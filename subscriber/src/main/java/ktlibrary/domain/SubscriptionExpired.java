@@ -0,0 +1,22 @@
+package ktlibrary.domain;
+
+import java.time.LocalDate;
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+// 한 처리 묶음에서 만료된 구독을 한 건의 이벤트로 발행
+//<<< DDD / Domain Event
+@Data
+@ToString
+public class SubscriptionExpired extends AbstractEvent {
+
+    private List<Long> subscriptionIds;
+    private List<Long> userIds;
+
+    public SubscriptionExpired() {
+        super();
+    }
+}
+//>>> DDD / Domain Event
@@ -17,6 +17,8 @@ public class SubscriptionFailed extends AbstractEvent {
     private UserId userId;
     private Date startSubscription;
     private Date endSubscription;
+    // 포인트 부족이 아닌 실패 사유 (OutOfPoint.reason)
+    private String reason;
 
     public SubscriptionFailed(Subscription aggregate) {
         super(aggregate);
@@ -0,0 +1,34 @@
+package ktlibrary.domain;
+
+import java.time.LocalDate;
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+// 한 처리 묶음에서 자동 연장된 구독을 한 건의 이벤트로 발행. 포인트 서비스가 구독마다 포인트를 차감한다
+//<<< DDD / Domain Event
+@Data
+@ToString
+public class SubscriptionRenewed extends AbstractEvent {
+
+    private List<Item> subscriptions;
+
+    public SubscriptionRenewed() {
+        super();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private Long id;
+        private Long userId;
+        private Long bookId;
+        private Date endSubscription;
+        // 구독권 보유 구독자는 연장해도 포인트를 차감하지 않는다. 포인트 서비스가 구독자를 따로 조회하지 않도록 함께 보낸다
+        private Boolean isPurchase;
+    }
+}
+//>>> DDD / Domain Event
@@ -1,12 +1,16 @@
 package ktlibrary.domain;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import ktlibrary.domain.*;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 
 //<<< PoEAA / Repository
 @RepositoryRestResource(
@@ -14,4 +18,84 @@ import org.springframework.data.rest.core.annotation.RepositoryRestResource;
     path = "subscriptions"
 )
 public interface SubscriptionRepository
-    extends PagingAndSortingRepository<Subscription, Long> {}
+    extends PagingAndSortingRepository<Subscription, Long> {
+    // 저장한 변경을 바로 DB 에 반영 (기본 구현 SimpleJpaRepository.flush 로 연결된다)
+    void flush();
+
+    // 커서 목록 조회. 건수(count) 조회 없이 마지막 행의 키 다음부터 읽는다
+    @RestResource(exported = false)
+    @Query("select s from Subscription s where s.id < :beforeId order by s.id desc")
+    List<Subscription> findLatest(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query(
+        "select s from Subscription s " +
+        "where s.userId.id = :userId and s.id < :beforeId " +
+        "order by s.id desc"
+    )
+    List<Subscription> findLatestByUserId(
+        @Param("userId") Long userId,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+
+    // 종료 날짜 인덱스를 따라 until 전에 끝나는 구독 중 아직 구독 중인 것을 (종료 날짜, id) 순서로 조회.
+    // 하한은 두지 않아 지난 실행에서 놓친 구독도 다시 읽히며, afterEnd/afterId 는 한 실행 안의 페이지 커서다
+    @RestResource(exported = false)
+    @Query(
+        "select s from Subscription s " +
+        "where s.isSubscription = true and s.endSubscription < :until " +
+        "and (:afterEnd is null or s.endSubscription > :afterEnd " +
+        "or (s.endSubscription = :afterEnd and s.id > :afterId)) " +
+        "order by s.endSubscription, s.id"
+    )
+    List<Subscription> findEnding(
+        @Param("afterEnd") Date afterEnd,
+        @Param("afterId") Long afterId,
+        @Param("until") Date until,
+        Pageable pageable
+    );
+
+    // 기동 시 열람 권한 적재용. 구독 중인 구독을 id 순서로 읽는다
+    @RestResource(exported = false)
+    @Query(
+        "select s from Subscription s " +
+        "where s.isSubscription = true and s.id > :afterId " +
+        "order by s.id"
+    )
+    List<Subscription> findActiveAfter(
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    // 구독 이벤트를 받은 구독자들의 열람 권한을 다시 읽는다 (구독자 인덱스)
+    @RestResource(exported = false)
+    @Query(
+        "select s from Subscription s " +
+        "where s.isSubscription = true and s.userId.id in :userIds"
+    )
+    List<Subscription> findActiveByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // 보관 대상: 끝난 시각 인덱스를 따라 cutoff 전에 끝난 구독. 옮긴 구독은 지워지므로 항상 앞에서부터 읽는다
+    @RestResource(exported = false)
+    @Query(
+        "select s.id from Subscription s " +
+        "where s.isSubscription = false and s.endedAt < :cutoff " +
+        "order by s.endedAt, s.id"
+    )
+    List<Long> findEndedBefore(@Param("cutoff") Date cutoff, Pageable pageable);
+
+    // 끝난 시각을 기록하기 전에 끝난 구독은 지금 끝난 것으로 보고 보관 기간을 새로 센다
+    @RestResource(exported = false)
+    @Modifying
+    @Query(
+        "update Subscription s set s.endedAt = :now " +
+        "where s.isSubscription = false and s.endedAt is null"
+    )
+    int stampEnded(@Param("now") Date now);
+
+    @RestResource(exported = false)
+    @Modifying
+    @Query("delete from Subscription s where s.id in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
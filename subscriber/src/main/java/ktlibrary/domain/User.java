@@ -1,5 +1,6 @@
 package ktlibrary.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDate;
 import java.util.Collections;
@@ -9,6 +10,7 @@ import java.util.Map;
 import javax.persistence.*;
 import ktlibrary.SubscriberApplication;
 import ktlibrary.domain.UserRegistered;
+import ktlibrary.service.EntitlementIndex;
 import lombok.Data;
 
 @Entity
@@ -17,8 +19,16 @@ import lombok.Data;
 //<<< DDD / Aggregate Root
 public class User {
 
+    public static final String OUT_OF_POINT_MESSAGE =
+        "포인트가 부족하여 구독 신청에 실패했습니다. 포인트를 충전하세요. 또는 구독권을 결제하여 원하는 도서를 무제한으로 구독하세요!";
+
+    public static final String BOOK_NOT_FOUND_MESSAGE =
+        "구독 신청한 도서 중 찾을 수 없는 도서가 있어 구독 신청에 실패했습니다.";
+
+    // 대량 가입 시 INSERT 를 JDBC 배치로 묶을 수 있도록 ID 를 미리 여러 개씩 할당받는다
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 100)
     private Long id;
 
     private String email;
@@ -29,10 +39,37 @@ public class User {
 
     private String message;
 
+    // 구독 만료 시 포인트 차감으로 자동 연장할지 여부
+    private Boolean autoRenew;
+
+    // 알림함: 구독자별로 추가된 알림 수(마지막 알림 순번)와 읽은 알림 순번. 미읽음 수는 두 값의 차이다.
+    // 저장소의 원자적 갱신으로만 바꾸며, 엔티티 저장이 이전 값으로 덮어쓰지 않도록 UPDATE 에서 뺀다
+    @Column(updatable = false)
+    private Long notificationSeq;
+
+    @Column(updatable = false)
+    private Long readNotificationSeq;
+
+    // 대량 가입으로 저장된 구독자. 가입 이벤트는 가져오기 묶음 단위로 한 번에 발행한다
+    @Transient
+    @JsonIgnore
+    private boolean imported;
+
     @PostPersist
     public void onPostPersist() {
-        UserRegistered userRegistered = new UserRegistered(this);
-        userRegistered.publishAfterCommit();
+        if (!imported) {
+            UserRegistered userRegistered = new UserRegistered(this);
+            userRegistered.publishAfterCommit();
+        }
+        if (Boolean.TRUE.equals(isPurchase)) {
+            entitlements().setPurchase(id, true);
+        }
+    }
+
+    // 구독권 보유 여부는 저장소 API 로 바뀌어도 열람 권한에 반영
+    @PostUpdate
+    public void onPostUpdate() {
+        entitlements().setPurchase(id, Boolean.TRUE.equals(isPurchase));
     }
 
     public static UserRepository repository() {
@@ -42,6 +79,13 @@ public class User {
         return userRepository;
     }
 
+    public static EntitlementIndex entitlements() {
+        EntitlementIndex entitlementIndex = SubscriberApplication.applicationContext.getBean(
+            EntitlementIndex.class
+        );
+        return entitlementIndex;
+    }
+
     //<<< Clean Arch / Port Method
     public void buySubscription(BuySubscriptionCommand buySubscriptionCommand) {
         repository().findById(this.getId()).ifPresent(user->{
@@ -64,8 +108,17 @@ public class User {
         // 추출한 userId와 동일한 User 정보를 조회 후, 안내 메시지 저장
         repository().findById(Long.valueOf(subscriptionMap.get("id").toString())).ifPresent(user->{
             
-            user.setMessage("포인트가 부족하여 구독 신청에 실패했습니다. 포인트를 충전하세요. 또는 구독권을 결제하여 원하는 도서를 무제한으로 구독하세요!");
+            user.setMessage(
+                OutOfPoint.BOOK_NOT_FOUND.equals(subscriptionFailed.getReason())
+                    ? BOOK_NOT_FOUND_MESSAGE
+                    : OUT_OF_POINT_MESSAGE
+            );
             repository().save(user);
+
+            // 마지막 안내만 남는 message 와 달리 알림함에는 안내가 모두 쌓인다
+            Notification.inbox().append(
+                Notification.of(user.getId(), Notification.SUBSCRIPTION_FAILED, user.getMessage())
+            );
         });
 
     }
@@ -0,0 +1,33 @@
+package ktlibrary.domain;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.Data;
+
+// 대량 가입 진행 상황. 오류는 앞에서부터 일부만 보관하고 건수는 모두 센다
+@Data
+public class UserImport {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private Long id;
+    private String format;
+    private volatile String status;
+    private volatile long processedRows;
+    private volatile long importedCount;
+    private volatile long failedCount;
+    private List<RowError> errors = new CopyOnWriteArrayList<>();
+    private String failureMessage;
+    private Date startedAt;
+    private volatile Date completedAt;
+
+    @Data
+    public static class RowError {
+
+        private final long line;
+        private final String message;
+    }
+}
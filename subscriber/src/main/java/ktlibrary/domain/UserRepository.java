@@ -4,11 +4,62 @@ import java.util.Date;
 import java.util.List;
 import ktlibrary.domain.*;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 
 //<<< PoEAA / Repository
 @RepositoryRestResource(collectionResourceRel = "users", path = "users")
 public interface UserRepository
-    extends PagingAndSortingRepository<User, Long> {}
+    extends PagingAndSortingRepository<User, Long> {
+    // 커서 목록 조회. 건수(count) 조회 없이 마지막 행의 키 다음부터 읽는다
+    @RestResource(exported = false)
+    @Query("select u from User u where u.id < :beforeId order by u.id desc")
+    List<User> findLatest(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query("select u.id from User u where u.isPurchase = true")
+    List<Long> findPurchasedUserIds();
+
+    @RestResource(exported = false)
+    @Query(
+        "select coalesce(u.notificationSeq, 0) - coalesce(u.readNotificationSeq, 0) " +
+        "from User u where u.id = :userId"
+    )
+    Long findUnreadNotifications(@Param("userId") Long userId);
+
+    @RestResource(exported = false)
+    @Query("select coalesce(u.notificationSeq, 0) from User u where u.id = :userId")
+    Long findNotificationSeq(@Param("userId") Long userId);
+
+    @RestResource(exported = false)
+    @Query("select coalesce(u.readNotificationSeq, 0) from User u where u.id = :userId")
+    Long findReadNotificationSeq(@Param("userId") Long userId);
+
+    // 알림 순번을 원자적으로 늘린다. 행 잠금이 커밋까지 유지되므로 같은 구독자의 알림 추가는 순서대로 순번을 받는다
+    @RestResource(exported = false)
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update User u set u.notificationSeq = coalesce(u.notificationSeq, 0) + :count " +
+        "where u.id = :userId"
+    )
+    int addNotifications(
+        @Param("userId") Long userId,
+        @Param("count") long count
+    );
+
+    // 읽은 순번은 앞으로만 움직인다 (동시에 읽음 처리하면 더 뒤의 위치가 남는다)
+    @RestResource(exported = false)
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update User u set u.readNotificationSeq = :seq " +
+        "where u.id = :userId and coalesce(u.readNotificationSeq, 0) < :seq"
+    )
+    int markNotificationsRead(
+        @Param("userId") Long userId,
+        @Param("seq") Long seq
+    );
+}
@@ -0,0 +1,22 @@
+package ktlibrary.domain;
+
+import java.time.LocalDate;
+import java.util.*;
+import ktlibrary.domain.*;
+import ktlibrary.infra.AbstractEvent;
+import lombok.*;
+
+// 대량 가입 한 묶음의 가입 이벤트. 구독자마다 UserRegistered 를 발행하지 않고 묶음당 한 건 발행한다
+//<<< DDD / Domain Event
+@Data
+@ToString
+public class UsersRegistered extends AbstractEvent {
+
+    private Long importId;
+    private List<Long> userIds;
+
+    public UsersRegistered() {
+        super();
+    }
+}
+//>>> DDD / Domain Event
@@ -1,5 +1,6 @@
 package ktlibrary.infra;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ktlibrary.SubscriberApplication;
@@ -18,6 +19,10 @@ public class AbstractEvent {
     String eventType;
     Long timestamp;
 
+    // 결과를 기다리는 요청과 이벤트를 잇는 상관 ID. 본문이 아닌 메시지 헤더로 전달한다
+    @JsonIgnore
+    String correlationId;
+
     public AbstractEvent(Object aggregate) {
         this();
         BeanUtils.copyProperties(aggregate, this);
@@ -37,16 +42,17 @@ public class AbstractEvent {
         );
         MessageChannel outputChannel = processor.outboundTopic();
 
-        outputChannel.send(
-            MessageBuilder
-                .withPayload(this)
-                .setHeader(
-                    MessageHeaders.CONTENT_TYPE,
-                    MimeTypeUtils.APPLICATION_JSON
-                )
-                .setHeader("type", getEventType())
-                .build()
-        );
+        MessageBuilder<AbstractEvent> message = MessageBuilder
+            .withPayload(this)
+            .setHeader(
+                MessageHeaders.CONTENT_TYPE,
+                MimeTypeUtils.APPLICATION_JSON
+            )
+            .setHeader("type", getEventType());
+        if (correlationId != null) {
+            message.setHeader("correlationId", correlationId);
+        }
+        outputChannel.send(message.build());
     }
 
     public void publishAfterCommit() {
@@ -54,7 +60,10 @@ public class AbstractEvent {
             new TransactionSynchronizationAdapter() {
                 @Override
                 public void afterCompletion(int status) {
-                    AbstractEvent.this.publish();
+                    // 롤백된 변경의 이벤트는 발행하지 않는다
+                    if (status == STATUS_COMMITTED) {
+                        AbstractEvent.this.publish();
+                    }
                 }
             }
         );
@@ -76,6 +85,14 @@ public class AbstractEvent {
         this.timestamp = timestamp;
     }
 
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public void setCorrelationId(String correlationId) {
+        this.correlationId = correlationId;
+    }
+
     public boolean validate() {
         return getEventType().equals(getClass().getSimpleName());
     }
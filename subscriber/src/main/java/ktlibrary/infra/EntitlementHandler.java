@@ -0,0 +1,97 @@
+package ktlibrary.infra;
+
+import java.util.Collections;
+import ktlibrary.config.kafka.KafkaProcessor;
+import ktlibrary.domain.*;
+import ktlibrary.service.EntitlementIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.stream.annotation.StreamListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+//<<< Clean Arch / Inbound Adaptor
+// 모든 인스턴스가 받는 채널에서 구독 변경을 받아 이 인스턴스의 열람 권한을 맞춘다.
+// 토픽에 키가 없어 이벤트 순서가 보장되지 않으므로 이벤트 내용을 적용하지 않고 해당 구독자를 DB 에서 다시 읽는다
+@Service
+public class EntitlementHandler {
+
+    @Autowired
+    EntitlementIndex entitlementIndex;
+
+    @StreamListener(
+        value = KafkaProcessor.BROADCAST_INPUT,
+        condition = "headers['type']=='SubscriptionApplied'"
+    )
+    public void wheneverSubscriptionApplied_Refresh(
+        @Payload SubscriptionApplied subscriptionApplied
+    ) {
+        if (!subscriptionApplied.validate()) return;
+        refresh(subscriptionApplied.getUserId());
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.BROADCAST_INPUT,
+        condition = "headers['type']=='SubscriptionBundleApplied'"
+    )
+    public void wheneverSubscriptionBundleApplied_Refresh(
+        @Payload SubscriptionBundleApplied subscriptionBundleApplied
+    ) {
+        if (!subscriptionBundleApplied.validate()) return;
+        if (subscriptionBundleApplied.getUserId() == null) return;
+        entitlementIndex.refresh(
+            Collections.singletonList(subscriptionBundleApplied.getUserId())
+        );
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.BROADCAST_INPUT,
+        condition = "headers['type']=='SubscriptionCanceled'"
+    )
+    public void wheneverSubscriptionCanceled_Refresh(
+        @Payload SubscriptionCanceled subscriptionCanceled
+    ) {
+        if (!subscriptionCanceled.validate()) return;
+        refresh(subscriptionCanceled.getUserId());
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.BROADCAST_INPUT,
+        condition = "headers['type']=='SubscriptionFailed'"
+    )
+    public void wheneverSubscriptionFailed_Refresh(
+        @Payload SubscriptionFailed subscriptionFailed
+    ) {
+        if (!subscriptionFailed.validate()) return;
+        refresh(subscriptionFailed.getUserId());
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.BROADCAST_INPUT,
+        condition = "headers['type']=='SubscriptionExpired'"
+    )
+    public void wheneverSubscriptionExpired_Refresh(
+        @Payload SubscriptionExpired subscriptionExpired
+    ) {
+        if (!subscriptionExpired.validate()) return;
+        if (subscriptionExpired.getUserIds() == null) return;
+        entitlementIndex.refresh(subscriptionExpired.getUserIds());
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.BROADCAST_INPUT,
+        condition = "headers['type']=='SubscriptionBought'"
+    )
+    public void wheneverSubscriptionBought_Refresh(
+        @Payload SubscriptionBought subscriptionBought
+    ) {
+        if (!subscriptionBought.validate()) return;
+        if (subscriptionBought.getId() == null) return;
+        entitlementIndex.refresh(Collections.singletonList(subscriptionBought.getId()));
+    }
+
+    private void refresh(UserId userId) {
+        if (userId == null || userId.getId() == null) return;
+        entitlementIndex.refresh(Collections.singletonList(userId.getId()));
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
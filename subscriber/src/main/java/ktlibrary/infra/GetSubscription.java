@@ -0,0 +1,44 @@
+package ktlibrary.infra;
+
+import java.util.Date;
+import javax.persistence.*;
+import lombok.Data;
+
+//<<< EDA / CQRS
+// 구독자별 서재 조회 화면용 비정규화 뷰 (id = 구독 ID). 구독 중인 도서만 남긴다.
+// (userId, id) 인덱스로 한 구독자의 서재를 최신순 키셋 페이지로 조회한다.
+@Entity
+@Table(
+    name = "GetSubscription_table",
+    indexes = {
+        @Index(name = "idx_get_subscription_user", columnList = "userId, id"),
+        @Index(name = "idx_get_subscription_book", columnList = "bookId"),
+    }
+)
+@Data
+public class GetSubscription {
+
+    @Id
+    private Long id;
+
+    private Long userId;
+
+    private Long bookId;
+
+    private String bookName;
+
+    private String authorName;
+
+    private String category;
+
+    private String image;
+
+    private String webUrl;
+
+    private String pdfPath;
+
+    private Date startSubscription;
+
+    private Date endSubscription;
+}
+//>>> EDA / CQRS
@@ -0,0 +1,59 @@
+package ktlibrary.infra;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+//<<< Clean Arch / Inbound Adaptor
+
+@RestController
+// @RequestMapping(value="/getSubscriptions")
+public class GetSubscriptionController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    GetSubscriptionRepository getSubscriptionRepository;
+
+    // 구독자의 서재 (구독 중인 도서와 도서 정보, 최신 구독순). 도서마다 /books/{id} 를 호출하지 않아도 된다
+    @RequestMapping(
+        value = "/getSubscriptions/users/{userId}",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> library(
+        @PathVariable(value = "userId") Long userId,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Long before = cursor != null
+            ? CursorToken.decodeLongs(cursor, "id", 1)[0]
+            : Long.MAX_VALUE;
+        List<GetSubscription> library = getSubscriptionRepository.findPage(
+            userId,
+            before,
+            PageRequest.of(0, pageSize)
+        );
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("content", library);
+        page.put(
+            "nextCursor",
+            library.size() == pageSize
+                ? CursorToken.encode("id", library.get(library.size() - 1).getId())
+                : null
+        );
+        return page;
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
@@ -0,0 +1,31 @@
+package ktlibrary.infra;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+@RepositoryRestResource(
+    collectionResourceRel = "getSubscriptions",
+    path = "getSubscriptions"
+)
+public interface GetSubscriptionRepository
+    extends PagingAndSortingRepository<GetSubscription, Long> {
+    @RestResource(exported = false)
+    @Query(
+        "select g from GetSubscription g " +
+        "where g.userId = :userId and g.id < :before " +
+        "order by g.id desc"
+    )
+    List<GetSubscription> findPage(
+        @Param("userId") Long userId,
+        @Param("before") Long before,
+        Pageable pageable
+    );
+
+    @RestResource(exported = false)
+    List<GetSubscription> findByBookId(Long bookId);
+}
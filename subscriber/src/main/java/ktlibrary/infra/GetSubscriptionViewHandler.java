@@ -0,0 +1,248 @@
+package ktlibrary.infra;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.transaction.Transactional;
+import ktlibrary.config.kafka.KafkaProcessor;
+import ktlibrary.domain.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.stream.annotation.StreamListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+@Service
+@Transactional
+public class GetSubscriptionViewHandler {
+
+    //<<< DDD / CQRS
+    @Autowired
+    private GetSubscriptionRepository getSubscriptionRepository;
+
+    @Autowired
+    private LibraryBookRepository libraryBookRepository;
+
+    @Value("${subscriber.library.platform-url:http://localhost:8087}")
+    private String platformUrl;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='SubscriptionApplied'"
+    )
+    public void whenSubscriptionApplied_then_CREATE_1(
+        @Payload SubscriptionApplied subscriptionApplied
+    ) {
+        try {
+            if (!subscriptionApplied.validate()) return;
+            if (
+                subscriptionApplied.getUserId() == null ||
+                subscriptionApplied.getBookId() == null
+            ) return;
+
+            GetSubscription getSubscription = new GetSubscription();
+            getSubscription.setId(subscriptionApplied.getId());
+            getSubscription.setUserId(subscriptionApplied.getUserId().getId());
+            getSubscription.setBookId(subscriptionApplied.getBookId().getId());
+            getSubscription.setStartSubscription(
+                subscriptionApplied.getStartSubscription()
+            );
+            getSubscription.setEndSubscription(
+                subscriptionApplied.getEndSubscription()
+            );
+            libraryBook(getSubscription.getBookId())
+                .ifPresent(book -> copy(book, getSubscription));
+            getSubscriptionRepository.save(getSubscription);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='SubscriptionBundleApplied'"
+    )
+    public void whenSubscriptionBundleApplied_then_CREATE_2(
+        @Payload SubscriptionBundleApplied subscriptionBundleApplied
+    ) {
+        try {
+            if (!subscriptionBundleApplied.validate()) return;
+            if (subscriptionBundleApplied.getUserId() == null) return;
+
+            // 묶음의 서재 항목은 한 번에 저장
+            List<GetSubscription> rows = new ArrayList<>();
+            for (SubscriptionBundleApplied.Item item : subscriptionBundleApplied.getSubscriptions()) {
+                GetSubscription getSubscription = new GetSubscription();
+                getSubscription.setId(item.getId());
+                getSubscription.setUserId(subscriptionBundleApplied.getUserId());
+                getSubscription.setBookId(item.getBookId());
+                getSubscription.setStartSubscription(item.getStartSubscription());
+                getSubscription.setEndSubscription(item.getEndSubscription());
+                libraryBook(item.getBookId())
+                    .ifPresent(book -> copy(book, getSubscription));
+                rows.add(getSubscription);
+            }
+            getSubscriptionRepository.saveAll(rows);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='SubscriptionCanceled'"
+    )
+    public void whenSubscriptionCanceled_then_DELETE_1(
+        @Payload SubscriptionCanceled subscriptionCanceled
+    ) {
+        try {
+            if (!subscriptionCanceled.validate()) return;
+            delete(subscriptionCanceled.getId());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='SubscriptionFailed'"
+    )
+    public void whenSubscriptionFailed_then_DELETE_2(
+        @Payload SubscriptionFailed subscriptionFailed
+    ) {
+        try {
+            if (!subscriptionFailed.validate()) return;
+            delete(subscriptionFailed.getId());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='SubscriptionExpired'"
+    )
+    public void whenSubscriptionExpired_then_DELETE_3(
+        @Payload SubscriptionExpired subscriptionExpired
+    ) {
+        try {
+            if (!subscriptionExpired.validate()) return;
+            // 만료 묶음은 한 번의 조회와 일괄 삭제로 반영
+            getSubscriptionRepository.deleteAll(
+                getSubscriptionRepository.findAllById(
+                    subscriptionExpired.getSubscriptionIds()
+                )
+            );
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='SubscriptionRenewed'"
+    )
+    public void whenSubscriptionRenewed_then_UPDATE_1(
+        @Payload SubscriptionRenewed subscriptionRenewed
+    ) {
+        try {
+            if (!subscriptionRenewed.validate()) return;
+            Map<Long, SubscriptionRenewed.Item> items = new HashMap<>();
+            for (SubscriptionRenewed.Item item : subscriptionRenewed.getSubscriptions()) {
+                items.put(item.getId(), item);
+            }
+            List<GetSubscription> renewed = new ArrayList<>();
+            getSubscriptionRepository
+                .findAllById(items.keySet())
+                .forEach(getSubscription -> {
+                    getSubscription.setEndSubscription(
+                        items.get(getSubscription.getId()).getEndSubscription()
+                    );
+                    renewed.add(getSubscription);
+                });
+            getSubscriptionRepository.saveAll(renewed);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.INPUT,
+        condition = "headers['type']=='BookRegistered'"
+    )
+    public void whenBookRegistered_then_UPDATE_2(
+        @Payload BookRegistered bookRegistered
+    ) {
+        try {
+            if (!bookRegistered.validate()) return;
+            LibraryBook book = new LibraryBook();
+            book.setId(bookRegistered.getId());
+            book.setBookName(bookRegistered.getBookName());
+            book.setAuthorName(bookRegistered.getAuthorName());
+            book.setCategory(bookRegistered.getCategory());
+            book.setImage(bookRegistered.getImage());
+            book.setWebUrl(bookRegistered.getWebUrl());
+            book.setPdfPath(bookRegistered.getPdfPath());
+            libraryBookRepository.save(book);
+
+            // 도서 정보보다 구독이 먼저 도착한 경우 비어 있던 서재 항목을 채운다
+            List<GetSubscription> rows = getSubscriptionRepository.findByBookId(
+                book.getId()
+            );
+            rows.forEach(getSubscription -> copy(book, getSubscription));
+            getSubscriptionRepository.saveAll(rows);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void delete(Long subscriptionId) {
+        if (subscriptionId != null && getSubscriptionRepository.existsById(subscriptionId)) {
+            getSubscriptionRepository.deleteById(subscriptionId);
+        }
+    }
+
+    // 등록 이벤트 이전에 등록된 도서는 플랫폼에서 한 번만 읽어 저장해 둔다
+    private Optional<LibraryBook> libraryBook(Long bookId) {
+        Optional<LibraryBook> cached = libraryBookRepository.findById(bookId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        try {
+            Map<?, ?> body = restTemplate.getForObject(
+                platformUrl + "/books/" + bookId,
+                Map.class
+            );
+            if (body == null) {
+                return Optional.empty();
+            }
+            LibraryBook book = new LibraryBook();
+            book.setId(bookId);
+            book.setBookName((String) body.get("bookName"));
+            book.setAuthorName((String) body.get("authorName"));
+            book.setCategory((String) body.get("category"));
+            book.setImage((String) body.get("image"));
+            book.setWebUrl((String) body.get("webUrl"));
+            book.setPdfPath((String) body.get("pdfPath"));
+            return Optional.of(libraryBookRepository.save(book));
+        } catch (Exception e) {
+            // 도서 등록 이벤트가 도착하면 채워진다
+            return Optional.empty();
+        }
+    }
+
+    private static void copy(LibraryBook book, GetSubscription getSubscription) {
+        getSubscription.setBookName(book.getBookName());
+        getSubscription.setAuthorName(book.getAuthorName());
+        getSubscription.setCategory(book.getCategory());
+        getSubscription.setImage(book.getImage());
+        getSubscription.setWebUrl(book.getWebUrl());
+        getSubscription.setPdfPath(book.getPdfPath());
+    }
+    //>>> DDD / CQRS
+}
@@ -0,0 +1,28 @@
+package ktlibrary.infra;
+
+import javax.persistence.*;
+import lombok.Data;
+
+//<<< EDA / CQRS
+// 서재 뷰에 복사할 도서 정보 (id = 도서 ID). 도서 등록 이벤트로 채우고, 없으면 플랫폼에서 한 번만 읽어 둔다.
+@Entity
+@Table(name = "LibraryBook_table")
+@Data
+public class LibraryBook {
+
+    @Id
+    private Long id;
+
+    private String bookName;
+
+    private String authorName;
+
+    private String category;
+
+    private String image;
+
+    private String webUrl;
+
+    private String pdfPath;
+}
+//>>> EDA / CQRS
@@ -0,0 +1,8 @@
+package ktlibrary.infra;
+
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+@RepositoryRestResource(exported = false)
+public interface LibraryBookRepository
+    extends PagingAndSortingRepository<LibraryBook, Long> {}
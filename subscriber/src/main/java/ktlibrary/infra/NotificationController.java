@@ -0,0 +1,118 @@
+package ktlibrary.infra;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import ktlibrary.domain.*;
+import ktlibrary.service.NotificationHub;
+import ktlibrary.service.NotificationInbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+//<<< Clean Arch / Inbound Adaptor
+
+// 스트림 연결은 오래 붙잡으므로 컨트롤러 트랜잭션을 두지 않는다 (알림함 메서드가 각자 트랜잭션을 연다)
+@RestController
+public class NotificationController {
+
+    @Autowired
+    NotificationInbox notificationInbox;
+
+    @Autowired
+    NotificationHub notificationHub;
+
+    // 최신순 커서 목록과 미읽음 수
+    @RequestMapping(
+        value = "/users/{id}/notifications",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> notifications(
+        @PathVariable(value = "id") Long id,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        Long beforeId = cursor != null
+            ? CursorToken.decodeLongs(cursor, "id", 1)[0]
+            : Long.MAX_VALUE;
+        List<Notification> notifications = notificationInbox.page(id, beforeId, pageSize);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("content", notifications);
+        result.put(
+            "nextCursor",
+            notifications.size() == pageSize
+                ? CursorToken.encode("id", notifications.get(notifications.size() - 1).getId())
+                : null
+        );
+        result.put("unread", notificationInbox.unread(id));
+        return result;
+    }
+
+    @RequestMapping(
+        value = "/users/{id}/notifications/unread",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> unread(
+        @PathVariable(value = "id") Long id,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("userId", id);
+        result.put("unread", notificationInbox.unread(id));
+        return result;
+    }
+
+    // upTo 알림까지 읽음 처리. 생략하면 모두 읽음
+    @RequestMapping(
+        value = "/users/{id}/notifications/read",
+        method = RequestMethod.PUT,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> markRead(
+        @PathVariable(value = "id") Long id,
+        @RequestParam(value = "upTo", required = false) Long upTo,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("userId", id);
+        result.put("unread", notificationInbox.markRead(id, upTo));
+        return result;
+    }
+
+    // 새 알림을 SSE 로 받는다. 이벤트 ID 는 구독자별 알림 순번이며,
+    // 재연결 시 브라우저가 보내는 Last-Event-ID 순번 이후의 알림을 먼저 보낸다
+    @RequestMapping(
+        value = "/users/{id}/notifications/stream",
+        method = RequestMethod.GET,
+        produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter stream(
+        @PathVariable(value = "id") Long id,
+        @RequestHeader(value = "Last-Event-ID", required = false) Long lastSeq,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        SseEmitter emitter = notificationHub.connect(id, lastSeq);
+        if (emitter == null) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+        // 게이트웨이/프록시가 이벤트를 모아 두지 않도록
+        response.setHeader("X-Accel-Buffering", "no");
+        return emitter;
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
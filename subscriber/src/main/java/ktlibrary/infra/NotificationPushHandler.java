@@ -0,0 +1,30 @@
+package ktlibrary.infra;
+
+import ktlibrary.config.kafka.KafkaProcessor;
+import ktlibrary.domain.*;
+import ktlibrary.service.NotificationHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.stream.annotation.StreamListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+//<<< Clean Arch / Inbound Adaptor
+// 모든 인스턴스가 받는 채널에서 새 알림을 받아 이 인스턴스에 연결된 구독자에게 보낸다
+@Service
+public class NotificationPushHandler {
+
+    @Autowired
+    NotificationHub notificationHub;
+
+    @StreamListener(
+        value = KafkaProcessor.BROADCAST_INPUT,
+        condition = "headers['type']=='NotificationsAdded'"
+    )
+    public void wheneverNotificationsAdded_Push(
+        @Payload NotificationsAdded notificationsAdded
+    ) {
+        if (!notificationsAdded.validate()) return;
+        notificationHub.push(notificationsAdded);
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
@@ -0,0 +1,57 @@
+package ktlibrary.infra;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import ktlibrary.domain.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+//<<< Clean Arch / Inbound Adaptor
+
+// 보관 테이블로 옮긴 지난 구독 이력. 구독 중/최근 구독은 /subscriptions 에서 조회한다
+@RestController
+public class SubscriptionArchiveController {
+
+    @Autowired
+    SubscriptionArchiveRepository subscriptionArchiveRepository;
+
+    @RequestMapping(
+        value = "/subscriptions/history",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> history(
+        @RequestParam(value = "userId") Long userId,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        Long beforeId = cursor != null
+            ? CursorToken.decodeLongs(cursor, "id", 1)[0]
+            : Long.MAX_VALUE;
+        List<SubscriptionArchive> archives = subscriptionArchiveRepository.findPage(
+            userId,
+            beforeId,
+            PageRequest.of(0, pageSize)
+        );
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("content", archives);
+        result.put(
+            "nextCursor",
+            archives.size() == pageSize
+                ? CursorToken.encode("id", archives.get(archives.size() - 1).getId())
+                : null
+        );
+        return result;
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
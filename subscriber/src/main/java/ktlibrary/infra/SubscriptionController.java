@@ -1,14 +1,22 @@
 package ktlibrary.infra;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.transaction.Transactional;
 import ktlibrary.domain.*;
+import ktlibrary.service.SubscriptionOutcomes;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 //<<< Clean Arch / Inbound Adaptor
 
@@ -17,9 +25,131 @@ import org.springframework.web.bind.annotation.RestController;
 @Transactional
 public class SubscriptionController {
 
+    private static final int MAX_BUNDLE_BOOKS = 100;
+
     @Autowired
     SubscriptionRepository subscriptionRepository;
 
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    SubscriptionOutcomes subscriptionOutcomes;
+
+    // 무한 스크롤용 커서 목록 (최신순). userId 를 주면 해당 구독자의 구독만
+    @RequestMapping(
+        value = "/subscriptions/scroll",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> scroll(
+        @RequestParam(value = "userId", required = false) Long userId,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        Long beforeId = cursor != null
+            ? CursorToken.decodeLongs(cursor, "id", 1)[0]
+            : Long.MAX_VALUE;
+        List<Subscription> subscriptions = userId != null
+            ? subscriptionRepository.findLatestByUserId(
+                userId,
+                beforeId,
+                PageRequest.of(0, pageSize)
+            )
+            : subscriptionRepository.findLatest(beforeId, PageRequest.of(0, pageSize));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("content", subscriptions);
+        result.put(
+            "nextCursor",
+            subscriptions.size() == pageSize
+                ? CursorToken.encode("id", subscriptions.get(subscriptions.size() - 1).getId())
+                : null
+        );
+        return result;
+    }
+
+    // 구독을 신청하고 포인트 차감 결과(SUBSCRIBED/FAILED)가 나올 때까지 응답을 미룬다. 제한 시간을 넘기면 PENDING
+    @RequestMapping(
+        value = "/subscriptions/apply",
+        method = RequestMethod.POST,
+        produces = "application/json;charset=UTF-8"
+    )
+    public DeferredResult<Map<String, Object>> applySubscription(
+        @RequestBody ApplySubscriptionCommand applySubscriptionCommand,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws Exception {
+        if (
+            applySubscriptionCommand.getUserId() == null ||
+            applySubscriptionCommand.getBookId() == null
+        ) {
+            throw new BadRequestException("userId 와 bookId 가 필요합니다.");
+        }
+        Subscription subscription = new Subscription();
+        subscription.setUserId(new UserId(applySubscriptionCommand.getUserId()));
+        subscription.setBookId(new BookId(applySubscriptionCommand.getBookId()));
+        subscription.setCorrelationId(UUID.randomUUID().toString());
+        // 유일 제약 위반이 커밋 시점이 아니라 여기서 드러나도록 바로 반영한다
+        try {
+            subscriptionRepository.save(subscription);
+            subscriptionRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            // 다른 인스턴스가 먼저 같은 도서의 구독을 저장했다 (uk_subscription_active)
+            throw new AlreadySubscribedException(
+                applySubscriptionCommand.getUserId(),
+                applySubscriptionCommand.getBookId()
+            );
+        }
+
+        // 구독권 보유자는 포인트를 차감하지 않으므로 기다릴 결과 이벤트가 없다
+        boolean purchased = userRepository
+            .findById(applySubscriptionCommand.getUserId())
+            .map(user -> Boolean.TRUE.equals(user.getIsPurchase()))
+            .orElse(false);
+        if (purchased) {
+            return subscriptionOutcomes.completed(
+                subscription.getId(),
+                SubscriptionOutcomes.SUBSCRIBED,
+                null
+            );
+        }
+        return subscriptionOutcomes.await(
+            subscription.getCorrelationId(),
+            subscription.getId()
+        );
+    }
+
+    // 시리즈/읽기 목록을 한 번에 구독. 모두 구독되거나 하나도 구독되지 않는다
+    @RequestMapping(
+        value = "/subscriptions/bundle",
+        method = RequestMethod.POST,
+        produces = "application/json;charset=UTF-8"
+    )
+    public List<Subscription> subscribeBundle(
+        @RequestBody SubscribeBundleCommand subscribeBundleCommand,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws Exception {
+        if (
+            subscribeBundleCommand.getUserId() == null ||
+            subscribeBundleCommand.getBookIds() == null ||
+            subscribeBundleCommand.getBookIds().isEmpty() ||
+            subscribeBundleCommand.getBookIds().contains(null)
+        ) {
+            throw new BadRequestException("userId 와 bookIds 가 필요합니다.");
+        }
+        if (subscribeBundleCommand.getBookIds().size() > MAX_BUNDLE_BOOKS) {
+            throw new BadRequestException(
+                "한 번에 구독할 수 있는 도서는 " + MAX_BUNDLE_BOOKS + "권까지입니다."
+            );
+        }
+        return Subscription.subscribeBundle(subscribeBundleCommand);
+    }
+
     @RequestMapping(
         value = "/subscriptions/{id}/cancelsubscription",
         method = RequestMethod.PUT,
@@ -0,0 +1,55 @@
+package ktlibrary.infra;
+
+import ktlibrary.config.kafka.KafkaProcessor;
+import ktlibrary.domain.*;
+import ktlibrary.service.SubscriptionOutcomes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.stream.annotation.StreamListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+//<<< Clean Arch / Inbound Adaptor
+// 모든 인스턴스가 받는 채널. 구독 해제 등 상태 변경은 PolicyHandler 가 하고 여기서는 붙잡은 요청에 응답만 한다
+@Service
+public class SubscriptionOutcomeHandler {
+
+    @Autowired
+    SubscriptionOutcomes subscriptionOutcomes;
+
+    @StreamListener(KafkaProcessor.BROADCAST_INPUT)
+    public void whatever(@Payload String eventString) {}
+
+    @StreamListener(
+        value = KafkaProcessor.BROADCAST_INPUT,
+        condition = "headers['type']=='PointDecreased'"
+    )
+    public void wheneverPointDecreased_CompleteSubscription(
+        @Payload PointDecreased pointDecreased,
+        @Header(value = "correlationId", required = false) String correlationId
+    ) {
+        subscriptionOutcomes.complete(
+            correlationId,
+            SubscriptionOutcomes.SUBSCRIBED,
+            null
+        );
+    }
+
+    @StreamListener(
+        value = KafkaProcessor.BROADCAST_INPUT,
+        condition = "headers['type']=='OutOfPoint'"
+    )
+    public void wheneverOutOfPoint_CompleteSubscription(
+        @Payload OutOfPoint outOfPoint,
+        @Header(value = "correlationId", required = false) String correlationId
+    ) {
+        subscriptionOutcomes.complete(
+            correlationId,
+            SubscriptionOutcomes.FAILED,
+            OutOfPoint.BOOK_NOT_FOUND.equals(outOfPoint.getReason())
+                ? User.BOOK_NOT_FOUND_MESSAGE
+                : User.OUT_OF_POINT_MESSAGE
+        );
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
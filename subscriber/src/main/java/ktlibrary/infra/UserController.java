@@ -1,11 +1,16 @@
 package ktlibrary.infra;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.transaction.Transactional;
 import ktlibrary.domain.*;
+import ktlibrary.service.EntitlementIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -17,9 +22,88 @@ import org.springframework.web.bind.annotation.RestController;
 @Transactional
 public class UserController {
 
+    private static final int MAX_ACCESS_BATCH = 500;
+
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    EntitlementIndex entitlementIndex;
+
+    // 무한 스크롤용 커서 목록 (최신순)
+    @RequestMapping(
+        value = "/users/scroll",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> scroll(
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        Long beforeId = cursor != null
+            ? CursorToken.decodeLongs(cursor, "id", 1)[0]
+            : Long.MAX_VALUE;
+        List<User> users = userRepository.findLatest(
+            beforeId,
+            PageRequest.of(0, pageSize)
+        );
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("content", users);
+        result.put(
+            "nextCursor",
+            users.size() == pageSize
+                ? CursorToken.encode("id", users.get(users.size() - 1).getId())
+                : null
+        );
+        return result;
+    }
+
+    // 도서 열람 권한 (구독권 보유 또는 해당 도서 구독 중). DB 를 조회하지 않는다
+    @RequestMapping(
+        value = "/users/{id}/access/{bookId}",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> access(
+        @PathVariable(value = "id") Long id,
+        @PathVariable(value = "bookId") Long bookId,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("userId", id);
+        result.put("bookId", bookId);
+        result.put("hasAccess", entitlementIndex.hasAccess(id, bookId));
+        return result;
+    }
+
+    // 여러 도서의 열람 권한을 한 번에 확인 (?bookIds=1,2,3)
+    @RequestMapping(
+        value = "/users/{id}/access",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public Map<String, Object> accessBatch(
+        @PathVariable(value = "id") Long id,
+        @RequestParam(value = "bookIds") List<Long> bookIds,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        if (bookIds.size() > MAX_ACCESS_BATCH) {
+            throw new BadRequestException(
+                "한 번에 확인할 수 있는 도서는 " + MAX_ACCESS_BATCH + "권까지입니다."
+            );
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("userId", id);
+        result.put("access", entitlementIndex.hasAccess(id, bookIds));
+        return result;
+    }
+
     @RequestMapping(
         value = "/users/{id}/buysubscription",
         method = RequestMethod.PUT,
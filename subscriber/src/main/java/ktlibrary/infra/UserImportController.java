@@ -0,0 +1,73 @@
+package ktlibrary.infra;
+
+import java.io.IOException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import ktlibrary.domain.*;
+import ktlibrary.service.UserImporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+//<<< Clean Arch / Inbound Adaptor
+
+// 가져오기는 묶음마다 따로 커밋해야 하므로 컨트롤러 트랜잭션을 두지 않는다
+@RestController
+public class UserImportController {
+
+    @Autowired
+    UserImporter userImporter;
+
+    // 본문을 CSV(text/csv, 첫 줄은 email,userName,isPurchase 헤더) 또는 NDJSON(application/x-ndjson)으로 올린다
+    @RequestMapping(
+        value = "/users/import",
+        method = RequestMethod.POST,
+        produces = "application/json;charset=UTF-8"
+    )
+    public UserImport importUsers(
+        @RequestParam(value = "format", required = false) String format,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        String resolved = format != null ? format.toLowerCase() : formatOf(request.getContentType());
+        if (!UserImporter.CSV.equals(resolved) && !UserImporter.NDJSON.equals(resolved)) {
+            response.sendError(
+                HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                "format 은 csv 또는 ndjson 이어야 합니다."
+            );
+            return null;
+        }
+        return userImporter.run(request.getInputStream(), resolved);
+    }
+
+    // 진행 중인 가져오기도 처리한 행 수와 실패한 행을 바로 확인할 수 있다
+    @RequestMapping(
+        value = "/users/imports/{id}",
+        method = RequestMethod.GET,
+        produces = "application/json;charset=UTF-8"
+    )
+    public UserImport importStatus(
+        @PathVariable(value = "id") Long id,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        UserImport userImport = userImporter.get(id);
+        if (userImport == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+        return userImport;
+    }
+
+    private static String formatOf(String contentType) {
+        if (contentType == null) {
+            return UserImporter.CSV;
+        }
+        String type = contentType.toLowerCase();
+        if (type.contains("ndjson") || type.contains("json")) {
+            return UserImporter.NDJSON;
+        }
+        return type.contains("csv") || type.startsWith("text/plain") ? UserImporter.CSV : null;
+    }
+}
+//>>> Clean Arch / Inbound Adaptor
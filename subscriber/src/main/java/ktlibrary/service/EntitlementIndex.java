@@ -0,0 +1,277 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+import ktlibrary.domain.Subscription;
+import ktlibrary.domain.SubscriptionRepository;
+import ktlibrary.domain.User;
+import ktlibrary.domain.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 구독자별 열람 권한. 구독 중인 도서 ID 집합(IdBitmap)과 구독권 보유 여부를 메모리에 두어
+ * 구독 테이블을 조회하지 않고 권한을 확인한다. 변경은 커밋된 뒤에 반영하고,
+ * 신규 구독만 커밋 전에 자리를 잡아 같은 도서의 중복 구독을 막는다. 이 중복 확인은 한 인스턴스 안에서만
+ * 유효한 빠른 경로이며, 여러 인스턴스에 동시에 들어온 신청은 구독 테이블의 유일 제약(uk_subscription_active)이 막는다.
+ * 다른 인스턴스에서 일어난 변경은 모든 인스턴스가 받는 채널의 구독 이벤트로 알게 되며,
+ * 이벤트가 순서 없이 도착해도 되도록 이벤트 내용 대신 해당 구독자의 권한을 DB 에서 다시 읽는다.
+ */
+@Service
+public class EntitlementIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        EntitlementIndex.class
+    );
+
+    @Value("${subscriber.entitlement.load-page-size:1000}")
+    private int loadPageSize;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, Entitlement> entitlements = new ConcurrentHashMap<>();
+
+    // 커밋 전인 신규 구독의 자리. DB 에서 다시 읽을 때 아직 보이지 않는 자리를 잃지 않도록 따로 둔다.
+    // entitlements 의 같은 키 compute 안에서만 바꾼다
+    private final Map<Long, Set<Long>> reserving = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        long started = System.currentTimeMillis();
+        long count = 0;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<Subscription> subscriptions = subscriptionRepository.findActiveAfter(
+                afterId,
+                PageRequest.of(0, loadPageSize)
+            );
+            for (Subscription subscription : subscriptions) {
+                Long userId = userIdOf(subscription);
+                Long bookId = bookIdOf(subscription);
+                if (userId != null && bookId != null) {
+                    entitlements.compute(userId, (key, current) -> with(current, bookId));
+                    count++;
+                }
+            }
+            if (subscriptions.size() < loadPageSize) {
+                break;
+            }
+            afterId = subscriptions.get(subscriptions.size() - 1).getId();
+        }
+        for (Long userId : userRepository.findPurchasedUserIds()) {
+            entitlements.compute(userId, (key, current) -> withPurchase(current, true));
+        }
+        logger.info(
+            "열람 권한 적재 완료: 구독자 {}명, 구독 {}건, {}ms",
+            entitlements.size(),
+            count,
+            System.currentTimeMillis() - started
+        );
+    }
+
+    // 구독권이 있거나 해당 도서를 구독 중이면 열람 가능
+    public boolean hasAccess(Long userId, Long bookId) {
+        Entitlement entitlement = entitlements.get(userId);
+        return (
+            entitlement != null &&
+            (entitlement.purchase || (bookId != null && entitlement.books.contains(bookId)))
+        );
+    }
+
+    public Map<Long, Boolean> hasAccess(Long userId, List<Long> bookIds) {
+        Entitlement entitlement = entitlements.get(userId);
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long bookId : bookIds) {
+            result.put(
+                bookId,
+                entitlement != null &&
+                (entitlement.purchase || entitlement.books.contains(bookId))
+            );
+        }
+        return result;
+    }
+
+    // 신규 구독의 자리를 잡는다. 이 인스턴스가 아는 범위에서 이미 구독 중이면 false.
+    // 트랜잭션이 커밋되지 않으면(다른 인스턴스와 겹쳐 유일 제약에 걸린 경우 포함) 자리를 되돌린다
+    public boolean reserve(Long userId, Long bookId) {
+        boolean[] reserved = new boolean[1];
+        entitlements.compute(
+            userId,
+            (key, current) -> {
+                if (current != null && current.books.contains(bookId)) {
+                    return current;
+                }
+                reserved[0] = true;
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    reserving.computeIfAbsent(userId, k -> new HashSet<>()).add(bookId);
+                }
+                return with(current, bookId);
+            }
+        );
+        if (reserved[0] && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        boolean committed = status == TransactionSynchronization.STATUS_COMMITTED;
+                        entitlements.compute(
+                            userId,
+                            (key, current) -> {
+                                reserving.computeIfPresent(
+                                    userId,
+                                    (k, books) -> {
+                                        books.remove(bookId);
+                                        return books.isEmpty() ? null : books;
+                                    }
+                                );
+                                // 커밋됐으면 그 사이 DB 에서 다시 읽어 자리가 빠졌어도 다시 넣는다
+                                if (committed) {
+                                    return with(current, bookId);
+                                }
+                                return current != null ? without(current, bookId) : null;
+                            }
+                        );
+                    }
+                }
+            );
+        }
+        return reserved[0];
+    }
+
+    // 다른 인스턴스의 변경을 포함해 구독자들의 권한을 DB 의 현재 상태로 맞춘다. 커밋 전인 자리는 유지한다
+    public void refresh(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        ids.remove(null);
+        for (int from = 0; from < ids.size(); from += loadPageSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + loadPageSize));
+            Map<Long, IdBitmap> books = new HashMap<>();
+            for (Subscription subscription : subscriptionRepository.findActiveByUserIds(chunk)) {
+                Long userId = userIdOf(subscription);
+                Long bookId = bookIdOf(subscription);
+                if (userId != null && bookId != null) {
+                    books.merge(userId, IdBitmap.EMPTY.with(bookId), (a, b) -> a.with(bookId));
+                }
+            }
+            Map<Long, Boolean> purchases = new HashMap<>();
+            for (User user : userRepository.findAllById(chunk)) {
+                purchases.put(user.getId(), Boolean.TRUE.equals(user.getIsPurchase()));
+            }
+            for (Long userId : chunk) {
+                IdBitmap loaded = books.getOrDefault(userId, IdBitmap.EMPTY);
+                boolean purchase = purchases.getOrDefault(userId, false);
+                entitlements.compute(
+                    userId,
+                    (key, current) -> of(merge(loaded, reserving.get(userId)), purchase)
+                );
+            }
+        }
+    }
+
+    public void grant(Long userId, Long bookId) {
+        afterCommit(() ->
+            entitlements.compute(userId, (key, current) -> with(current, bookId))
+        );
+    }
+
+    public void revoke(Long userId, Long bookId) {
+        afterCommit(() ->
+            entitlements.computeIfPresent(
+                userId,
+                (key, current) -> without(current, bookId)
+            )
+        );
+    }
+
+    public void setPurchase(Long userId, boolean purchase) {
+        afterCommit(() ->
+            entitlements.compute(userId, (key, current) -> withPurchase(current, purchase))
+        );
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+
+    private static Entitlement with(Entitlement current, Long bookId) {
+        if (current == null) {
+            return new Entitlement(IdBitmap.EMPTY.with(bookId), false);
+        }
+        return new Entitlement(current.books.with(bookId), current.purchase);
+    }
+
+    private static IdBitmap merge(IdBitmap books, Set<Long> reserved) {
+        if (reserved == null) {
+            return books;
+        }
+        for (Long bookId : reserved) {
+            books = books.with(bookId);
+        }
+        return books;
+    }
+
+    // 구독도 구독권도 없는 구독자는 지운다
+    private static Entitlement without(Entitlement current, Long bookId) {
+        IdBitmap books = current.books.without(bookId);
+        return books.isEmpty() && !current.purchase
+            ? null
+            : new Entitlement(books, current.purchase);
+    }
+
+    private static Entitlement withPurchase(Entitlement current, boolean purchase) {
+        return of(current != null ? current.books : IdBitmap.EMPTY, purchase);
+    }
+
+    private static Entitlement of(IdBitmap books, boolean purchase) {
+        return books.isEmpty() && !purchase ? null : new Entitlement(books, purchase);
+    }
+
+    private static Long userIdOf(Subscription subscription) {
+        return subscription.getUserId() != null ? subscription.getUserId().getId() : null;
+    }
+
+    private static Long bookIdOf(Subscription subscription) {
+        return subscription.getBookId() != null ? subscription.getBookId().getId() : null;
+    }
+
+    private static class Entitlement {
+
+        private final IdBitmap books;
+        private final boolean purchase;
+
+        Entitlement(IdBitmap books, boolean purchase) {
+            this.books = books;
+            this.purchase = purchase;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package ktlibrary.service;
+
+import java.util.Arrays;
+
+/**
+ * 변경 불가능한 압축 ID 집합 (Roaring 방식). ID 의 상위 비트(id >>> 16)별로 컨테이너를 두고,
+ * 컨테이너는 원소가 적으면 하위 16비트의 정렬 배열, 많으면 65536 비트 비트맵으로 보관한다.
+ * 추가/삭제는 바뀐 컨테이너만 복사한 새 집합을 반환하므로 조회는 잠금 없이 할 수 있다.
+ */
+public final class IdBitmap {
+
+    public static final IdBitmap EMPTY = new IdBitmap(new long[0], new Object[0]);
+
+    // 배열 컨테이너가 이보다 커지면 비트맵(8KB)이 더 작다
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private final long[] keys;
+
+    // char[] (정렬된 하위 16비트) 또는 long[BITMAP_WORDS]
+    private final Object[] containers;
+
+    private IdBitmap(long[] keys, Object[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+    }
+
+    public boolean contains(long id) {
+        int index = Arrays.binarySearch(keys, id >>> 16);
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) id;
+        Object container = containers[index];
+        if (container instanceof char[]) {
+            return Arrays.binarySearch((char[]) container, low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    public IdBitmap with(long id) {
+        long key = id >>> 16;
+        char low = (char) id;
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            int position = -index - 1;
+            long[] newKeys = new long[keys.length + 1];
+            Object[] newContainers = new Object[containers.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(containers, 0, newContainers, 0, position);
+            newKeys[position] = key;
+            newContainers[position] = new char[] { low };
+            System.arraycopy(keys, position, newKeys, position + 1, keys.length - position);
+            System.arraycopy(
+                containers,
+                position,
+                newContainers,
+                position + 1,
+                containers.length - position
+            );
+            return new IdBitmap(newKeys, newContainers);
+        }
+
+        Object container = containers[index];
+        Object updated;
+        if (container instanceof char[]) {
+            char[] values = (char[]) container;
+            int position = Arrays.binarySearch(values, low);
+            if (position >= 0) {
+                return this;
+            }
+            position = -position - 1;
+            if (values.length >= ARRAY_LIMIT) {
+                long[] bitmap = toBitmap(values);
+                bitmap[low >>> 6] |= 1L << low;
+                updated = bitmap;
+            } else {
+                char[] newValues = new char[values.length + 1];
+                System.arraycopy(values, 0, newValues, 0, position);
+                newValues[position] = low;
+                System.arraycopy(values, position, newValues, position + 1, values.length - position);
+                updated = newValues;
+            }
+        } else {
+            long[] bitmap = (long[]) container;
+            if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+                return this;
+            }
+            long[] newBitmap = bitmap.clone();
+            newBitmap[low >>> 6] |= 1L << low;
+            updated = newBitmap;
+        }
+        return replace(index, updated);
+    }
+
+    public IdBitmap without(long id) {
+        int index = Arrays.binarySearch(keys, id >>> 16);
+        if (index < 0) {
+            return this;
+        }
+        char low = (char) id;
+        Object container = containers[index];
+        Object updated;
+        if (container instanceof char[]) {
+            char[] values = (char[]) container;
+            int position = Arrays.binarySearch(values, low);
+            if (position < 0) {
+                return this;
+            }
+            if (values.length == 1) {
+                return remove(index);
+            }
+            char[] newValues = new char[values.length - 1];
+            System.arraycopy(values, 0, newValues, 0, position);
+            System.arraycopy(values, position + 1, newValues, position, values.length - position - 1);
+            updated = newValues;
+        } else {
+            long[] bitmap = (long[]) container;
+            if ((bitmap[low >>> 6] & (1L << low)) == 0) {
+                return this;
+            }
+            long[] newBitmap = bitmap.clone();
+            newBitmap[low >>> 6] &= ~(1L << low);
+            // 원소가 다시 줄어들면 배열 컨테이너로 되돌린다
+            updated = cardinality(newBitmap) <= ARRAY_LIMIT ? toArray(newBitmap) : newBitmap;
+        }
+        return replace(index, updated);
+    }
+
+    private IdBitmap replace(int index, Object container) {
+        Object[] newContainers = containers.clone();
+        newContainers[index] = container;
+        return new IdBitmap(keys, newContainers);
+    }
+
+    private IdBitmap remove(int index) {
+        if (keys.length == 1) {
+            return EMPTY;
+        }
+        long[] newKeys = new long[keys.length - 1];
+        Object[] newContainers = new Object[containers.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(containers, index + 1, newContainers, index, containers.length - index - 1);
+        return new IdBitmap(newKeys, newContainers);
+    }
+
+    private static long[] toBitmap(char[] values) {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for (char value : values) {
+            bitmap[value >>> 6] |= 1L << value;
+        }
+        return bitmap;
+    }
+
+    private static char[] toArray(long[] bitmap) {
+        char[] values = new char[cardinality(bitmap)];
+        int size = 0;
+        for (int word = 0; word < bitmap.length; word++) {
+            long bits = bitmap[word];
+            while (bits != 0) {
+                values[size++] = (char) (word << 6 | Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return values;
+    }
+
+    private static int cardinality(long[] bitmap) {
+        int count = 0;
+        for (long bits : bitmap) {
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,182 @@
+package ktlibrary.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import ktlibrary.domain.Notification;
+import ktlibrary.domain.NotificationsAdded;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 알림 SSE 연결. 연결은 서블릿 비동기 요청으로 붙잡아 두므로 대기 중인 연결은 스레드를 쓰지 않고,
+ * 알림 전송과 연결 유지용 heartbeat 만 적은 수의 전송 스레드에서 처리한다.
+ * 이벤트 ID 는 구독자별 알림 순번이며, 재연결 시 Last-Event-ID 순번 이후의 알림을 다시 보내므로
+ * 연결이 끊긴 사이의 알림도 놓치지 않는다.
+ */
+@Service
+public class NotificationHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        NotificationHub.class
+    );
+
+    public static final String EVENT_NAME = "notification";
+
+    @Value("${subscriber.notification.sse-timeout-ms:1800000}")
+    private long sseTimeoutMillis;
+
+    @Value("${subscriber.notification.max-connections:50000}")
+    private int maxConnections;
+
+    @Value("${subscriber.notification.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${subscriber.notification.replay-limit:100}")
+    private int replayLimit;
+
+    @Value("${subscriber.notification.push-threads:2}")
+    private int pushThreads;
+
+    @Autowired
+    private NotificationInbox notificationInbox;
+
+    private final Map<Long, List<SseEmitter>> connections = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private ExecutorService pusher;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        pusher =
+            Executors.newFixedThreadPool(
+                pushThreads,
+                r -> new Thread(r, "notification-push-" + sequence.incrementAndGet())
+            );
+    }
+
+    @PreDestroy
+    public void stop() {
+        pusher.shutdownNow();
+        connections.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    // 연결 수 한도를 넘으면 null
+    public SseEmitter connect(Long userId, Long lastSeq) {
+        if (connectionCount.get() >= maxConnections) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        boolean[] added = new boolean[1];
+        connections.compute(
+            userId,
+            (key, emitters) -> {
+                List<SseEmitter> current = emitters != null
+                    ? emitters
+                    : new CopyOnWriteArrayList<>();
+                if (current.size() < maxConnectionsPerUser) {
+                    current.add(emitter);
+                    added[0] = true;
+                }
+                return current.isEmpty() ? null : current;
+            }
+        );
+        if (!added[0]) {
+            return null;
+        }
+        connectionCount.incrementAndGet();
+        Runnable remove = () -> remove(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        // 등록한 뒤에 놓친 알림을 보내므로 그 사이 도착한 알림은 두 번 갈 수 있다 (클라이언트는 이벤트 ID 로 거른다)
+        long unread = notificationInbox.unread(userId);
+        pusher.execute(() -> {
+            send(userId, emitter, SseEmitter.event().name("unread").data(unread));
+            if (lastSeq != null) {
+                for (Notification notification : notificationInbox.after(userId, lastSeq, replayLimit)) {
+                    send(userId, emitter, event(notification.getSeq(), notification));
+                }
+            }
+        });
+        return emitter;
+    }
+
+    // 이 인스턴스에 연결된 구독자에게만 보낸다. 다른 인스턴스도 같은 이벤트를 받아 자기 연결로 보낸다
+    public void push(NotificationsAdded notificationsAdded) {
+        for (NotificationsAdded.Item item : notificationsAdded.getNotifications()) {
+            List<SseEmitter> emitters = connections.get(item.getUserId());
+            if (emitters == null || emitters.isEmpty()) {
+                continue;
+            }
+            pusher.execute(() -> {
+                for (SseEmitter emitter : emitters) {
+                    send(item.getUserId(), emitter, event(item.getSeq(), item));
+                }
+            });
+        }
+    }
+
+    // 프록시/게이트웨이가 유휴 연결을 끊지 않도록 주석 한 줄을 보내고, 끊긴 연결을 정리한다
+    @Scheduled(fixedDelayString = "${subscriber.notification.heartbeat-ms:25000}")
+    public void heartbeat() {
+        pusher.execute(() ->
+            connections.forEach((userId, emitters) -> {
+                for (SseEmitter emitter : emitters) {
+                    send(userId, emitter, SseEmitter.event().comment("heartbeat"));
+                }
+            })
+        );
+    }
+
+    public int connectionCount() {
+        return connectionCount.get();
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트가 끊은 연결
+            logger.debug("알림 전송 실패 (userId={}): {}", userId, e.getMessage());
+            emitter.completeWithError(e);
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        connections.computeIfPresent(
+            userId,
+            (key, emitters) -> {
+                if (emitters.remove(emitter)) {
+                    connectionCount.decrementAndGet();
+                }
+                return emitters.isEmpty() ? null : emitters;
+            }
+        );
+    }
+
+    private static SseEmitter.SseEventBuilder event(Long seq, Object data) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event();
+        if (seq != null) {
+            event.id(String.valueOf(seq));
+        }
+        return event.name(EVENT_NAME).data(data, MediaType.APPLICATION_JSON);
+    }
+}
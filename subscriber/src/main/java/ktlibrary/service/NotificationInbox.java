@@ -0,0 +1,118 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.transaction.Transactional;
+import ktlibrary.domain.Notification;
+import ktlibrary.domain.NotificationRepository;
+import ktlibrary.domain.NotificationsAdded;
+import ktlibrary.domain.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * 구독자 알림함. 알림은 추가만 하고, 알림마다 구독자별로 빈틈 없는 순번을 붙인다.
+ * 미읽음 수는 구독자의 마지막 알림 순번과 읽은 순번의 차이라 조회 시 세지 않는다.
+ * 알림 ID 는 인스턴스마다 미리 할당받은 구간에서 나와 추가 순서와 다를 수 있으므로 읽음 여부에 쓰지 않는다.
+ */
+@Service
+public class NotificationInbox {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Transactional
+    public void append(Notification notification) {
+        appendAll(List.of(notification));
+    }
+
+    // 묶음으로 저장하고 구독자별 알림 순번은 구독자당 한 번만 늘린다. 푸시 이벤트도 묶음당 한 건
+    @Transactional
+    public void appendAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        // 동시에 여러 구독자의 알림을 추가하는 묶음끼리 교착되지 않도록 구독자 ID 순서로 잠근다
+        Map<Long, List<Notification>> byUser = new TreeMap<>();
+        for (Notification notification : notifications) {
+            byUser
+                .computeIfAbsent(notification.getUserId(), key -> new ArrayList<>())
+                .add(notification);
+        }
+        byUser.forEach((userId, added) -> {
+            if (userRepository.addNotifications(userId, added.size()) == 0) {
+                return;
+            }
+            long seq = userRepository.findNotificationSeq(userId) - added.size();
+            for (Notification notification : added) {
+                notification.setSeq(++seq);
+            }
+        });
+        notificationRepository.saveAll(notifications);
+
+        List<NotificationsAdded.Item> items = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            items.add(
+                new NotificationsAdded.Item(
+                    notification.getId(),
+                    notification.getSeq(),
+                    notification.getUserId(),
+                    notification.getType(),
+                    notification.getMessage(),
+                    notification.getCreatedAt()
+                )
+            );
+        }
+
+        NotificationsAdded notificationsAdded = new NotificationsAdded();
+        notificationsAdded.setNotifications(items);
+        notificationsAdded.publishAfterCommit();
+    }
+
+    public int unread(Long userId) {
+        Long unread = userRepository.findUnreadNotifications(userId);
+        return unread != null ? unread.intValue() : 0;
+    }
+
+    // 최신순 목록. 읽은 순번 이하는 읽은 알림이다
+    public List<Notification> page(Long userId, Long before, int size) {
+        long readSeq = readSeq(userId);
+        List<Notification> notifications = notificationRepository.findPage(
+            userId,
+            before,
+            PageRequest.of(0, size)
+        );
+        notifications.forEach(notification ->
+            notification.setRead(notification.getSeq() != null && notification.getSeq() <= readSeq)
+        );
+        return notifications;
+    }
+
+    // afterSeq 순번 이후의 알림을 순번 순서로
+    public List<Notification> after(Long userId, Long afterSeq, int size) {
+        return notificationRepository.findAfterSeq(userId, afterSeq, PageRequest.of(0, size));
+    }
+
+    // upTo 알림까지(없으면 커밋된 최신 알림까지) 읽음 처리. 아직 커밋되지 않은 알림은 순번이 더 뒤라 미읽음으로 남는다
+    @Transactional
+    public int markRead(Long userId, Long upTo) {
+        Long target = upTo != null
+            ? notificationRepository.findSeqUpTo(userId, upTo)
+            : userRepository.findNotificationSeq(userId);
+        if (target != null && target > 0) {
+            userRepository.markNotificationsRead(userId, target);
+        }
+        return unread(userId);
+    }
+
+    private long readSeq(Long userId) {
+        Long readSeq = userRepository.findReadNotificationSeq(userId);
+        return readSeq != null ? readSeq : 0L;
+    }
+}
@@ -0,0 +1,126 @@
+package ktlibrary.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import ktlibrary.domain.SubscriptionArchive;
+import ktlibrary.domain.SubscriptionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 취소/실패/만료되어 보관 기간이 지난 구독을 보관 테이블로 옮기고 구독 테이블에서 지운다.
+ * 끝난 시각 인덱스를 따라 대상만 읽고, 묶음(chunk)마다 한 트랜잭션에서 옮기기와 지우기를 함께 한다.
+ * 구독 테이블에는 구독 중이거나 최근에 끝난 구독만 남는다.
+ */
+@Component
+public class SubscriptionArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        SubscriptionArchiver.class
+    );
+
+    @Value("${subscriber.archive.retention-days:90}")
+    private long retentionDays;
+
+    @Value("${subscriber.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${subscriber.archive.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    // 끝난 시각이 없는 기존 구독은 기동 후 첫 실행에서 한 번만 기록한다
+    private boolean stamped;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${subscriber.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        long started = System.currentTimeMillis();
+        int archived = 0;
+        try {
+            if (!stamped) {
+                Integer count = transactionTemplate.execute(status ->
+                    subscriptionRepository.stampEnded(new Date())
+                );
+                stamped = true;
+                if (count != null && count > 0) {
+                    logger.info("끝난 시각이 없던 구독 {}건에 현재 시각 기록", count);
+                }
+            }
+
+            Date cutoff = new Date(started - TimeUnit.DAYS.toMillis(retentionDays));
+            // 한 번에 너무 오래 돌지 않도록 실행당 묶음 수를 제한하고 나머지는 다음 실행에서 옮긴다
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                List<Long> ids = subscriptionRepository.findEndedBefore(
+                    cutoff,
+                    PageRequest.of(0, chunkSize)
+                );
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Integer moved = transactionTemplate.execute(status -> move(ids));
+                archived += moved != null ? moved : 0;
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+            }
+            logger.info(
+                "구독 보관 완료 (~{}): {}건, {}ms",
+                cutoff,
+                archived,
+                System.currentTimeMillis() - started
+            );
+        } catch (Exception e) {
+            // 옮긴 묶음은 커밋되었으므로 다음 실행에서 남은 구독부터 이어서 옮긴다
+            logger.error("구독 보관 실패 ({}건 보관 후): {}", archived, e.getMessage(), e);
+        }
+    }
+
+    private int move(List<Long> ids) {
+        Date archivedAt = new Date();
+        List<Long> moved = new ArrayList<>(ids.size());
+        subscriptionRepository
+            .findAllById(ids)
+            .forEach(subscription -> {
+                // 조회 이후 다시 구독 중으로 바뀐 구독은 옮기지 않는다
+                if (!Boolean.FALSE.equals(subscription.getIsSubscription())) {
+                    return;
+                }
+                // ID 를 그대로 쓰므로 merge(조회 후 저장) 대신 바로 INSERT 한다
+                entityManager.persist(SubscriptionArchive.of(subscription, archivedAt));
+                moved.add(subscription.getId());
+            });
+        entityManager.flush();
+        // 끝난 구독은 열람 권한/서재 뷰에 남아 있지 않으므로 콜백 없이 한 번에 지운다
+        if (!moved.isEmpty()) {
+            subscriptionRepository.deleteByIds(moved);
+        }
+        return moved.size();
+    }
+}
@@ -0,0 +1,283 @@
+package ktlibrary.service;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import ktlibrary.domain.Notification;
+import ktlibrary.domain.Subscription;
+import ktlibrary.domain.SubscriptionExpired;
+import ktlibrary.domain.SubscriptionRenewed;
+import ktlibrary.domain.SubscriptionRepository;
+import ktlibrary.domain.User;
+import ktlibrary.domain.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 종료 날짜 인덱스를 따라 이번 버킷이 끝나기 전에 종료되는 구독만 찾아, 자동 연장을 신청한 구독자의
+ * 구독은 연장하고 나머지는 종료 시각이 지난 뒤 만료한다. 전체 구독을 훑지 않는다.
+ * 한 페이지를 구독자 기준으로 나누어 병렬로 처리하며, 나눈 묶음마다 한 트랜잭션에서 처리하고
+ * 연장/만료 이벤트도 묶음당 한 건씩 발행한다. 구독의 버전을 확인하므로 실행이 겹치거나 여러 인스턴스가
+ * 함께 돌아도 한 구독은 한 번만 연장된다.
+ */
+@Component
+public class SubscriptionExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        SubscriptionExpiryScheduler.class
+    );
+
+    @Value("${subscriber.expiry.bucket-minutes:60}")
+    private long bucketMinutes;
+
+    @Value("${subscriber.expiry.page-size:1000}")
+    private int pageSize;
+
+    @Value("${subscriber.expiry.parallelism:4}")
+    private int parallelism;
+
+    @Value("${subscriber.expiry.batch-timeout-seconds:60}")
+    private long batchTimeoutSeconds;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationInbox notificationInbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger sequence = new AtomicInteger();
+        executor =
+            Executors.newFixedThreadPool(
+                parallelism,
+                r -> new Thread(r, "subscription-expiry-" + sequence.incrementAndGet())
+            );
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${subscriber.expiry.cron:0 */10 * * * *}")
+    public void processEndingSubscriptions() {
+        Date now = new Date();
+        // 연장은 이번 버킷이 끝나기 전에 종료될 구독까지 미리 처리해 종료 시각을 넘기지 않게 한다
+        long bucketMillis = TimeUnit.MINUTES.toMillis(bucketMinutes);
+        Date until = new Date((now.getTime() / bucketMillis + 1) * bucketMillis);
+
+        long started = System.currentTimeMillis();
+        int[] totals = new int[2];
+        // 처리 위치를 기억하지 않는다. 구독 중인 구독만 읽으므로 처리된 구독은 다시 읽히지 않고,
+        // 장애 등으로 지난 실행에서 놓친 구독은 얼마나 오래되었든 이번 실행에서 처리된다
+        Date afterEnd = null;
+        Long afterId = Long.MIN_VALUE;
+        try {
+            while (true) {
+                List<Subscription> page = subscriptionRepository.findEnding(
+                    afterEnd,
+                    afterId,
+                    until,
+                    PageRequest.of(0, pageSize)
+                );
+                int[] counts = processPage(page, now, until);
+                totals[0] += counts[0];
+                totals[1] += counts[1];
+                if (page.size() < pageSize) {
+                    break;
+                }
+                Subscription last = page.get(page.size() - 1);
+                afterEnd = last.getEndSubscription();
+                afterId = last.getId();
+            }
+            logger.info(
+                "구독 만료 처리 완료 (~{}): 연장 {}건, 만료 {}건, {}ms",
+                until,
+                totals[0],
+                totals[1],
+                System.currentTimeMillis() - started
+            );
+        } catch (Exception e) {
+            // 처리하지 못한 구독은 구독 중으로 남아 있으므로 다음 실행에서 다시 읽힌다
+            logger.error("구독 만료 처리 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    // 같은 구독자의 구독은 같은 묶음에 넣어 구독자 조회와 갱신이 겹치지 않게 한다
+    private int[] processPage(List<Subscription> page, Date now, Date until)
+        throws Exception {
+        List<List<Long>> partitions = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (Subscription subscription : page) {
+            long userId = subscription.getUserId() != null &&
+                subscription.getUserId().getId() != null
+                ? subscription.getUserId().getId()
+                : 0L;
+            partitions
+                .get((int) Math.floorMod(userId, (long) parallelism))
+                .add(subscription.getId());
+        }
+
+        List<CompletableFuture<int[]>> futures = new ArrayList<>();
+        for (List<Long> ids : partitions) {
+            if (!ids.isEmpty()) {
+                futures.add(
+                    CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return processBatch(ids, now, until);
+                            } catch (OptimisticLockingFailureException e) {
+                                // 다른 실행이 먼저 바꾼 구독이 있으면 묶음 전체를 롤백하고 다음 실행에서 다시 읽는다
+                                logger.warn("구독 만료 처리 충돌 ({}건): {}", ids.size(), e.getMessage());
+                                return new int[2];
+                            }
+                        },
+                        executor
+                    )
+                );
+            }
+        }
+        CompletableFuture
+            .allOf(futures.toArray(new CompletableFuture[0]))
+            .get(batchTimeoutSeconds, TimeUnit.SECONDS);
+
+        int[] counts = new int[2];
+        for (CompletableFuture<int[]> future : futures) {
+            counts[0] += future.get()[0];
+            counts[1] += future.get()[1];
+        }
+        return counts;
+    }
+
+    // 반환값: [연장 건수, 만료 건수]
+    private int[] processBatch(List<Long> ids, Date now, Date until) {
+        return transactionTemplate.execute(status -> {
+            // 조회 이후 취소되었거나 다른 실행이 처리한 구독은 건너뛴다
+            List<Subscription> subscriptions = new ArrayList<>();
+            Set<Long> userIds = new HashSet<>();
+            subscriptionRepository
+                .findAllById(ids)
+                .forEach(subscription -> {
+                    if (
+                        Boolean.TRUE.equals(subscription.getIsSubscription()) &&
+                        subscription.getEndSubscription() != null &&
+                        subscription.getEndSubscription().before(until)
+                    ) {
+                        subscriptions.add(subscription);
+                        if (subscription.getUserId() != null) {
+                            userIds.add(subscription.getUserId().getId());
+                        }
+                    }
+                });
+
+            Set<Long> autoRenewUsers = new HashSet<>();
+            Set<Long> purchasedUsers = new HashSet<>();
+            for (User user : userRepository.findAllById(userIds)) {
+                if (Boolean.TRUE.equals(user.getAutoRenew())) {
+                    autoRenewUsers.add(user.getId());
+                }
+                if (Boolean.TRUE.equals(user.getIsPurchase())) {
+                    purchasedUsers.add(user.getId());
+                }
+            }
+
+            List<SubscriptionRenewed.Item> renewed = new ArrayList<>();
+            List<Long> expiredIds = new ArrayList<>();
+            List<Long> expiredUserIds = new ArrayList<>();
+            List<Subscription> changed = new ArrayList<>();
+            List<Notification> notifications = new ArrayList<>();
+            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+            for (Subscription subscription : subscriptions) {
+                Long userId = subscription.getUserId() != null
+                    ? subscription.getUserId().getId()
+                    : null;
+                if (userId != null && autoRenewUsers.contains(userId)) {
+                    subscription.renew();
+                    renewed.add(
+                        new SubscriptionRenewed.Item(
+                            subscription.getId(),
+                            userId,
+                            subscription.getBookId() != null
+                                ? subscription.getBookId().getId()
+                                : null,
+                            subscription.getEndSubscription(),
+                            purchasedUsers.contains(userId)
+                        )
+                    );
+                    changed.add(subscription);
+                    if (subscription.getBookId() != null) {
+                        notifications.add(
+                            Notification.of(
+                                userId,
+                                Notification.SUBSCRIPTION_RENEWED,
+                                "도서(ID: " + subscription.getBookId().getId() + ") 구독이 자동 연장되었습니다. 새 종료일: " +
+                                dateFormat.format(subscription.getEndSubscription())
+                            )
+                        );
+                    }
+                } else if (!subscription.getEndSubscription().after(now)) {
+                    subscription.expire();
+                    expiredIds.add(subscription.getId());
+                    expiredUserIds.add(userId);
+                    changed.add(subscription);
+                    if (userId != null && subscription.getBookId() != null) {
+                        notifications.add(
+                            Notification.of(
+                                userId,
+                                Notification.SUBSCRIPTION_EXPIRED,
+                                "도서(ID: " + subscription.getBookId().getId() + ") 구독 기간이 끝나 구독이 만료되었습니다."
+                            )
+                        );
+                    }
+                }
+            }
+            subscriptionRepository.saveAll(changed);
+            notificationInbox.appendAll(notifications);
+
+            if (!renewed.isEmpty()) {
+                SubscriptionRenewed subscriptionRenewed = new SubscriptionRenewed();
+                subscriptionRenewed.setSubscriptions(renewed);
+                subscriptionRenewed.publishAfterCommit();
+            }
+            if (!expiredIds.isEmpty()) {
+                SubscriptionExpired subscriptionExpired = new SubscriptionExpired();
+                subscriptionExpired.setSubscriptionIds(expiredIds);
+                subscriptionExpired.setUserIds(expiredUserIds);
+                subscriptionExpired.publishAfterCommit();
+            }
+            return new int[] { renewed.size(), expiredIds.size() };
+        });
+    }
+}
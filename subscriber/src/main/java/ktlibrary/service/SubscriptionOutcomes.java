@@ -0,0 +1,93 @@
+package ktlibrary.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * 구독 신청 결과를 기다리는 요청. 상관 ID 별로 응답을 붙잡아 두었다가 같은 상관 ID 를 헤더에 실은
+ * 포인트 차감/부족 이벤트가 도착하면 최종 상태로 응답한다. 제한 시간 안에 오지 않으면 PENDING 으로 응답한다.
+ */
+@Service
+public class SubscriptionOutcomes {
+
+    public static final String SUBSCRIBED = "SUBSCRIBED";
+    public static final String FAILED = "FAILED";
+    public static final String PENDING = "PENDING";
+
+    @Value("${subscriber.outcome.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Value("${subscriber.outcome.max-pending:10000}")
+    private int maxPending;
+
+    private final Map<String, Waiter> waiting = new ConcurrentHashMap<>();
+
+    // 결과 이벤트는 신청이 커밋된 뒤에 발행되므로, 커밋 전에 등록하면 결과를 놓치지 않는다
+    public DeferredResult<Map<String, Object>> await(
+        String correlationId,
+        Long subscriptionId
+    ) {
+        DeferredResult<Map<String, Object>> result = new DeferredResult<>(
+            timeoutMillis,
+            outcome(subscriptionId, PENDING, null)
+        );
+        // 붙잡은 요청이 너무 많으면 기다리지 않고 바로 응답한다
+        if (waiting.size() >= maxPending) {
+            result.setResult(outcome(subscriptionId, PENDING, null));
+            return result;
+        }
+        waiting.put(correlationId, new Waiter(subscriptionId, result));
+        result.onCompletion(() -> waiting.remove(correlationId));
+        return result;
+    }
+
+    public DeferredResult<Map<String, Object>> completed(
+        Long subscriptionId,
+        String status,
+        String message
+    ) {
+        DeferredResult<Map<String, Object>> result = new DeferredResult<>();
+        result.setResult(outcome(subscriptionId, status, message));
+        return result;
+    }
+
+    // 다른 인스턴스가 붙잡은 요청의 결과이면 아무 것도 하지 않는다
+    public void complete(String correlationId, String status, String message) {
+        if (correlationId == null) {
+            return;
+        }
+        Waiter waiter = waiting.remove(correlationId);
+        if (waiter != null) {
+            waiter.result.setResult(outcome(waiter.subscriptionId, status, message));
+        }
+    }
+
+    private static Map<String, Object> outcome(
+        Long subscriptionId,
+        String status,
+        String message
+    ) {
+        Map<String, Object> outcome = new LinkedHashMap<>();
+        outcome.put("subscriptionId", subscriptionId);
+        outcome.put("status", status);
+        if (message != null) {
+            outcome.put("message", message);
+        }
+        return outcome;
+    }
+
+    private static class Waiter {
+
+        private final Long subscriptionId;
+        private final DeferredResult<Map<String, Object>> result;
+
+        Waiter(Long subscriptionId, DeferredResult<Map<String, Object>> result) {
+            this.subscriptionId = subscriptionId;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package ktlibrary.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import ktlibrary.domain.User;
+import ktlibrary.domain.UserImport;
+import ktlibrary.domain.UsersRegistered;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 업로드된 CSV(첫 줄은 헤더) 또는 NDJSON 을 한 줄씩 읽어 구독자를 대량으로 가입시킨다.
+ * 묶음(chunk)마다 한 트랜잭션에서 JDBC 배치로 저장하고 가입 이벤트도 묶음당 한 건(UsersRegistered)만 발행한다.
+ * 잘못된 행은 건너뛰고 줄 번호와 함께 기록한다.
+ */
+@Service
+public class UserImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        UserImporter.class
+    );
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final int MAX_EMAIL_LENGTH = 255;
+
+    @Value("${subscriber.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${subscriber.import.error-limit:100}")
+    private int errorLimit;
+
+    @Value("${subscriber.import.retain:20}")
+    private int retain;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ConcurrentSkipListMap<Long, UserImport> imports = new ConcurrentSkipListMap<>();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public UserImport get(Long importId) {
+        return imports.get(importId);
+    }
+
+    // 요청 스레드에서 업로드를 끝까지 읽으며 처리한다. 진행 상황은 다른 요청에서 get() 으로 조회할 수 있다
+    public UserImport run(InputStream input, String format) {
+        UserImport job = new UserImport();
+        job.setId(sequence.incrementAndGet());
+        job.setFormat(format);
+        job.setStatus(UserImport.RUNNING);
+        job.setStartedAt(new Date());
+        imports.put(job.getId(), job);
+        while (imports.size() > retain) {
+            imports.pollFirstEntry();
+        }
+
+        try (
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8)
+            )
+        ) {
+            List<String> header = null;
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            long line = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.trim().isEmpty()) {
+                    continue;
+                }
+                if (CSV.equals(format) && header == null) {
+                    header = csvHeader(text);
+                    continue;
+                }
+                job.setProcessedRows(job.getProcessedRows() + 1);
+                try {
+                    chunk.add(new Row(line, toUser(parse(text, format, header))));
+                } catch (IllegalArgumentException e) {
+                    error(job, line, e.getMessage());
+                }
+                if (chunk.size() >= chunkSize) {
+                    save(job, chunk);
+                    chunk.clear();
+                }
+            }
+            save(job, chunk);
+            job.setStatus(UserImport.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            logger.error("구독자 대량 가입 {} 실패: {}", job.getId(), e.getMessage(), e);
+            job.setFailureMessage(e.getMessage());
+            job.setStatus(UserImport.FAILED);
+        }
+        job.setCompletedAt(new Date());
+        logger.info(
+            "구독자 대량 가입 {} 종료 ({}): {}행 중 {}명 가입, {}행 실패, {}ms",
+            job.getId(),
+            job.getStatus(),
+            job.getProcessedRows(),
+            job.getImportedCount(),
+            job.getFailedCount(),
+            job.getCompletedAt().getTime() - job.getStartedAt().getTime()
+        );
+        return job;
+    }
+
+    private void save(UserImport job, List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            job.setImportedCount(job.getImportedCount() + persist(job, rows));
+        } catch (RuntimeException e) {
+            // 묶음 전체가 롤백되었으므로 한 행씩 다시 저장해 실패한 행만 골라낸다
+            for (Row row : rows) {
+                try {
+                    job.setImportedCount(job.getImportedCount() + persist(job, List.of(row)));
+                } catch (RuntimeException rowError) {
+                    error(job, row.line, rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private int persist(UserImport job, List<Row> rows) {
+        return transactionTemplate.execute(status -> {
+            List<Long> userIds = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                User user = row.copy();
+                entityManager.persist(user);
+                userIds.add(user.getId());
+            }
+            // 배치로 INSERT 한 뒤 영속성 컨텍스트를 비워 묶음마다 메모리를 되돌려 준다
+            entityManager.flush();
+            entityManager.clear();
+
+            UsersRegistered usersRegistered = new UsersRegistered();
+            usersRegistered.setImportId(job.getId());
+            usersRegistered.setUserIds(userIds);
+            usersRegistered.publishAfterCommit();
+            return userIds.size();
+        });
+    }
+
+    private void error(UserImport job, long line, String message) {
+        job.setFailedCount(job.getFailedCount() + 1);
+        if (job.getErrors().size() < errorLimit) {
+            job.getErrors().add(new UserImport.RowError(line, message));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> parse(String text, String format, List<String> header) {
+        if (NDJSON.equals(format)) {
+            try {
+                return objectMapper.readValue(text, Map.class);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("JSON 형식이 아닙니다.");
+            }
+        }
+        List<String> values = csvValues(text);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException(
+                "열 개수가 헤더와 다릅니다: " + values.size() + " != " + header.size()
+            );
+        }
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return fields;
+    }
+
+    private static User toUser(Map<String, Object> fields) {
+        Object email = fields.get("email");
+        if (email == null || email.toString().trim().isEmpty()) {
+            throw new IllegalArgumentException("email 이 없습니다.");
+        }
+        String trimmed = email.toString().trim();
+        if (trimmed.length() > MAX_EMAIL_LENGTH || trimmed.indexOf('@') <= 0) {
+            throw new IllegalArgumentException("잘못된 email 입니다: " + trimmed);
+        }
+
+        User user = new User();
+        user.setEmail(trimmed);
+        Object userName = fields.get("userName");
+        if (userName != null && !userName.toString().trim().isEmpty()) {
+            user.setUserName(userName.toString().trim());
+        }
+        Object isPurchase = fields.get("isPurchase");
+        if (isPurchase != null && !isPurchase.toString().trim().isEmpty()) {
+            String value = isPurchase.toString().trim();
+            if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                throw new IllegalArgumentException("isPurchase 는 true 또는 false 여야 합니다: " + value);
+            }
+            user.setIsPurchase(Boolean.valueOf(value.toLowerCase()));
+        }
+        return user;
+    }
+
+    // 헤더의 열 이름은 대소문자를 가리지 않고 User 필드 이름에 맞춘다
+    private static List<String> csvHeader(String text) {
+        List<String> header = new ArrayList<>();
+        for (String name : csvValues(text)) {
+            String key = name.trim();
+            if ("username".equalsIgnoreCase(key)) {
+                key = "userName";
+            } else if ("ispurchase".equalsIgnoreCase(key)) {
+                key = "isPurchase";
+            } else if ("email".equalsIgnoreCase(key)) {
+                key = "email";
+            }
+            header.add(key);
+        }
+        if (!header.contains("email")) {
+            throw new IllegalArgumentException("CSV 헤더에 email 열이 없습니다.");
+        }
+        return header;
+    }
+
+    // 큰따옴표로 감싼 값 안의 쉼표와 "" (따옴표 이스케이프)를 처리한다
+    private static List<String> csvValues(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static class Row {
+
+        private final long line;
+        private final User user;
+
+        Row(long line, User user) {
+            this.line = line;
+            this.user = user;
+        }
+
+        // 롤백된 묶음을 다시 저장할 때 이전 시도의 ID 가 남지 않도록 매번 새 엔티티를 만든다
+        User copy() {
+            User copy = new User();
+            copy.setEmail(user.getEmail());
+            copy.setUserName(user.getUserName());
+            copy.setIsPurchase(user.getIsPurchase());
+            copy.setImported(true);
+            return copy;
+        }
+    }
+}
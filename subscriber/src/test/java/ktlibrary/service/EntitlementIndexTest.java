@@ -0,0 +1,134 @@
+package ktlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import ktlibrary.domain.BookId;
+import ktlibrary.domain.Subscription;
+import ktlibrary.domain.SubscriptionRepository;
+import ktlibrary.domain.User;
+import ktlibrary.domain.UserId;
+import ktlibrary.domain.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class EntitlementIndexTest {
+
+    private final SubscriptionRepository subscriptionRepository = mock(SubscriptionRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    // DB 의 현재 상태
+    private final List<Subscription> active = new ArrayList<>();
+    private final List<User> users = new ArrayList<>();
+
+    private EntitlementIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EntitlementIndex();
+        ReflectionTestUtils.setField(index, "subscriptionRepository", subscriptionRepository);
+        ReflectionTestUtils.setField(index, "userRepository", userRepository);
+        ReflectionTestUtils.setField(index, "loadPageSize", 100);
+        when(subscriptionRepository.findActiveByUserIds(anyCollection()))
+            .thenAnswer(invocation -> new ArrayList<>(active));
+        when(userRepository.findAllById(anyIterable()))
+            .thenAnswer(invocation -> new ArrayList<>(users));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void refreshAppliesChangesMadeOnOtherInstances() {
+        index.grant(1L, 10L);
+        index.grant(1L, 11L);
+
+        // 다른 인스턴스에서 10번 구독이 취소되고 구독권을 샀다
+        active.add(subscription(1L, 11L));
+        users.add(user(1L, true));
+        index.refresh(Collections.singletonList(1L));
+
+        assertThat(index.hasAccess(1L, 10L)).isTrue();
+        users.set(0, user(1L, false));
+        index.refresh(Collections.singletonList(1L));
+
+        assertThat(index.hasAccess(1L, 10L)).isFalse();
+        assertThat(index.hasAccess(1L, 11L)).isTrue();
+    }
+
+    // 늦게 도착한 신청 이벤트도 DB 를 다시 읽으므로 이미 취소된 구독을 되살리지 않는다
+    @Test
+    void lateEventDoesNotRestoreCanceledSubscription() {
+        index.grant(2L, 20L);
+
+        index.refresh(Arrays.asList(2L, 2L));
+
+        assertThat(index.hasAccess(2L, 20L)).isFalse();
+        assertThat(index.hasAccess(2L, Arrays.asList(20L, 21L))).containsValues(false, false);
+    }
+
+    @Test
+    void reserveRejectsDuplicateAndRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThat(index.reserve(3L, 30L)).isTrue();
+        assertThat(index.reserve(3L, 30L)).isFalse();
+        assertThat(index.hasAccess(3L, 30L)).isTrue();
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(index.hasAccess(3L, 30L)).isFalse();
+        assertThat(index.reserve(3L, 30L)).isTrue();
+    }
+
+    // 커밋 전인 자리는 DB 에 아직 없어도 다시 읽을 때 유지되고, 커밋되면 권한으로 남는다
+    @Test
+    void refreshKeepsUncommittedReservation() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(index.reserve(4L, 40L)).isTrue();
+
+        index.refresh(Collections.singletonList(4L));
+        assertThat(index.reserve(4L, 40L)).isFalse();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(index.hasAccess(4L, 40L)).isTrue();
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations =
+            TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static Subscription subscription(Long userId, Long bookId) {
+        Subscription subscription = new Subscription();
+        subscription.setUserId(new UserId(userId));
+        subscription.setBookId(new BookId(bookId));
+        subscription.setIsSubscription(true);
+        return subscription;
+    }
+
+    private static User user(Long id, boolean isPurchase) {
+        User user = new User();
+        user.setId(id);
+        user.setIsPurchase(isPurchase);
+        return user;
+    }
+}
@@ -0,0 +1,58 @@
+package ktlibrary.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class IdBitmapTest {
+
+    @Test
+    void withAndWithoutKeepOriginalUnchanged() {
+        IdBitmap one = IdBitmap.EMPTY.with(7L);
+        IdBitmap two = one.with(70_000L);
+
+        assertThat(IdBitmap.EMPTY.isEmpty()).isTrue();
+        assertThat(one.contains(7L)).isTrue();
+        assertThat(one.contains(70_000L)).isFalse();
+        assertThat(two.contains(7L)).isTrue();
+        assertThat(two.contains(70_000L)).isTrue();
+
+        IdBitmap removed = two.without(7L);
+        assertThat(removed.contains(7L)).isFalse();
+        assertThat(two.contains(7L)).isTrue();
+        assertThat(removed.without(70_000L).isEmpty()).isTrue();
+    }
+
+    @Test
+    void addingExistingOrRemovingMissingIsNoOp() {
+        IdBitmap bitmap = IdBitmap.EMPTY.with(3L).with(3L);
+
+        assertThat(bitmap.without(4L).contains(3L)).isTrue();
+        assertThat(bitmap.without(3L).isEmpty()).isTrue();
+    }
+
+    // 한 컨테이너가 배열 한도를 넘어 비트맵으로 바뀌고, 다시 줄어 배열로 돌아와도 같은 집합이어야 한다
+    @Test
+    void matchesTreeSetAcrossContainerConversions() {
+        Random random = new Random(42);
+        TreeSet<Long> expected = new TreeSet<>();
+        IdBitmap bitmap = IdBitmap.EMPTY;
+        for (int i = 0; i < 10_000; i++) {
+            long id = random.nextInt(3 * 65_536);
+            expected.add(id);
+            bitmap = bitmap.with(id);
+        }
+        for (int i = 0; i < 8_000; i++) {
+            long id = random.nextInt(3 * 65_536);
+            expected.remove(id);
+            bitmap = bitmap.without(id);
+        }
+
+        for (long id = 0; id < 3 * 65_536; id++) {
+            assertThat(bitmap.contains(id)).as("id %d", id).isEqualTo(expected.contains(id));
+        }
+        assertThat(bitmap.isEmpty()).isEqualTo(expected.isEmpty());
+    }
+}